@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.benchmarks;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestScanner;
+
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures decoding JSON-RPC requests: scanning the envelope of a single request or of each member
+ * of a batch, as the JsonRpcHandler does, and fully decoding a request, as the JsonRpcErrorHandler
+ * does.
+ *
+ * <pre>gradle :ethsigner:benchmarks:jmh -Pinclude=JsonRpcRequestDecodingBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonRpcRequestDecodingBenchmark {
+
+  private static final int BATCH_SIZE = 10;
+
+  private final Buffer body = Requests.ethSendTransaction(Requests.SENDER);
+  private final Buffer batch = batch(body);
+
+  @Benchmark
+  public JsonRpcRequest scanRequest() {
+    return JsonRpcRequestScanner.scan(body);
+  }
+
+  @Benchmark
+  public void scanBatch(final Blackhole blackhole) {
+    for (final Buffer member : JsonRpcRequestScanner.splitBatch(batch)) {
+      blackhole.consume(JsonRpcRequestScanner.scan(member));
+    }
+  }
+
+  @Benchmark
+  public JsonRpcRequest decodeRequest() {
+    return Json.decodeValue(body, JsonRpcRequest.class);
+  }
+
+  private static Buffer batch(final Buffer request) {
+    final Buffer batch = Buffer.buffer().appendString("[");
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      if (i > 0) {
+        batch.appendString(",");
+      }
+      batch.appendBuffer(request);
+    }
+    return batch.appendString("]");
+  }
+}
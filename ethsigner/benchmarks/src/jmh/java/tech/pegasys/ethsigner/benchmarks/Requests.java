@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.benchmarks;
+
+import io.vertx.core.buffer.Buffer;
+
+/** Request bodies as received from a client, shared by the benchmarks. */
+final class Requests {
+
+  static final String SENDER = "0xfe3b557e8fb62b89f4916b721be55ceb828dbd73";
+
+  private static final String TRANSACTION_FIELDS =
+      "\"to\":\"0xd46e8dd67c5d32be8058bb8eb970870f07244567\","
+          + "\"gas\":\"0x76c0\","
+          + "\"gasPrice\":\"0x9184e72a000\","
+          + "\"nonce\":\"0x1\","
+          + "\"data\":\"0xd46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f072445675\"";
+
+  private Requests() {}
+
+  /** @return an eth_sendTransaction request, with its nonce specified so the node is not asked */
+  static Buffer ethSendTransaction(final String sender) {
+    return Buffer.buffer(
+        "{\"jsonrpc\":\"2.0\",\"method\":\"eth_sendTransaction\",\"params\":[{"
+            + "\"from\":\""
+            + sender
+            + "\","
+            + TRANSACTION_FIELDS
+            + ",\"value\":\"0x9184e72a\""
+            + "}],\"id\":1}");
+  }
+
+  /** @return an eea_sendTransaction request, with its nonce specified so the node is not asked */
+  static Buffer eeaSendTransaction(final String sender) {
+    return Buffer.buffer(
+        "{\"jsonrpc\":\"2.0\",\"method\":\"eea_sendTransaction\",\"params\":[{"
+            + "\"from\":\""
+            + sender
+            + "\","
+            + TRANSACTION_FIELDS
+            + ",\"value\":\"0x0\""
+            + ",\"privateFrom\":\"ZlapEsl9qDLPy/e88+/6yvCUEVIvH83y0N4A6wHuKXI=\","
+            + "\"privateFor\":[\"GV8m0VZAccYGAAYMBuYQtKEj0XtpXeaw2APcoBmtA2w=\"],"
+            + "\"restriction\":\"restricted\""
+            + "}],\"id\":1}");
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.benchmarks;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestScanner;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceAllocator;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
+
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.buffer.Buffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures creating a transaction from the body of a send transaction request, i.e. scanning the
+ * request, binding its parameters and allocating the sender's nonce provider.
+ *
+ * <pre>gradle :ethsigner:benchmarks:jmh -Pinclude=TransactionFactoryBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionFactoryBenchmark {
+
+  // The requests specify their nonce, so the node is never asked for one
+  private final TransactionFactory factory = new TransactionFactory(null, new NonceAllocator());
+
+  private final Buffer ethBody = Requests.ethSendTransaction(Requests.SENDER);
+  private final Buffer eeaBody = Requests.eeaSendTransaction(Requests.SENDER);
+
+  @Benchmark
+  public Transaction ethTransaction() {
+    return factory.createTransaction(JsonRpcRequestScanner.scan(ethBody));
+  }
+
+  @Benchmark
+  public Transaction eeaTransaction() {
+    return factory.createTransaction(JsonRpcRequestScanner.scan(eeaBody));
+  }
+}
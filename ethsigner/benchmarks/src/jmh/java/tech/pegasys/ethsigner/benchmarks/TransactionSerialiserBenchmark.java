@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.benchmarks;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestScanner;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceAllocator;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
+import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
+import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerRegistry;
+import tech.pegasys.ethsigner.signer.filebased.CredentialTransactionSigner;
+
+import java.util.concurrent.TimeUnit;
+
+import io.prometheus.client.CollectorRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.web3j.crypto.Credentials;
+
+/**
+ * Measures the TransactionSerialiser encoding and signing a transaction with a
+ * CredentialTransactionSigner, as done for each eth_sendTransaction and eea_sendTransaction.
+ *
+ * <p>A transaction retains its encoding once serialised, so each invocation creates the
+ * transaction from an already scanned request; the TransactionFactoryBenchmark measures that
+ * share on its own.
+ *
+ * <pre>gradle :ethsigner:benchmarks:jmh -Pinclude=TransactionSerialiserBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionSerialiserBenchmark {
+
+  private static final long CHAIN_ID = 2018;
+
+  private final TransactionSigner signer =
+      new CredentialTransactionSigner(
+          Credentials.create("8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63"));
+  private final TransactionSerialiser serialiser =
+      new TransactionSerialiser(
+          new TransactionSignerRegistry(signer),
+          CHAIN_ID,
+          new EthSignerMetrics(new CollectorRegistry(), "file"));
+  // The requests specify their nonce, so the node is never asked for one
+  private final TransactionFactory factory = new TransactionFactory(null, new NonceAllocator());
+
+  private final JsonRpcRequest ethRequest =
+      JsonRpcRequestScanner.scan(Requests.ethSendTransaction(signer.getAddress()));
+  private final JsonRpcRequest eeaRequest =
+      JsonRpcRequestScanner.scan(Requests.eeaSendTransaction(signer.getAddress()));
+
+  @Benchmark
+  public byte[] ethTransaction() {
+    return serialiser.serialise(factory.createTransaction(ethRequest));
+  }
+
+  @Benchmark
+  public byte[] eeaTransaction() {
+    return serialiser.serialise(factory.createTransaction(eeaRequest));
+  }
+}
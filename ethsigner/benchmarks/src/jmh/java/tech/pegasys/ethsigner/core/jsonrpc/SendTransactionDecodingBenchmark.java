@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares decoding the parameters of an eth_sendTransaction request through intermediate JSON
+ * trees, as was previously done, against binding them directly from the request body.
+ *
+ * <p>Allocations per request are reported by the GC profiler (gc.alloc.rate.norm), e.g.
+ *
+ * <pre>gradle :ethsigner:benchmarks:jmh -Pinclude=SendTransactionDecodingBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SendTransactionDecodingBenchmark {
+
+  private final Buffer body =
+      Buffer.buffer(
+          "{\"jsonrpc\":\"2.0\",\"method\":\"eth_sendTransaction\",\"params\":[{"
+              + "\"from\":\"0xb60e8dd61c5d32be8058bb8eb970870f07233155\","
+              + "\"to\":\"0xd46e8dd67c5d32be8058bb8eb970870f07244567\","
+              + "\"gas\":\"0x76c0\","
+              + "\"gasPrice\":\"0x9184e72a000\","
+              + "\"value\":\"0x9184e72a\","
+              + "\"nonce\":\"0x1\","
+              + "\"data\":\"0xd46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f072445675\""
+              + "}],\"id\":1}");
+
+  @Benchmark
+  public EthSendTransactionJsonParameters treeDecoding() {
+    // body -> JsonObject -> JsonRpcRequest -> JsonObject -> parameters
+    final JsonRpcRequest request = new JsonObject(body).mapTo(JsonRpcRequest.class);
+    final Object param = ((List<?>) request.getParams()).get(0);
+    return JsonObject.mapFrom(param).mapTo(EthSendTransactionJsonParameters.class);
+  }
+
+  @Benchmark
+  public EthSendTransactionJsonParameters streamingDecoding() {
+    return EthSendTransactionJsonParameters.from(JsonRpcRequestScanner.scan(body));
+  }
+}
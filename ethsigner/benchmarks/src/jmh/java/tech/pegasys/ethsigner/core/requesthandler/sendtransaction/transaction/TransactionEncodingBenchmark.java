@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
+
+import tech.pegasys.ethsigner.core.jsonrpc.EthSendTransactionJsonParameters;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.core.Future;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.rlp.RlpEncoder;
+import org.web3j.rlp.RlpList;
+import org.web3j.utils.Numeric;
+
+/**
+ * Compares RLP encoding a transaction for signing and then with its signature, as done by the
+ * TransactionSerialiser, through web3j's RlpTypes against the TransactionRlpEncoder.
+ *
+ * <p>Allocations per transaction are reported by the GC profiler (gc.alloc.rate.norm), e.g.
+ *
+ * <pre>gradle :ethsigner:benchmarks:jmh -Pinclude=TransactionEncodingBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TransactionEncodingBenchmark {
+
+  private static final long CHAIN_ID = 2018;
+
+  private final EthSendTransactionJsonParameters params = params();
+  private final JsonRpcRequestId id = new JsonRpcRequestId(1);
+  private final SignatureData chainIdSignature =
+      new SignatureData(Transaction.longToBytes(CHAIN_ID), new byte[0], new byte[0]);
+  private final SignatureData signature =
+      new SignatureData(
+          new byte[] {0x0f, (byte) 0xe7},
+          Numeric.hexStringToByteArray(
+              "0x00fe72a92aede764ce41d06b163d28700b58e5ee8bb1af91d9d54979ea3bdb3e7e"),
+          Numeric.hexStringToByteArray(
+              "0x46ae10c94c322fa44ddceb86677c2cd6cc17dfbd766924f41d10a244c512996d"));
+
+  @Benchmark
+  public byte[] web3jEncoding() {
+    final RawTransaction transaction =
+        RawTransaction.createTransaction(
+            params.nonce().get(),
+            params.gasPrice().get(),
+            params.gas().get(),
+            params.receiver().get(),
+            params.value().get(),
+            params.data().get());
+    RlpEncoder.encode(new RlpList(TransactionEncoder.asRlpValues(transaction, chainIdSignature)));
+    return RlpEncoder.encode(new RlpList(TransactionEncoder.asRlpValues(transaction, signature)));
+  }
+
+  @Benchmark
+  public byte[] directEncoding() {
+    final EthTransaction transaction =
+        new EthTransaction(params, () -> Future.succeededFuture(BigInteger.ZERO), id);
+    transaction.rlpEncode(chainIdSignature);
+    return transaction.rlpEncode(signature);
+  }
+
+  private static EthSendTransactionJsonParameters params() {
+    final EthSendTransactionJsonParameters params =
+        new EthSendTransactionJsonParameters("0xb60e8dd61c5d32be8058bb8eb970870f07233155");
+    params.receiver("0xd46e8dd67c5d32be8058bb8eb970870f07244567");
+    params.gas(Numeric.decodeQuantity("0x76c0"));
+    params.gasPrice(Numeric.decodeQuantity("0x9184e72a000"));
+    params.value(Numeric.decodeQuantity("0x9184e72a"));
+    params.nonce(Numeric.decodeQuantity("0x1"));
+    params.data(
+        "0xd46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f072445675");
+    return params;
+  }
+}
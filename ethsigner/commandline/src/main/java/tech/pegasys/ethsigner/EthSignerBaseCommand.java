@@ -15,8 +15,10 @@ package tech.pegasys.ethsigner;
 import tech.pegasys.ethsigner.core.Config;
 import tech.pegasys.ethsigner.core.signing.ChainIdProvider;
 import tech.pegasys.ethsigner.core.signing.ConfigurationChainId;
+import tech.pegasys.ethsigner.core.tracing.TraceExporterType;
 
 import java.net.InetAddress;
+import java.net.URL;
 import java.nio.file.Path;
 import java.time.Duration;
 
@@ -94,10 +96,80 @@ public class EthSignerBaseCommand implements Config {
 
   @Option(
       names = {"--data-path"},
-      description = "The path to a directory to store temporary files",
+      description =
+          "The path to a directory to store temporary files, and the journal of allocated nonces",
       arity = "1")
   private Path dataPath;
 
+  @Option(
+      names = {"--http-server-instances"},
+      description =
+          "Number of JSON-RPC HTTP server instances sharing the listen port, each bound to its own event loop (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer httpServerInstances = Runtime.getRuntime().availableProcessors();
+
+  @Option(
+      names = {"--event-loop-pool-size"},
+      description =
+          "Number of event loop threads used to process requests (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer eventLoopPoolSize = 2 * Runtime.getRuntime().availableProcessors();
+
+  @Option(
+      names = {"--worker-pool-size"},
+      description =
+          "Number of worker threads available for blocking operations such as signing (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final Integer workerPoolSize = 20;
+
+  @SuppressWarnings("FieldMayBeFinal")
+  @Option(
+      names = {"--metrics-enabled"},
+      description = "Expose Prometheus metrics at /metrics (default: ${DEFAULT-VALUE})")
+  private boolean metricsEnabled = false;
+
+  @Option(
+      names = {"--metrics-host"},
+      description =
+          "Host for the metrics server to listen on, when it has its own port (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final InetAddress metricsHost = InetAddress.getLoopbackAddress();
+
+  @Option(
+      names = {"--metrics-port"},
+      description =
+          "Port for a dedicated metrics server to listen on, otherwise metrics are served on the JSON-RPC HTTP port",
+      arity = "1")
+  private final Integer metricsPort = null;
+
+  @Option(
+      names = {"--tracing-exporter"},
+      description =
+          "Where traces of the stages of each request are exported: NONE, FILE, OTLP (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private final TraceExporterType tracingExporter = TraceExporterType.NONE;
+
+  @SuppressWarnings("FieldMayBeFinal")
+  @Option(
+      names = {"--tracing-sample-ratio"},
+      description =
+          "Proportion of requests traced, unless their traceparent header decides (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private double tracingSampleRatio = 0.01;
+
+  @Option(
+      names = {"--tracing-file"},
+      description = "The file traces are written to when exported to a FILE, rolled by size",
+      arity = "1")
+  private final Path tracingFile = null;
+
+  @Option(
+      names = {"--tracing-otlp-endpoint"},
+      description =
+          "The OTLP/HTTP endpoint traces are sent to when exported with OTLP, e.g. http://localhost:4318/v1/traces",
+      arity = "1")
+  private final URL tracingOtlpEndpoint = null;
+
   @Override
   public Level getLogLevel() {
     return logLevel;
@@ -133,6 +205,56 @@ public class EthSignerBaseCommand implements Config {
     return dataPath;
   }
 
+  @Override
+  public Integer getHttpServerInstances() {
+    return httpServerInstances;
+  }
+
+  @Override
+  public Integer getEventLoopPoolSize() {
+    return eventLoopPoolSize;
+  }
+
+  @Override
+  public Integer getWorkerPoolSize() {
+    return workerPoolSize;
+  }
+
+  @Override
+  public boolean isMetricsEnabled() {
+    return metricsEnabled;
+  }
+
+  @Override
+  public InetAddress getMetricsHost() {
+    return metricsHost;
+  }
+
+  @Override
+  public Integer getMetricsPort() {
+    return metricsPort;
+  }
+
+  @Override
+  public TraceExporterType getTracingExporter() {
+    return tracingExporter;
+  }
+
+  @Override
+  public double getTracingSampleRatio() {
+    return tracingSampleRatio;
+  }
+
+  @Override
+  public Path getTracingFile() {
+    return tracingFile;
+  }
+
+  @Override
+  public URL getTracingOtlpEndpoint() {
+    return tracingOtlpEndpoint;
+  }
+
   @Override
   public Duration getDownstreamHttpRequestTimeout() {
     return Duration.ofMillis(downstreamHttpRequestTimeout);
@@ -149,6 +271,16 @@ public class EthSignerBaseCommand implements Config {
         .add("httpListenPort", httpListenPort)
         .add("chainId", chainId)
         .add("dataPath", dataPath)
+        .add("httpServerInstances", httpServerInstances)
+        .add("eventLoopPoolSize", eventLoopPoolSize)
+        .add("workerPoolSize", workerPoolSize)
+        .add("metricsEnabled", metricsEnabled)
+        .add("metricsHost", metricsHost)
+        .add("metricsPort", metricsPort)
+        .add("tracingExporter", tracingExporter)
+        .add("tracingSampleRatio", tracingSampleRatio)
+        .add("tracingFile", tracingFile)
+        .add("tracingOtlpEndpoint", tracingOtlpEndpoint)
         .toString();
   }
 }
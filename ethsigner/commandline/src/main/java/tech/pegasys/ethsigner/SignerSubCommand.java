@@ -13,7 +13,7 @@
 package tech.pegasys.ethsigner;
 
 import tech.pegasys.ethsigner.core.EthSigner;
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,10 +26,15 @@ public abstract class SignerSubCommand implements Runnable {
 
   @CommandLine.ParentCommand private EthSignerBaseCommand config;
 
-  public abstract TransactionSigner createSigner() throws TransactionSignerInitializationException;
+  /** @return the signers of every key the sub-command is configured with, by their address */
+  public abstract TransactionSignerProvider createSignerProvider()
+      throws TransactionSignerInitializationException;
 
   public abstract String getCommandName();
 
+  /** @return the kind of store holding the keys, with which signing metrics are labelled */
+  public abstract String getSigningBackend();
+
   @Override
   public void run() throws TransactionSignerInitializationException {
     // set log level per CLI flags
@@ -39,9 +44,9 @@ public abstract class SignerSubCommand implements Runnable {
     LOG.debug("Configuration = {}", this);
     LOG.info("Version = {}", ApplicationInfo.version());
 
-    final TransactionSigner transactionSigner = createSigner();
+    final TransactionSignerProvider signerProvider = createSignerProvider();
 
-    final EthSigner signer = new EthSigner(config, transactionSigner);
+    final EthSigner signer = new EthSigner(config, signerProvider, getSigningBackend());
     signer.run();
   }
 }
@@ -15,10 +15,15 @@ package tech.pegasys.ethsigner;
 import static org.assertj.core.api.Assertions.assertThat;
 import static tech.pegasys.ethsigner.CommandlineParser.MISSING_SUBCOMMAND_ERROR;
 
+import tech.pegasys.ethsigner.core.tracing.TraceExporterType;
+
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.net.InetAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.function.Supplier;
 
@@ -62,6 +67,16 @@ public class CommandlineParserTest {
         + "--http-listen-port=5001 "
         + "--http-listen-host=localhost "
         + "--chain-id=6 "
+        + "--http-server-instances=3 "
+        + "--event-loop-pool-size=7 "
+        + "--worker-pool-size=11 "
+        + "--metrics-enabled "
+        + "--metrics-host=localhost "
+        + "--metrics-port=5002 "
+        + "--tracing-exporter=OTLP "
+        + "--tracing-sample-ratio=0.5 "
+        + "--tracing-file=/tmp/ethsigner-traces.json "
+        + "--tracing-otlp-endpoint=http://localhost:4318/v1/traces "
         + "--logging=INFO ";
   }
 
@@ -74,7 +89,8 @@ public class CommandlineParserTest {
   }
 
   @Test
-  public void fullyPopulatedCommandLineParsesIntoVariables() throws UnknownHostException {
+  public void fullyPopulatedCommandLineParsesIntoVariables()
+      throws UnknownHostException, MalformedURLException {
     final boolean result =
         parser.parseCommandLine(
             (parentCommandOptionsOnly() + subCommand.getCommandName()).split(" "));
@@ -87,6 +103,17 @@ public class CommandlineParserTest {
     assertThat(config.getDownstreamHttpRequestTimeout()).isEqualTo(Duration.ofSeconds(10));
     assertThat(config.getHttpListenHost()).isEqualTo(InetAddress.getByName("localhost"));
     assertThat(config.getHttpListenPort()).isEqualTo(5001);
+    assertThat(config.getHttpServerInstances()).isEqualTo(3);
+    assertThat(config.getEventLoopPoolSize()).isEqualTo(7);
+    assertThat(config.getWorkerPoolSize()).isEqualTo(11);
+    assertThat(config.isMetricsEnabled()).isTrue();
+    assertThat(config.getMetricsHost()).isEqualTo(InetAddress.getByName("localhost"));
+    assertThat(config.getMetricsPort()).isEqualTo(5002);
+    assertThat(config.getTracingExporter()).isEqualTo(TraceExporterType.OTLP);
+    assertThat(config.getTracingSampleRatio()).isEqualTo(0.5);
+    assertThat(config.getTracingFile()).isEqualTo(Paths.get("/tmp/ethsigner-traces.json"));
+    assertThat(config.getTracingOtlpEndpoint())
+        .isEqualTo(new URL("http://localhost:4318/v1/traces"));
   }
 
   @Test
@@ -165,6 +192,37 @@ public class CommandlineParserTest {
         "http-listen-host", config::getHttpListenHost, InetAddress.getLoopbackAddress());
   }
 
+  @Test
+  public void missingHttpServerInstancesDefaultsToAvailableProcessors() {
+    missingOptionalParameterIsValidAndMeetsDefault(
+        "http-server-instances",
+        config::getHttpServerInstances,
+        Runtime.getRuntime().availableProcessors());
+  }
+
+  @Test
+  public void missingWorkerPoolSizeDefaultsToTwenty() {
+    missingOptionalParameterIsValidAndMeetsDefault(
+        "worker-pool-size", config::getWorkerPoolSize, 20);
+  }
+
+  @Test
+  public void missingMetricsPortDefaultsToSharingHttpPort() {
+    missingOptionalParameterIsValidAndMeetsDefault("metrics-port", config::getMetricsPort, null);
+  }
+
+  @Test
+  public void missingTracingExporterDefaultsToNone() {
+    missingOptionalParameterIsValidAndMeetsDefault(
+        "tracing-exporter", config::getTracingExporter, TraceExporterType.NONE);
+  }
+
+  @Test
+  public void missingTracingSampleRatioDefaultsToOnePercent() {
+    missingOptionalParameterIsValidAndMeetsDefault(
+        "tracing-sample-ratio", config::getTracingSampleRatio, 0.01);
+  }
+
   @Test
   public void illegalSubCommandDisplaysErrorMessage() {
     // NOTE: all required params must be specified
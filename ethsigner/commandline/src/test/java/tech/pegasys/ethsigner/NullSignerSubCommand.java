@@ -12,7 +12,7 @@
  */
 package tech.pegasys.ethsigner;
 
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
@@ -39,7 +39,8 @@ public class NullSignerSubCommand extends SignerSubCommand {
   }
 
   @Override
-  public TransactionSigner createSigner() throws TransactionSignerInitializationException {
+  public TransactionSignerProvider createSignerProvider()
+      throws TransactionSignerInitializationException {
     return null;
   }
 
@@ -48,6 +49,11 @@ public class NullSignerSubCommand extends SignerSubCommand {
     return COMMAND_NAME;
   }
 
+  @Override
+  public String getSigningBackend() {
+    return "null";
+  }
+
   @Override
   public void run() {
     if (shouldThrow) {
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.jsonrpcproxy;
+
+import static java.math.BigInteger.ONE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INTERNAL_ERROR;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INVALID_REQUEST;
+import static tech.pegasys.ethsigner.jsonrpcproxy.support.TransactionCountResponder.TRANSACTION_COUNT_METHOD.ETH_GET_TRANSACTION_COUNT;
+
+import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
+import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcErrorResponse;
+import tech.pegasys.ethsigner.jsonrpcproxy.support.TransactionCountResponder;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.StringJoiner;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.RegexBody;
+import org.web3j.crypto.TransactionDecoder;
+
+public class BatchIntegrationTest extends IntegrationTestBase {
+
+  private static final Object NO_ID = null;
+  private static final String SEND_RAW_TRANSACTION_BATCH = ".*eth_sendRawTransaction.*";
+
+  @Before
+  public void setUp() throws IOException {
+    // Nonces allocated in one test must not carry over into the next
+    resetEthSigner();
+    final TransactionCountResponder getTransactionResponse =
+        new TransactionCountResponder(nonce -> nonce.add(ONE), ETH_GET_TRANSACTION_COUNT);
+    clientAndServer.when(getTransactionResponse.request()).respond(getTransactionResponse);
+  }
+
+  @Test
+  public void passThroughRequestsAreForwardedAsSingleBatchAndRespondedToInOrder() {
+    final String ethNodeRequest =
+        "[{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"params\":[],\"id\":0},"
+            + "{\"jsonrpc\":\"2.0\",\"method\":\"net_version\",\"id\":1}]";
+    // Responses to a batch may be returned in any order
+    final String ethNodeResponse =
+        "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"4\"},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":\"0x10\"}]";
+    setUpEthNodeResponse(request.ethNode(ethNodeRequest), response.ethNode(ethNodeResponse));
+
+    sendRequestThenVerifyResponse(
+        request.ethSigner(
+            "[{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"params\":[],\"id\":7},"
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"net_version\",\"id\":\"abc\"}]"),
+        response.ethSigner(
+            "[{\"jsonrpc\":\"2.0\",\"id\":7,\"result\":\"0x10\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":\"abc\",\"result\":\"4\"}]"));
+  }
+
+  @Test
+  public void internallyHandledAndInvalidRequestsAreRespondedToWithoutEthNode() {
+    sendRequestThenVerifyResponse(
+        request.ethSigner("[{\"jsonrpc\":\"2.0\",\"method\":\"eth_accounts\",\"id\":1},5]"),
+        response.ethSigner(
+            "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[\""
+                + unlockedAccount
+                + "\"]},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":null,"
+                + "\"error\":{\"code\":-32600,\"message\":\"Invalid Request\"}}]"));
+  }
+
+  @Test
+  public void emptyBatchIsAnInvalidRequest() {
+    sendRequestThenVerifyResponse(
+        request.ethSigner("[]"), response.ethSigner(NO_ID, INVALID_REQUEST));
+  }
+
+  @Test
+  public void transactionsAreSignedWithNoncesInBatchOrderAndForwardedInOneBatch() {
+    setupEthNodeResponse(
+        SEND_RAW_TRANSACTION_BATCH,
+        response.ethNode(
+            "[{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"0xb2\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":\"0xb0\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x10\"}]"),
+        1);
+
+    sendRequestThenVerifyResponse(
+        request.ethSigner(
+            batch(
+                sendTransaction(1),
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"id\":2}",
+                sendTransaction(3))),
+        response.ethSigner(
+            "[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0xb0\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"0x10\"},"
+                + "{\"jsonrpc\":\"2.0\",\"id\":3,\"result\":\"0xb2\"}]"));
+
+    final HttpRequest[] downstreamBatches =
+        clientAndServer.retrieveRecordedRequests(
+            request().withBody(new RegexBody(SEND_RAW_TRANSACTION_BATCH)));
+    assertThat(downstreamBatches).hasSize(1);
+    final JsonArray downstreamBatch = new JsonArray(downstreamBatches[0].getBodyAsString());
+    assertThat(downstreamBatch.getJsonObject(1).getString("method")).isEqualTo("eth_blockNumber");
+    assertThat(nonce(downstreamBatch, 0)).isEqualTo(BigInteger.valueOf(1));
+    assertThat(nonce(downstreamBatch, 2)).isEqualTo(BigInteger.valueOf(2));
+  }
+
+  @Test
+  public void downstreamTimeoutIsReturnedForEveryForwardedRequest() {
+    timeoutRequest(SEND_RAW_TRANSACTION_BATCH);
+
+    sendRequestThenVerifyResponse(
+        request.ethSigner(
+            batch(
+                sendTransaction(1),
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"id\":2}",
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_accounts\",\"id\":3}")),
+        response.ethSigner(
+            batch(
+                error(1, CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT),
+                error(2, CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT),
+                "{\"jsonrpc\":\"2.0\",\"id\":3,\"result\":[\"" + unlockedAccount + "\"]}")));
+  }
+
+  @Test
+  public void transactionUnansweredByEthNodeIsAnInternalError() {
+    setupEthNodeResponse(
+        SEND_RAW_TRANSACTION_BATCH,
+        response.ethNode("[{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x10\"}]"),
+        1);
+
+    sendRequestThenVerifyResponse(
+        request.ethSigner(
+            batch(
+                sendTransaction(1),
+                "{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"id\":2}")),
+        response.ethSigner(
+            batch(
+                error(1, INTERNAL_ERROR), "{\"jsonrpc\":\"2.0\",\"id\":2,\"result\":\"0x10\"}")));
+  }
+
+  @Test
+  public void notificationsAreForwardedButNotRespondedTo() {
+    final String ethNodeRequest =
+        "[{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"params\":[],\"id\":0},"
+            + "{\"jsonrpc\":\"2.0\",\"method\":\"net_version\",\"id\":1}]";
+    final String ethNodeResponse =
+        "[{\"jsonrpc\":\"2.0\",\"id\":0,\"result\":\"0x10\"},"
+            + "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"4\"}]";
+    setUpEthNodeResponse(request.ethNode(ethNodeRequest), response.ethNode(ethNodeResponse));
+
+    sendRequestThenVerifyResponse(
+        request.ethSigner(
+            "[{\"jsonrpc\":\"2.0\",\"method\":\"eth_blockNumber\",\"params\":[]},"
+                + "{\"jsonrpc\":\"2.0\",\"method\":\"net_version\",\"id\":null}]"),
+        response.ethSigner("[{\"jsonrpc\":\"2.0\",\"id\":null,\"result\":\"4\"}]"));
+  }
+
+  @Test
+  public void batchOfNotificationsHasNoResponse() {
+    sendRequestThenVerifyResponse(
+        request.ethSigner("[{\"jsonrpc\":\"2.0\",\"method\":\"eth_accounts\"}]"),
+        response.ethSigner("", HttpResponseStatus.NO_CONTENT));
+  }
+
+  @Test
+  public void oversizedBatchIsAnInvalidRequest() {
+    final String[] requests = new String[1025];
+    for (int i = 0; i < requests.length; i++) {
+      requests[i] = "{\"jsonrpc\":\"2.0\",\"method\":\"eth_accounts\",\"id\":" + i + "}";
+    }
+
+    sendRequestThenVerifyResponse(
+        request.ethSigner(batch(requests)), response.ethSigner(NO_ID, INVALID_REQUEST));
+  }
+
+  private String sendTransaction(final int id) {
+    return "{\"jsonrpc\":\"2.0\",\"method\":\"eth_sendTransaction\",\"params\":[{"
+        + "\"from\":\""
+        + unlockedAccount
+        + "\",\"to\":\"0xd46e8dd67c5d32be8058bb8eb970870f07244567\","
+        + "\"gas\":\"0x76c0\",\"gasPrice\":\"0x9184e72a000\",\"value\":\"0x9184e72a\"}],"
+        + "\"id\":"
+        + id
+        + "}";
+  }
+
+  private static String error(final int id, final JsonRpcError error) {
+    return Json.encode(new JsonRpcErrorResponse(id, error));
+  }
+
+  private static String batch(final String... members) {
+    final StringJoiner batch = new StringJoiner(",", "[", "]");
+    for (final String member : members) {
+      batch.add(member);
+    }
+    return batch.toString();
+  }
+
+  private static BigInteger nonce(final JsonArray downstreamBatch, final int index) {
+    final String rawTransaction =
+        downstreamBatch.getJsonObject(index).getJsonArray("params").getString(0);
+    return TransactionDecoder.decode(rawTransaction).getNonce();
+  }
+}
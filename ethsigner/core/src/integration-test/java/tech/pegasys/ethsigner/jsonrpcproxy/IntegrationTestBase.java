@@ -25,9 +25,11 @@ import static org.mockserver.model.JsonBody.json;
 import static org.web3j.utils.Async.defaultExecutorService;
 
 import tech.pegasys.ethsigner.core.Runner;
-import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerRegistry;
+import tech.pegasys.ethsigner.core.tracing.Tracer;
 import tech.pegasys.ethsigner.jsonrpcproxy.model.request.EthNodeRequest;
 import tech.pegasys.ethsigner.jsonrpcproxy.model.request.EthRequestFactory;
 import tech.pegasys.ethsigner.jsonrpcproxy.model.request.EthSignerRequest;
@@ -48,8 +50,10 @@ import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.io.Resources;
+import io.prometheus.client.CollectorRegistry;
 import io.restassured.RestAssured;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpServerOptions;
 import org.apache.logging.log4j.LogManager;
@@ -65,13 +69,13 @@ import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.JsonRpc2_0Web3j;
 import org.web3j.protocol.eea.Eea;
 import org.web3j.protocol.eea.JsonRpc2_0Eea;
-import org.web3j.protocol.http.HttpService;
 
 public class IntegrationTestBase {
 
   private static final Logger LOG = LogManager.getLogger();
   private static final String LOCALHOST = "127.0.0.1";
   private static final long DEFAULT_CHAIN_ID = 9;
+  private static final int HTTP_SERVER_INSTANCES = 2;
 
   protected static final String MALFORMED_JSON = "{Bad Json: {{{}";
 
@@ -94,10 +98,17 @@ public class IntegrationTestBase {
   }
 
   protected static void setupEthSigner(final long chainId) throws IOException {
-    clientAndServer = startClientAndServer();
+    if (clientAndServer == null || !clientAndServer.isRunning()) {
+      clientAndServer = startClientAndServer();
+    }
+    if (runner != null) {
+      runner.stop();
+    }
 
+    final EthSignerMetrics metrics = new EthSignerMetrics(new CollectorRegistry(), "file");
     final TransactionSerialiser serialiser =
-        new TransactionSerialiser(transactionSigner(), chainId);
+        new TransactionSerialiser(
+            new TransactionSignerRegistry(transactionSigner()), chainId, metrics);
 
     final Vertx vertx = Vertx.vertx();
     final HttpClientOptions httpClientOptions = new HttpClientOptions();
@@ -110,23 +121,20 @@ public class IntegrationTestBase {
     httpServerOptions.setPort(serverSocket.getLocalPort());
     httpServerOptions.setHost("localhost");
 
-    final HttpService web3jService =
-        new HttpService(
-            "http://"
-                + httpClientOptions.getDefaultHost()
-                + ":"
-                + httpClientOptions.getDefaultPort());
-    final Web3j web3j = new JsonRpc2_0Web3j(web3jService, 2000, defaultExecutorService());
-    final Eea eea = new JsonRpc2_0Eea(web3jService);
-
     runner =
         new Runner(
             serialiser,
             httpClientOptions,
             httpServerOptions,
             downstreamTimeout,
-            new TransactionFactory(eea, web3j),
-            null);
+            null,
+            null,
+            new VertxOptions(),
+            HTTP_SERVER_INSTANCES,
+            metrics,
+            false,
+            null,
+            Tracer.disabled());
     runner.start();
 
     LOG.info(
@@ -135,9 +143,10 @@ public class IntegrationTestBase {
         clientAndServer.getLocalPort());
     serverSocket.close();
 
-    unlockedAccount = serialiser.getAddress();
+    unlockedAccount = serialiser.getAddresses().iterator().next();
   }
 
+  /** EthSigner is restarted with the default chain id, discarding any nonces it has allocated. */
   protected static void resetEthSigner() throws IOException {
     setupEthSigner();
   }
@@ -163,6 +172,7 @@ public class IntegrationTestBase {
   public static void teardown() {
     clientAndServer.stop();
     runner.stop();
+    runner = null;
   }
 
   public void setUpEthNodeResponse(final EthNodeRequest request, final EthNodeResponse response) {
@@ -35,7 +35,9 @@ public class SigningEeaSendTransactionIntegrationTest extends IntegrationTestBas
   private EeaSendRawTransaction sendRawTransaction;
 
   @Before
-  public void setUp() {
+  public void setUp() throws IOException {
+    // Nonces allocated in one test must not carry over into the next
+    resetEthSigner();
     sendTransaction = new EeaSendTransaction();
     sendRawTransaction = new EeaSendRawTransaction(eeaJsonRpc());
     final TransactionCountResponder getTransactionResponse =
@@ -38,7 +38,9 @@ public class SigningEthSendTransactionIntegrationTest extends IntegrationTestBas
   private SendRawTransaction sendRawTransaction;
 
   @Before
-  public void setUp() {
+  public void setUp() throws IOException {
+    // Nonces allocated in one test must not carry over into the next
+    resetEthSigner();
     sendTransaction = new SendTransaction(jsonRpc());
     sendRawTransaction = new SendRawTransaction(jsonRpc());
     final TransactionCountResponder getTransactionResponse =
@@ -13,8 +13,10 @@
 package tech.pegasys.ethsigner.core;
 
 import tech.pegasys.ethsigner.core.signing.ChainIdProvider;
+import tech.pegasys.ethsigner.core.tracing.TraceExporterType;
 
 import java.net.InetAddress;
+import java.net.URL;
 import java.nio.file.Path;
 import java.time.Duration;
 
@@ -37,4 +39,26 @@ public interface Config {
   ChainIdProvider getChainId();
 
   Path getDataPath();
+
+  Integer getHttpServerInstances();
+
+  Integer getEventLoopPoolSize();
+
+  Integer getWorkerPoolSize();
+
+  boolean isMetricsEnabled();
+
+  InetAddress getMetricsHost();
+
+  /** @return the port of a dedicated metrics server, or null to serve them on the HTTP port */
+  Integer getMetricsPort();
+
+  TraceExporterType getTracingExporter();
+
+  /** @return the proportion of requests without a traceparent header which are traced */
+  double getTracingSampleRatio();
+
+  Path getTracingFile();
+
+  URL getTracingOtlpEndpoint();
 }
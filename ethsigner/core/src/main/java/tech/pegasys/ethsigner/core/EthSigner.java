@@ -12,34 +12,42 @@
  */
 package tech.pegasys.ethsigner.core;
 
-import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceJournal;
 import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
+import tech.pegasys.ethsigner.core.tracing.OtlpHttpTraceExporter;
+import tech.pegasys.ethsigner.core.tracing.RollingFileTraceExporter;
+import tech.pegasys.ethsigner.core.tracing.TraceExporterType;
+import tech.pegasys.ethsigner.core.tracing.Tracer;
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
 
+import io.prometheus.client.CollectorRegistry;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpServerOptions;
 import io.vertx.ext.web.client.WebClientOptions;
-import okhttp3.OkHttpClient;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.web3j.protocol.Web3j;
-import org.web3j.protocol.core.JsonRpc2_0Web3j;
-import org.web3j.protocol.eea.Eea;
-import org.web3j.protocol.eea.JsonRpc2_0Eea;
-import org.web3j.protocol.http.HttpService;
 
 public final class EthSigner {
 
   private static final Logger LOG = LogManager.getLogger();
+  private static final String NONCE_JOURNAL = "ethsigner.nonces";
 
   private final Config config;
-  private final TransactionSigner signer;
+  private final TransactionSignerProvider signerProvider;
+  private final String signingBackend;
 
-  public EthSigner(final Config config, final TransactionSigner signer) {
+  public EthSigner(
+      final Config config,
+      final TransactionSignerProvider signerProvider,
+      final String signingBackend) {
     this.config = config;
-    this.signer = signer;
+    this.signerProvider = signerProvider;
+    this.signingBackend = signingBackend;
   }
 
   public void run() {
@@ -56,12 +64,55 @@ public final class EthSigner {
       return;
     }
 
-    final HttpService web3jService = createWeb3jHttpService();
-    final Web3j web3j = new JsonRpc2_0Web3j(web3jService);
-    final Eea eea = new JsonRpc2_0Eea(web3jService);
-    final TransactionFactory transactionFactory = new TransactionFactory(eea, web3j);
+    if (config.getHttpServerInstances() <= 0) {
+      LOG.error("Http server instances must be greater than 0.");
+      return;
+    }
+
+    if (config.getEventLoopPoolSize() <= 0 || config.getWorkerPoolSize() <= 0) {
+      LOG.error("Event loop and worker pool sizes must be greater than 0.");
+      return;
+    }
+
+    if (config.getHttpListenPort().equals(config.getMetricsPort())) {
+      LOG.error("Metrics port must be different to the http port, or omitted to share it.");
+      return;
+    }
+
+    if (config.getTracingSampleRatio() < 0 || config.getTracingSampleRatio() > 1) {
+      LOG.error("Tracing sample ratio must be between 0 and 1.");
+      return;
+    }
+
+    if (config.getTracingExporter() == TraceExporterType.FILE && config.getTracingFile() == null) {
+      LOG.error("Tracing file must be specified to export traces to a file.");
+      return;
+    }
+
+    if (config.getTracingExporter() == TraceExporterType.OTLP
+        && config.getTracingOtlpEndpoint() == null) {
+      LOG.error("Tracing OTLP endpoint must be specified to export traces with OTLP.");
+      return;
+    }
+
+    final Path dataPath = config.getDataPath();
+    final NonceJournal nonceJournal;
+    try {
+      nonceJournal = dataPath == null ? null : NonceJournal.open(dataPath.resolve(NONCE_JOURNAL));
+    } catch (final IOException e) {
+      LOG.error("Unable to open nonce journal in {}.", dataPath, e);
+      return;
+    }
+
+    LOG.info(
+        "Downstream URL = http://{}:{}",
+        config.getDownstreamHttpHost().getHostName(),
+        config.getDownstreamHttpPort());
+    LOG.info("Unlocked accounts = {}", signerProvider.availableAddresses());
+    final EthSignerMetrics metrics =
+        new EthSignerMetrics(new CollectorRegistry(true), signingBackend);
     final TransactionSerialiser serialiser =
-        new TransactionSerialiser(signer, config.getChainId().id());
+        new TransactionSerialiser(signerProvider, config.getChainId().id(), metrics);
     final WebClientOptions clientOptions =
         new WebClientOptions()
             .setDefaultPort(config.getDownstreamHttpPort())
@@ -72,7 +123,16 @@ public final class EthSigner {
             .setHost(config.getHttpListenHost().getHostAddress())
             .setReuseAddress(true)
             .setReusePort(true);
-    final Path dataPath = config.getDataPath();
+    final VertxOptions vertxOptions =
+        new VertxOptions()
+            .setEventLoopPoolSize(config.getEventLoopPoolSize())
+            .setWorkerPoolSize(config.getWorkerPoolSize());
+    final HttpServerOptions metricsServerOptions =
+        config.getMetricsPort() == null
+            ? null
+            : new HttpServerOptions()
+                .setPort(config.getMetricsPort())
+                .setHost(config.getMetricsHost().getHostAddress());
 
     final Runner runner =
         new Runner(
@@ -80,24 +140,31 @@ public final class EthSigner {
             clientOptions,
             serverOptions,
             downstreamHttpRequestTimeout,
-            transactionFactory,
-            dataPath);
+            nonceJournal,
+            dataPath,
+            vertxOptions,
+            config.getHttpServerInstances(),
+            metrics,
+            config.isMetricsEnabled(),
+            metricsServerOptions,
+            createTracer(downstreamHttpRequestTimeout));
 
     runner.start();
+    // Stopping the runner forces the nonce journal to disk
+    Runtime.getRuntime().addShutdownHook(new Thread(runner::stop, "ethsigner-shutdown"));
   }
 
-  private HttpService createWeb3jHttpService() {
-    final String downstreamUrl =
-        "http://"
-            + config.getDownstreamHttpHost().getHostName()
-            + ":"
-            + config.getDownstreamHttpPort();
-    LOG.info("Downstream URL = {}", downstreamUrl);
-
-    final OkHttpClient.Builder builder = new OkHttpClient.Builder();
-    builder
-        .connectTimeout(config.getDownstreamHttpRequestTimeout())
-        .readTimeout(config.getDownstreamHttpRequestTimeout());
-    return new HttpService(downstreamUrl, builder.build());
+  private Tracer createTracer(final Duration exportTimeout) {
+    switch (config.getTracingExporter()) {
+      case FILE:
+        return new Tracer(
+            config.getTracingSampleRatio(), new RollingFileTraceExporter(config.getTracingFile()));
+      case OTLP:
+        return new Tracer(
+            config.getTracingSampleRatio(),
+            new OtlpHttpTraceExporter(config.getTracingOtlpEndpoint(), exportTimeout));
+      default:
+        return Tracer.disabled();
+    }
   }
 }
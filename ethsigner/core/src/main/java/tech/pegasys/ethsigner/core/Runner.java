@@ -17,25 +17,39 @@ import tech.pegasys.ethsigner.core.http.HttpServerService;
 import tech.pegasys.ethsigner.core.http.JsonRpcErrorHandler;
 import tech.pegasys.ethsigner.core.http.JsonRpcHandler;
 import tech.pegasys.ethsigner.core.http.LogErrorHandler;
+import tech.pegasys.ethsigner.core.http.MetricsHandler;
 import tech.pegasys.ethsigner.core.http.RequestMapper;
 import tech.pegasys.ethsigner.core.http.UpcheckHandler;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcClient;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitter;
+import tech.pegasys.ethsigner.core.requesthandler.batch.BatchRequestHandler;
 import tech.pegasys.ethsigner.core.requesthandler.internalresponse.EthAccountsBodyProvider;
 import tech.pegasys.ethsigner.core.requesthandler.internalresponse.InternalResponseHandler;
 import tech.pegasys.ethsigner.core.requesthandler.passthrough.PassThroughHandler;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceAllocator;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceJournal;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.SendTransactionHandler;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
 import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
+import tech.pegasys.ethsigner.core.tracing.Tracer;
 
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import com.google.common.collect.ImmutableMap;
 import io.netty.handler.codec.http.HttpHeaderValues;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpMethod;
@@ -55,46 +69,89 @@ public class Runner {
   private final TransactionSerialiser serialiser;
   private final HttpClientOptions clientOptions;
   private final Duration httpRequestTimeout;
-  private final TransactionFactory transactionFactory;
   private final HttpResponseFactory responseFactory = new HttpResponseFactory();
   private final Path dataPath;
+  private final Optional<NonceJournal> nonceJournal;
+  private final HttpServerOptions serverOptions;
+  private final int httpServerInstances;
   private final Vertx vertx;
-  private final HttpServerService httpServerService;
+  private final RequestMapper requestMapper;
+  private final TransactionFactory transactionFactory;
+  private final BatchRequestHandler batchRequestHandler;
+  private final EthSignerMetrics metrics;
+  private final boolean metricsEnabled;
+  private final HttpServerOptions metricsServerOptions;
+  private final Tracer tracer;
+  private final List<HttpServerService> httpServerServices = new CopyOnWriteArrayList<>();
 
   public Runner(
       final TransactionSerialiser serialiser,
       final HttpClientOptions clientOptions,
       final HttpServerOptions serverOptions,
       final Duration httpRequestTimeout,
-      final TransactionFactory transactionFactory,
-      final Path dataPath) {
+      final NonceJournal nonceJournal,
+      final Path dataPath,
+      final VertxOptions vertxOptions,
+      final int httpServerInstances,
+      final EthSignerMetrics metrics,
+      final boolean metricsEnabled,
+      final HttpServerOptions metricsServerOptions,
+      final Tracer tracer) {
     this.serialiser = serialiser;
     this.clientOptions = clientOptions;
+    this.serverOptions = serverOptions;
     this.httpRequestTimeout = httpRequestTimeout;
-    this.transactionFactory = transactionFactory;
     this.dataPath = dataPath;
-    this.vertx = Vertx.vertx();
-    this.httpServerService = new HttpServerService(router(), serverOptions);
+    this.nonceJournal = Optional.ofNullable(nonceJournal);
+    this.httpServerInstances = httpServerInstances;
+    this.metrics = metrics;
+    this.metricsEnabled = metricsEnabled;
+    this.metricsServerOptions = metricsServerOptions;
+    this.tracer = tracer;
+    this.vertx = Vertx.vertx(vertxOptions);
+    final HttpClient downStreamConnection = vertx.createHttpClient(clientOptions);
+    // Nonce lookups share the connection pool, and timeout, of the requests being forwarded
+    this.transactionFactory =
+        new TransactionFactory(
+            new JsonRpcClient(downStreamConnection, httpRequestTimeout, metrics),
+            this.nonceJournal.map(NonceAllocator::new).orElseGet(NonceAllocator::new));
+    this.requestMapper = createRequestMapper(downStreamConnection);
+    this.batchRequestHandler = createBatchRequestHandler(downStreamConnection);
   }
 
   public void start() {
-    vertx.deployVerticle(httpServerService, this::httpServerServiceDeployment);
+    // Each instance runs on its own event loop, Vert.x shares the listening socket between them
+    final DeploymentOptions deploymentOptions =
+        new DeploymentOptions().setInstances(httpServerInstances);
+    vertx.deployVerticle(
+        this::createHttpServerService, deploymentOptions, this::httpServerServiceDeployment);
+
+    if (metricsEnabled && metricsServerOptions != null) {
+      vertx.deployVerticle(
+          new HttpServerService(metricsRouter(), metricsServerOptions),
+          this::metricsServerServiceDeployment);
+    }
   }
 
   public void stop() {
     vertx.close();
+    tracer.close();
+    nonceJournal.ifPresent(this::closeNonceJournal);
   }
 
-  private RequestMapper createRequestMapper() {
-
-    final HttpClient downStreamConnection = vertx.createHttpClient(clientOptions);
+  private void closeNonceJournal(final NonceJournal journal) {
+    try {
+      journal.close();
+    } catch (final IOException e) {
+      LOG.warn("Failed to close nonce journal", e);
+    }
+  }
 
+  private RequestMapper createRequestMapper(final HttpClient downStreamConnection) {
     final RequestMapper requestMapper =
         new RequestMapper(
             new PassThroughHandler(
-                downStreamConnection,
-                responseBodyHandler ->
-                    new VertxRequestTransmitter(httpRequestTimeout, responseBodyHandler)));
+                downStreamConnection, new VertxRequestTransmitter(httpRequestTimeout), metrics));
 
     final SendTransactionHandler sendTransactionHandler =
         new SendTransactionHandler(
@@ -102,21 +159,37 @@ public class Runner {
             serialiser,
             transactionFactory,
             responseBodyHandler ->
-                new VertxRequestTransmitter(httpRequestTimeout, responseBodyHandler));
+                new VertxRequestTransmitter(httpRequestTimeout, responseBodyHandler),
+            metrics);
     requestMapper.addHandler("eth_sendTransaction", sendTransactionHandler);
     requestMapper.addHandler("eea_sendTransaction", sendTransactionHandler);
 
     requestMapper.addHandler(
         "eth_accounts",
         new InternalResponseHandler(
-            responseFactory, new EthAccountsBodyProvider(serialiser.getAddress())));
+            responseFactory, new EthAccountsBodyProvider(serialiser::getAddresses)));
 
     return requestMapper;
   }
 
+  private BatchRequestHandler createBatchRequestHandler(final HttpClient downStreamConnection) {
+    return new BatchRequestHandler(
+        downStreamConnection,
+        httpRequestTimeout,
+        serialiser,
+        transactionFactory,
+        ImmutableMap.of("eth_accounts", new EthAccountsBodyProvider(serialiser::getAddresses)),
+        metrics);
+  }
+
+  private HttpServerService createHttpServerService() {
+    final HttpServerService httpServerService = new HttpServerService(router(), serverOptions);
+    httpServerServices.add(httpServerService);
+    return httpServerService;
+  }
+
   private Router router() {
     final Router router = Router.router(vertx);
-    final RequestMapper requestMapper = createRequestMapper();
 
     // Handler for JSON-RPC requests
     router
@@ -126,7 +199,14 @@ public class Runner {
         .handler(ResponseContentTypeHandler.create())
         .failureHandler(new LogErrorHandler())
         .failureHandler(new JsonRpcErrorHandler(new HttpResponseFactory()))
-        .handler(new JsonRpcHandler(responseFactory, requestMapper));
+        .handler(
+            new JsonRpcHandler(
+                responseFactory,
+                requestMapper,
+                batchRequestHandler,
+                metrics,
+                metricsEnabled,
+                tracer));
 
     // Handler for UpCheck endpoint
     router
@@ -137,23 +217,54 @@ public class Runner {
         .failureHandler(new LogErrorHandler())
         .handler(new UpcheckHandler());
 
+    if (metricsEnabled && metricsServerOptions == null) {
+      addMetricsRoute(router);
+    }
+
     // Default route handler does nothing: no response
     router.route().handler(context -> {});
     return router;
   }
 
+  private Router metricsRouter() {
+    final Router router = Router.router(vertx);
+    addMetricsRoute(router);
+    router.route().handler(context -> {});
+    return router;
+  }
+
+  private void addMetricsRoute(final Router router) {
+    router
+        .route(HttpMethod.GET, "/metrics")
+        .handler(BodyHandler.create())
+        .failureHandler(new LogErrorHandler())
+        .handler(new MetricsHandler(metrics.getRegistry()));
+  }
+
   private void httpServerServiceDeployment(final AsyncResult<String> result) {
     if (result.succeeded()) {
-      LOG.info("JsonRpcHttpService Vertx deployment id is: {}", result.result());
+      LOG.info(
+          "JsonRpcHttpService Vertx deployment id is: {}, instances: {}",
+          result.result(),
+          httpServerServices.size());
 
       if (dataPath != null) {
-        writePortsToFile(httpServerService);
+        // All instances share the same listening port
+        writePortsToFile(httpServerServices.get(0));
       }
     } else {
       deploymentFailed(result.cause());
     }
   }
 
+  private void metricsServerServiceDeployment(final AsyncResult<String> result) {
+    if (result.succeeded()) {
+      LOG.info("Metrics HTTP server Vertx deployment id is: {}", result.result());
+    } else {
+      deploymentFailed(result.cause());
+    }
+  }
+
   private void deploymentFailed(final Throwable cause) {
     LOG.error("Vertx deployment failed", cause);
     System.exit(1);
@@ -13,16 +13,24 @@
 package tech.pegasys.ethsigner.core.http;
 
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestScanner;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcErrorResponse;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.JsonRpcRequestHandler;
+import tech.pegasys.ethsigner.core.requesthandler.batch.BatchRequestHandler;
+import tech.pegasys.ethsigner.core.tracing.RequestTrace;
+import tech.pegasys.ethsigner.core.tracing.Span;
+import tech.pegasys.ethsigner.core.tracing.Tracer;
+
+import java.util.List;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.DecodeException;
 import io.vertx.core.json.Json;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -38,42 +46,66 @@ public class JsonRpcHandler implements Handler<RoutingContext> {
   }
 
   private final RequestMapper requestHandlerMapper;
+  private final BatchRequestHandler batchRequestHandler;
   private final HttpResponseFactory responseFactory;
+  private final EthSignerMetrics metrics;
+  private final boolean metricsEnabled;
+  private final Tracer tracer;
 
   public JsonRpcHandler(
-      final HttpResponseFactory responseFactory, final RequestMapper requestHandlerMapper) {
+      final HttpResponseFactory responseFactory,
+      final RequestMapper requestHandlerMapper,
+      final BatchRequestHandler batchRequestHandler,
+      final EthSignerMetrics metrics,
+      final boolean metricsEnabled,
+      final Tracer tracer) {
     this.responseFactory = responseFactory;
     this.requestHandlerMapper = requestHandlerMapper;
+    this.batchRequestHandler = batchRequestHandler;
+    this.metrics = metrics;
+    this.metricsEnabled = metricsEnabled;
+    this.tracer = tracer;
   }
 
   @Override
   public void handle(final RoutingContext context) {
-
-    context
-        .vertx()
-        .executeBlocking(
-            future -> {
-              process(context);
-              future.complete();
-            },
-            false,
-            res -> {
-              if (res.failed()) {
-                LOG.error(
-                    "An unhandled error occurred while processing " + context.getBodyAsString(),
-                    res.cause());
-              }
-            });
+    try {
+      process(context);
+    } catch (final RuntimeException e) {
+      LOG.error("An unhandled error occurred while processing " + context.getBodyAsString(), e);
+      context.fail(e);
+    }
   }
 
   private void process(final RoutingContext context) {
     try {
-      LOG.trace("Request body = {}", context.getBodyAsString());
+      LOG.trace("Request body = {}", context::getBodyAsString);
+
+      final long start = System.nanoTime();
+      final RequestTrace trace = tracer.startTrace(context);
+      final Buffer body = context.getBody();
+      if (JsonRpcRequestScanner.isBatch(body)) {
+        trace.setName(EthSignerMetrics.BATCH_METHOD);
+        if (metricsEnabled) {
+          context.addBodyEndHandler(v -> metrics.observeBatch(start));
+        }
+        final Span parse = trace.startSpan("parse");
+        final List<Buffer> batch = JsonRpcRequestScanner.splitBatch(body);
+        parse.end();
+        batchRequestHandler.handle(context, batch);
+        return;
+      }
 
-      final JsonObject requestJson = context.getBodyAsJson();
-      final JsonRpcRequest request = requestJson.mapTo(JsonRpcRequest.class);
-      final JsonRpcRequestHandler handler =
-          requestHandlerMapper.getMatchingHandler(request.getMethod());
+      // Params are left undecoded, for the handler to bind as it requires
+      final Span parse = trace.startSpan("parse");
+      final JsonRpcRequest request = JsonRpcRequestScanner.scan(body);
+      parse.end();
+      final String method = request.getMethod();
+      trace.setName(method);
+      if (metricsEnabled) {
+        context.addBodyEndHandler(v -> metrics.observeRequest(method, start));
+      }
+      final JsonRpcRequestHandler handler = requestHandlerMapper.getMatchingHandler(method);
       handler.handle(context, request);
     } catch (final DecodeException | IllegalArgumentException e) {
       sendParseErrorResponse(context, e);
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.http;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.exporter.common.TextFormat;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.ext.web.RoutingContext;
+
+/** Responds with every metric in the registry, in the Prometheus text exposition format. */
+public class MetricsHandler implements Handler<RoutingContext> {
+
+  private final CollectorRegistry registry;
+
+  public MetricsHandler(final CollectorRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void handle(final RoutingContext routingContext) {
+    final StringWriter metrics = new StringWriter();
+    try {
+      TextFormat.write004(metrics, registry.metricFamilySamples());
+    } catch (final IOException e) {
+      // Never thrown by a StringWriter
+      throw new UncheckedIOException(e);
+    }
+    routingContext
+        .response()
+        .putHeader(HttpHeaders.CONTENT_TYPE, TextFormat.CONTENT_TYPE_004)
+        .end(metrics.toString());
+  }
+}
@@ -12,7 +12,6 @@
  */
 package tech.pegasys.ethsigner.core.jsonrpc;
 
-import static org.web3j.utils.Numeric.decodeQuantity;
 import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.fromRpcRequestToJsonParam;
 import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.validatePrefix;
 
@@ -24,6 +23,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class EeaSendTransactionJsonParameters {
@@ -53,18 +53,21 @@ public class EeaSendTransactionJsonParameters {
   }
 
   @JsonSetter("gas")
-  public void gas(final String gas) {
-    this.gas = decodeQuantity(gas);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void gas(final BigInteger gas) {
+    this.gas = gas;
   }
 
   @JsonSetter("gasPrice")
-  public void gasPrice(final String gasPrice) {
-    this.gasPrice = decodeQuantity(gasPrice);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void gasPrice(final BigInteger gasPrice) {
+    this.gasPrice = gasPrice;
   }
 
   @JsonSetter("nonce")
-  public void nonce(final String nonce) {
-    this.nonce = decodeQuantity(nonce);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void nonce(final BigInteger nonce) {
+    this.nonce = nonce;
   }
 
   @JsonSetter("to")
@@ -74,9 +77,10 @@ public class EeaSendTransactionJsonParameters {
   }
 
   @JsonSetter("value")
-  public void value(final String value) {
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void value(final BigInteger value) {
     validateValue(value);
-    this.value = decodeQuantity(value);
+    this.value = value;
   }
 
   @JsonSetter("data")
@@ -128,8 +132,8 @@ public class EeaSendTransactionJsonParameters {
     return fromRpcRequestToJsonParam(EeaSendTransactionJsonParameters.class, request);
   }
 
-  private void validateValue(final String value) {
-    if (!decodeQuantity(value).equals(BigInteger.ZERO)) {
+  private void validateValue(final BigInteger value) {
+    if (!value.equals(BigInteger.ZERO)) {
       throw new IllegalArgumentException(
           "Non-zero value, private transactions cannot transfer ether");
     }
@@ -12,7 +12,6 @@
  */
 package tech.pegasys.ethsigner.core.jsonrpc;
 
-import static org.web3j.utils.Numeric.decodeQuantity;
 import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.fromRpcRequestToJsonParam;
 import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.validatePrefix;
 
@@ -23,6 +22,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class EthSendTransactionJsonParameters {
@@ -41,18 +41,21 @@ public class EthSendTransactionJsonParameters {
   }
 
   @JsonSetter("gas")
-  public void gas(final String gas) {
-    this.gas = decodeQuantity(gas);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void gas(final BigInteger gas) {
+    this.gas = gas;
   }
 
   @JsonSetter("gasPrice")
-  public void gasPrice(final String gasPrice) {
-    this.gasPrice = decodeQuantity(gasPrice);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void gasPrice(final BigInteger gasPrice) {
+    this.gasPrice = gasPrice;
   }
 
   @JsonSetter("nonce")
-  public void nonce(final String nonce) {
-    this.nonce = decodeQuantity(nonce);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void nonce(final BigInteger nonce) {
+    this.nonce = nonce;
   }
 
   @JsonSetter("to")
@@ -62,8 +65,9 @@ public class EthSendTransactionJsonParameters {
   }
 
   @JsonSetter("value")
-  public void value(final String value) {
-    this.value = decodeQuantity(value);
+  @JsonDeserialize(using = QuantityDeserializer.class)
+  public void value(final BigInteger value) {
+    this.value = value;
   }
 
   @JsonSetter("data")
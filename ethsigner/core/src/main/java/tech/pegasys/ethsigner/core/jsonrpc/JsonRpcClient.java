@@ -0,0 +1,121 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.JSON_RPC_VERSION;
+
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Makes JSON-RPC requests of the Ethereum node, on the same HTTP client (and so connection pool)
+ * used to forward requests to it, without blocking the calling thread.
+ */
+public class JsonRpcClient {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final HttpClient ethNodeClient;
+  private final Duration requestTimeout;
+  private final EthSignerMetrics metrics;
+  private final AtomicLong nextId = new AtomicLong();
+
+  public JsonRpcClient(
+      final HttpClient ethNodeClient,
+      final Duration requestTimeout,
+      final EthSignerMetrics metrics) {
+    this.ethNodeClient = ethNodeClient;
+    this.requestTimeout = requestTimeout;
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return future completed with the result of the request, or failed when the request could not
+   *     be sent, timed out, or the node responded with an error
+   */
+  public <T> Future<T> request(
+      final String method, final List<?> params, final Class<T> resultType) {
+    final JsonRpcRequest request = new JsonRpcRequest(JSON_RPC_VERSION, method);
+    request.setParams(params);
+    request.setId(new JsonRpcRequestId(nextId.incrementAndGet()));
+    LOG.trace("Sending {} to Ethereum node", method);
+
+    final Future<T> result = Future.future();
+    final long start = System.nanoTime();
+    final HttpClientRequest httpRequest =
+        ethNodeClient.post(
+            "/",
+            response -> {
+              metrics.observeDownstreamResponse(response.statusCode(), start);
+              handleResponse(method, response, resultType, result);
+            });
+    httpRequest.setTimeout(requestTimeout.toMillis());
+    httpRequest.exceptionHandler(
+        thrown -> {
+          metrics.observeDownstreamFailure(start);
+          result.tryFail(thrown);
+        });
+    httpRequest.putHeader(HttpHeaders.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON);
+    httpRequest.end(Json.encodeToBuffer(request));
+    return result;
+  }
+
+  private <T> void handleResponse(
+      final String method,
+      final HttpClientResponse response,
+      final Class<T> resultType,
+      final Future<T> result) {
+    response.exceptionHandler(result::tryFail);
+    response.bodyHandler(
+        body -> {
+          try {
+            result.tryComplete(decodeResult(method, body, resultType));
+          } catch (final RuntimeException e) {
+            LOG.debug("Invalid response from Ethereum node to {}: {}", method, body);
+            result.tryFail(e);
+          }
+        });
+  }
+
+  private <T> T decodeResult(final String method, final Buffer body, final Class<T> resultType) {
+    final JsonObject response;
+    try {
+      response = body.toJsonObject();
+    } catch (final DecodeException e) {
+      throw new IllegalStateException("Ethereum node did not respond to " + method + " with JSON");
+    }
+
+    final JsonObject error = response.getJsonObject("error");
+    if (error != null) {
+      throw new IllegalStateException(
+          "Ethereum node responded to " + method + " with error " + error.encode());
+    }
+    return Json.mapper.convertValue(response.getValue("result"), resultType);
+  }
+}
@@ -15,15 +15,19 @@ package tech.pegasys.ethsigner.core.jsonrpc;
 import tech.pegasys.ethsigner.core.jsonrpc.exception.InvalidJsonRpcRequestException;
 
 import java.util.Arrays;
+import java.util.Optional;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonGetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.fasterxml.jackson.annotation.JsonSetter;
 import com.google.common.base.Objects;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
 
 @JsonPropertyOrder({"jsonrpc", "method", "params", "id"})
 public class JsonRpcRequest {
@@ -31,7 +35,9 @@ public class JsonRpcRequest {
   private final String method;
   private final String version;
   private JsonRpcRequestId id;
+  private boolean idPresent;
   private Object params;
+  private Buffer rawParams;
 
   @JsonCreator
   public JsonRpcRequest(
@@ -48,6 +54,12 @@ public class JsonRpcRequest {
     return id;
   }
 
+  /** @return whether the request has no id member, so must not be responded to */
+  @JsonIgnore
+  public boolean isNotification() {
+    return !idPresent;
+  }
+
   @JsonGetter("method")
   public String getMethod() {
     return method;
@@ -61,17 +73,32 @@ public class JsonRpcRequest {
   @JsonInclude(Include.NON_NULL)
   @JsonGetter("params")
   public Object getParams() {
+    if (params == null && rawParams != null) {
+      params = Json.decodeValue(rawParams, Object.class);
+    }
     return params;
   }
 
+  /** @return the undecoded params, when the request was read by the JsonRpcRequestScanner */
+  public Optional<Buffer> rawParams() {
+    return Optional.ofNullable(rawParams);
+  }
+
   @JsonSetter("id")
   public void setId(final JsonRpcRequestId id) {
     this.id = id;
+    this.idPresent = true;
   }
 
   @JsonSetter("params")
   public void setParams(final Object params) {
     this.params = params;
+    this.rawParams = null;
+  }
+
+  void setRawParams(final Buffer rawParams) {
+    this.params = null;
+    this.rawParams = rawParams;
   }
 
   @Override
@@ -84,34 +111,27 @@ public class JsonRpcRequest {
     }
     final JsonRpcRequest that = (JsonRpcRequest) o;
 
-    return isParamsEqual(that.params)
+    return isParamsEqual(getParams(), that.getParams())
         && Objects.equal(id, that.id)
         && Objects.equal(method, that.method)
         && Objects.equal(version, that.version);
   }
 
-  private boolean isParamsEqual(final Object otherParams) {
-    if (params.getClass().isArray()) {
-      if (!otherParams.getClass().isArray()) {
-        return false;
-      }
-      final Object[] paramsArray = (Object[]) params;
-      final Object[] thatParamsArray = (Object[]) otherParams;
-      return Arrays.equals(paramsArray, thatParamsArray);
-    } else if (otherParams.getClass().isArray()) {
-      return false;
+  private static boolean isParamsEqual(final Object params, final Object otherParams) {
+    if (params instanceof Object[] && otherParams instanceof Object[]) {
+      return Arrays.equals((Object[]) params, (Object[]) otherParams);
     }
-
-    return params.equals(otherParams);
+    return Objects.equal(params, otherParams);
   }
 
   @Override
   public int hashCode() {
+    final Object params = getParams();
     final int paramsHashCode;
-    if (params.getClass().isArray()) {
+    if (params instanceof Object[]) {
       paramsHashCode = Arrays.hashCode((Object[]) params);
     } else {
-      paramsHashCode = params.hashCode();
+      paramsHashCode = params == null ? 0 : params.hashCode();
     }
     return Objects.hashCode(id, method, paramsHashCode, version);
   }
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+
+/**
+ * Reads the envelope of a JSON-RPC request (jsonrpc, method and id) with a streaming parser,
+ * skipping over the params without decoding them.
+ *
+ * <p>Requests which are proxied to the downstream node unaltered only need to be routed, so
+ * building an object tree of their params is wasted effort. The params are retained as a slice of
+ * the body, for handlers to decode into the type they require, or lazily as a tree.
+ */
+public class JsonRpcRequestScanner {
+
+  private JsonRpcRequestScanner() {}
+
+  /**
+   * @return a request with its version, method and id populated, and its params undecoded
+   * @throws DecodeException when the body is not a single JSON object, or contains an unknown
+   *     member
+   * @throws IllegalArgumentException when the method is missing or the id is of an invalid type
+   */
+  public static JsonRpcRequest scan(final Buffer body) {
+    try (final JsonParser parser = createParser(body)) {
+      final JsonRpcRequest request = scan(parser, body);
+      if (parser.nextToken() != null) {
+        throw new DecodeException("Unexpected content after JSON-RPC request");
+      }
+      return request;
+    } catch (final IOException e) {
+      throw new DecodeException("Failed to decode: " + e.getMessage());
+    }
+  }
+
+  /** @return whether the body is a JSON array, i.e. a batch of requests */
+  public static boolean isBatch(final Buffer body) {
+    for (int i = 0; i < body.length(); i++) {
+      final byte value = body.getByte(i);
+      if (!Character.isWhitespace(value)) {
+        return value == '[';
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the undecoded members of a batch, each of which may then be scanned as a request
+   * @throws DecodeException when the body is not a well formed JSON array
+   */
+  public static List<Buffer> splitBatch(final Buffer body) {
+    try (final JsonParser parser = createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        throw new DecodeException("JSON-RPC batch must be a JSON array");
+      }
+
+      final List<Buffer> members = new ArrayList<>();
+      JsonToken token;
+      while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+        if (token == null) {
+          throw new DecodeException("JSON-RPC batch is incomplete");
+        }
+        members.add(skipValue(parser, body));
+      }
+      return members;
+    } catch (final IOException e) {
+      throw new DecodeException("Failed to decode: " + e.getMessage());
+    }
+  }
+
+  /** @return a parser reading the buffer in place, without copying it */
+  public static JsonParser createParser(final Buffer body) throws IOException {
+    // ByteBufInputStream is also a DataInput, for which Jackson has an overload
+    final InputStream input = new ByteBufInputStream(body.getByteBuf());
+    return Json.mapper.getFactory().createParser(input);
+  }
+
+  private static JsonRpcRequest scan(final JsonParser parser, final Buffer body)
+      throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new DecodeException("JSON-RPC request must be a JSON object");
+    }
+
+    String version = null;
+    String method = null;
+    JsonRpcRequestId id = null;
+    boolean idPresent = false;
+    Buffer rawParams = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.getCurrentName();
+      final JsonToken value = parser.nextToken();
+      switch (field) {
+        case "jsonrpc":
+          version = textValue(parser, value);
+          break;
+        case "method":
+          method = textValue(parser, value);
+          break;
+        case "id":
+          id = idValue(parser, value);
+          idPresent = true;
+          break;
+        case "params":
+          rawParams = skipValue(parser, body);
+          break;
+        default:
+          throw new DecodeException("Unrecognized field in JSON-RPC request: " + field);
+      }
+    }
+
+    final JsonRpcRequest request = new JsonRpcRequest(version, method);
+    if (idPresent) {
+      request.setId(id);
+    }
+    if (rawParams != null) {
+      request.setRawParams(rawParams);
+    }
+    return request;
+  }
+
+  /** @return the slice of the body holding the value at the parser's current token */
+  public static Buffer skipValue(final JsonParser parser, final Buffer body) throws IOException {
+    final int start = (int) parser.getTokenLocation().getByteOffset();
+    parser.skipChildren();
+    // Scalars are read lazily, so must be consumed for the current location to be past them
+    parser.finishToken();
+    final int end = (int) parser.getCurrentLocation().getByteOffset();
+    return body.slice(start, end);
+  }
+
+  private static String textValue(final JsonParser parser, final JsonToken value)
+      throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!value.isScalarValue()) {
+      throw new DecodeException("Expected a value for " + parser.getCurrentName());
+    }
+    return parser.getText();
+  }
+
+  private static JsonRpcRequestId idValue(final JsonParser parser, final JsonToken value)
+      throws IOException {
+    if (value == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    // Matches the types the id would be bound to by the full decoding of a request
+    return new JsonRpcRequestId(parser.readValueAs(Object.class));
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import static org.web3j.utils.Numeric.decodeQuantity;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Decodes a hex encoded quantity (e.g. "0x76c0") while it is being parsed.
+ *
+ * <p>Quantities that fit in a long (gas, gas price and most nonces and values) are decoded from
+ * the parser's character buffer, without creating an intermediate String. Anything else is
+ * delegated to web3j, which remains the reference for what constitutes a valid quantity.
+ */
+public class QuantityDeserializer extends StdDeserializer<BigInteger> {
+
+  private static final long serialVersionUID = 1L;
+
+  // A prefix and 15 hex digits, which cannot overflow a signed long
+  private static final int MAX_FAST_PATH_LENGTH = 17;
+
+  public QuantityDeserializer() {
+    super(BigInteger.class);
+  }
+
+  @Override
+  public BigInteger deserialize(final JsonParser parser, final DeserializationContext context)
+      throws IOException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_STRING) {
+      final BigInteger quantity =
+          decodeShortQuantity(
+              parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+      if (quantity != null) {
+        return quantity;
+      }
+    }
+
+    final String text = parser.getValueAsString();
+    if (text == null) {
+      return (BigInteger) context.handleUnexpectedToken(BigInteger.class, parser);
+    }
+
+    try {
+      return decodeQuantity(text);
+    } catch (final RuntimeException e) {
+      throw context.weirdStringException(text, BigInteger.class, e.getMessage());
+    }
+  }
+
+  private static BigInteger decodeShortQuantity(
+      final char[] chars, final int offset, final int length) {
+    if (length < 3
+        || length > MAX_FAST_PATH_LENGTH
+        || chars[offset] != '0'
+        || chars[offset + 1] != 'x') {
+      return null;
+    }
+
+    long quantity = 0;
+    for (int i = offset + 2; i < offset + length; i++) {
+      final int digit = Character.digit(chars[i], 16);
+      if (digit < 0) {
+        return null;
+      }
+      quantity = (quantity << 4) | digit;
+    }
+    return BigInteger.valueOf(quantity);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.JSON_RPC_VERSION;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+
+/**
+ * Writes the body of a request to send a signed transaction (e.g. eth_sendRawTransaction), hex
+ * encoding the transaction directly into the body.
+ *
+ * <p>Contract deployments can be many KB, so this avoids the transaction being held as a hex
+ * String, then as a JsonRpcRequest param, and then copied again by Jackson into the body. The
+ * output is that of encoding the equivalent JsonRpcRequest with Jackson.
+ */
+public class RawTransactionRequestWriter {
+
+  private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(UTF_8);
+  private static final byte[] ID_PREFIX = "\"],\"id\":".getBytes(UTF_8);
+  private static final byte[] NULL_ID = "null".getBytes(UTF_8);
+
+  private final byte[] prefix;
+
+  public RawTransactionRequestWriter(final String method) {
+    this.prefix =
+        ("{\"jsonrpc\":\""
+                + JSON_RPC_VERSION
+                + "\",\"method\":"
+                + Json.encode(method)
+                + ",\"params\":[\"0x")
+            .getBytes(UTF_8);
+  }
+
+  /** @return the body of a request to send the signed transaction, with the given id */
+  public Buffer write(final byte[] signedTransaction, final JsonRpcRequestId id) {
+    final byte[] encodedId = id == null ? NULL_ID : Json.encode(id).getBytes(UTF_8);
+    final int length =
+        prefix.length + 2 * signedTransaction.length + ID_PREFIX.length + encodedId.length + 1;
+    final byte[] body = new byte[length];
+
+    System.arraycopy(prefix, 0, body, 0, prefix.length);
+    int position = prefix.length;
+    for (final byte value : signedTransaction) {
+      body[position++] = HEX_DIGITS[(value >> 4) & 0xf];
+      body[position++] = HEX_DIGITS[value & 0xf];
+    }
+    System.arraycopy(ID_PREFIX, 0, body, position, ID_PREFIX.length);
+    position += ID_PREFIX.length;
+    System.arraycopy(encodedId, 0, body, position, encodedId.length);
+    position += encodedId.length;
+    body[position] = '}';
+
+    return Buffer.buffer(Unpooled.wrappedBuffer(body));
+  }
+}
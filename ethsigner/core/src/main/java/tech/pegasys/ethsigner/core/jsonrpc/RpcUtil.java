@@ -12,9 +12,14 @@
  */
 package tech.pegasys.ethsigner.core.jsonrpc;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
-import io.vertx.core.json.JsonObject;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
 
 public class RpcUtil {
   private static final String ENCODING_PREFIX = "0x";
@@ -28,25 +33,59 @@ public class RpcUtil {
   }
 
   public static <T> T fromRpcRequestToJsonParam(final Class<T> type, final JsonRpcRequest request) {
+    final Optional<Buffer> rawParams = request.rawParams();
+    final T param;
+    if (rawParams.isPresent()) {
+      param = decodeParam(type, rawParams.get());
+    } else {
+      param = Json.mapper.convertValue(singleParam(type, request.getParams()), type);
+    }
 
-    final Object object;
-    final Object params = request.getParams();
-    if (params instanceof List) {
-      @SuppressWarnings("unchecked")
-      final List<Object> paramList = (List<Object>) params;
-      if (paramList.size() != 1) {
-        throw new IllegalArgumentException(
-            type.getSimpleName()
-                + " json Rpc requires a single parameter, request contained "
-                + paramList.size());
+    if (param == null) {
+      throw new IllegalArgumentException(type.getSimpleName() + " json Rpc requires a parameter");
+    }
+    return param;
+  }
+
+  /** Binds the parameter directly from the request bytes, without an intermediate object tree. */
+  private static <T> T decodeParam(final Class<T> type, final Buffer rawParams) {
+    try (final JsonParser parser = JsonRpcRequestScanner.createParser(rawParams)) {
+      if (parser.nextToken() != JsonToken.START_ARRAY) {
+        return Json.mapper.readValue(parser, type);
       }
-      object = paramList.get(0);
-    } else {
-      object = params;
+
+      T param = null;
+      int paramCount = 0;
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (paramCount == 0) {
+          param = Json.mapper.readValue(parser, type);
+        } else {
+          parser.skipChildren();
+        }
+        paramCount++;
+      }
+      checkSingleParam(type, paramCount);
+      return param;
+    } catch (final IOException e) {
+      throw new IllegalArgumentException(e.getMessage(), e);
     }
+  }
 
-    final JsonObject receivedParams = JsonObject.mapFrom(object);
+  private static Object singleParam(final Class<?> type, final Object params) {
+    if (params instanceof List) {
+      final List<?> paramList = (List<?>) params;
+      checkSingleParam(type, paramList.size());
+      return paramList.get(0);
+    }
+    return params;
+  }
 
-    return receivedParams.mapTo(type);
+  private static void checkSingleParam(final Class<?> type, final int paramCount) {
+    if (paramCount != 1) {
+      throw new IllegalArgumentException(
+          type.getSimpleName()
+              + " json Rpc requires a single parameter, request contained "
+              + paramCount);
+    }
   }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.prometheus.client.Collector;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+
+/**
+ * The metrics recorded while handling requests, registered in a Prometheus registry.
+ *
+ * <p>Recording happens on the event loop, so must not allocate. Prometheus builds a list of label
+ * values on each lookup of a labelled child, so children are instead found in maps keyed by the
+ * method or status code, and only created on first use. Durations are measured from a {@link
+ * System#nanoTime()} taken by the caller.
+ */
+public class EthSignerMetrics {
+
+  public static final String BATCH_METHOD = "[batch]";
+  static final String OTHER_METHOD = "[other]";
+  static final String FAILED_STATUS = "failed";
+  // Methods are chosen by clients, so the number of them labelled is bounded
+  static final int MAX_METHOD_LABELS = 256;
+
+  private static final String NAMESPACE = "ethsigner";
+  private static final int MAX_STATUS_CODE = 599;
+  private static final double[] LATENCY_BUCKETS = {
+    0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+  };
+
+  private final CollectorRegistry registry;
+
+  private final Histogram requestDuration;
+  private final ConcurrentMap<String, Histogram.Child> requestDurationByMethod =
+      new ConcurrentHashMap<>();
+  private final Histogram.Child otherRequestDuration;
+
+  private final Histogram downstreamDuration;
+  private final AtomicReferenceArray<Histogram.Child> downstreamDurationByStatus =
+      new AtomicReferenceArray<>(MAX_STATUS_CODE + 1);
+  private final Histogram.Child failedDownstreamDuration;
+
+  private final Histogram.Child signingDuration;
+
+  private final Histogram nonceLookupDuration;
+  private final Counter nonceRetries;
+  private final Counter nonceRetriesExhausted;
+
+  private final Gauge workerQueueDepth;
+
+  /**
+   * @param registry the registry in which the metrics are registered
+   * @param signingBackend the kind of store holding the signing keys, e.g. file or hashicorp
+   */
+  public EthSignerMetrics(final CollectorRegistry registry, final String signingBackend) {
+    this.registry = registry;
+
+    requestDuration =
+        Histogram.build()
+            .namespace(NAMESPACE)
+            .name("jsonrpc_request_duration_seconds")
+            .help("Time from receiving a JSON-RPC request to completing its response, by method")
+            .labelNames("method")
+            .buckets(LATENCY_BUCKETS)
+            .register(registry);
+    otherRequestDuration = requestDuration.labels(OTHER_METHOD);
+
+    downstreamDuration =
+        Histogram.build()
+            .namespace(NAMESPACE)
+            .name("downstream_request_duration_seconds")
+            .help("Time from sending a request to the Ethereum node to its response, by status")
+            .labelNames("status")
+            .buckets(LATENCY_BUCKETS)
+            .register(registry);
+    failedDownstreamDuration = downstreamDuration.labels(FAILED_STATUS);
+
+    signingDuration =
+        Histogram.build()
+            .namespace(NAMESPACE)
+            .name("signing_duration_seconds")
+            .help("Time taken to sign a transaction, by the backend holding the key")
+            .labelNames("backend")
+            .buckets(LATENCY_BUCKETS)
+            .register(registry)
+            .labels(signingBackend);
+
+    nonceLookupDuration =
+        Histogram.build()
+            .namespace(NAMESPACE)
+            .name("nonce_lookup_duration_seconds")
+            .help("Time taken to allocate a nonce to a transaction which did not specify one")
+            .buckets(LATENCY_BUCKETS)
+            .register(registry);
+    nonceRetries =
+        Counter.build()
+            .namespace(NAMESPACE)
+            .name("nonce_retries_total")
+            .help("Transactions resent after the Ethereum node rejected their nonce")
+            .register(registry);
+    nonceRetriesExhausted =
+        Counter.build()
+            .namespace(NAMESPACE)
+            .name("nonce_retries_exhausted_total")
+            .help("Transactions failed as their nonce was rejected after every retry")
+            .register(registry);
+
+    workerQueueDepth =
+        Gauge.build()
+            .namespace(NAMESPACE)
+            .name("worker_queue_depth")
+            .help("Blocking tasks, such as local signing, waiting for a worker thread")
+            .register(registry);
+  }
+
+  public CollectorRegistry getRegistry() {
+    return registry;
+  }
+
+  public void observeRequest(final String method, final long startNanos) {
+    requestDurationFor(method).observe(secondsSince(startNanos));
+  }
+
+  public void observeBatch(final long startNanos) {
+    requestDurationFor(BATCH_METHOD).observe(secondsSince(startNanos));
+  }
+
+  public void observeDownstreamResponse(final int statusCode, final long startNanos) {
+    downstreamDurationFor(statusCode).observe(secondsSince(startNanos));
+  }
+
+  /** Records a request which received no response, having failed to connect or timed out. */
+  public void observeDownstreamFailure(final long startNanos) {
+    failedDownstreamDuration.observe(secondsSince(startNanos));
+  }
+
+  public void observeSigning(final long startNanos) {
+    signingDuration.observe(secondsSince(startNanos));
+  }
+
+  public void observeNonceLookup(final long startNanos) {
+    nonceLookupDuration.observe(secondsSince(startNanos));
+  }
+
+  public void incrementNonceRetries() {
+    nonceRetries.inc();
+  }
+
+  public void incrementNonceRetriesExhausted() {
+    nonceRetriesExhausted.inc();
+  }
+
+  /** Records a task submitted to the worker pool, which is queued until {@link #workerStarted}. */
+  public void workerQueued() {
+    workerQueueDepth.inc();
+  }
+
+  public void workerStarted() {
+    workerQueueDepth.dec();
+  }
+
+  private Histogram.Child requestDurationFor(final String method) {
+    if (method == null) {
+      return otherRequestDuration;
+    }
+    final Histogram.Child child = requestDurationByMethod.get(method);
+    if (child != null) {
+      return child;
+    }
+    if (requestDurationByMethod.size() >= MAX_METHOD_LABELS) {
+      return otherRequestDuration;
+    }
+    return requestDurationByMethod.computeIfAbsent(method, key -> requestDuration.labels(key));
+  }
+
+  private Histogram.Child downstreamDurationFor(final int statusCode) {
+    if (statusCode < 0 || statusCode > MAX_STATUS_CODE) {
+      return downstreamDuration.labels(Integer.toString(statusCode));
+    }
+    final Histogram.Child child = downstreamDurationByStatus.get(statusCode);
+    if (child != null) {
+      return child;
+    }
+    // Concurrent creation is harmless, as Prometheus returns the same child for the same label
+    final Histogram.Child created = downstreamDuration.labels(Integer.toString(statusCode));
+    downstreamDurationByStatus.set(statusCode, created);
+    return created;
+  }
+
+  private static double secondsSince(final long startNanos) {
+    return (System.nanoTime() - startNanos) / Collector.NANOSECONDS_PER_SECOND;
+  }
+}
@@ -15,13 +15,23 @@ package tech.pegasys.ethsigner.core.requesthandler;
 import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
 import static io.netty.handler.codec.http.HttpResponseStatus.INTERNAL_SERVER_ERROR;
 
+import tech.pegasys.ethsigner.core.jfr.FlightRecorderEvent;
+import tech.pegasys.ethsigner.core.tracing.RequestTrace;
+import tech.pegasys.ethsigner.core.tracing.Span;
+import tech.pegasys.ethsigner.core.tracing.SpanKind;
+import tech.pegasys.ethsigner.core.tracing.Tracer;
+
 import java.net.ConnectException;
 import java.time.Duration;
 import java.util.concurrent.TimeoutException;
 
+import io.vertx.core.Handler;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.streams.Pump;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -29,6 +39,13 @@ import org.apache.logging.log4j.Logger;
 public class VertxRequestTransmitter {
 
   private static final Logger LOG = LogManager.getLogger();
+  // The span of the request to the node, held by the routing context until the node responds
+  private static final String DOWNSTREAM_SPAN = "ethsigner.downstreamSpan";
+  private static final String DOWNSTREAM_EVENT = "ethsigner.downstreamEvent";
+  private static final FlightRecorderEvent DOWNSTREAM_REQUEST_EVENT =
+      FlightRecorderEvent.define(
+          "tech.pegasys.ethsigner.DownstreamRequest", "Downstream Request", "method", "status");
+
   private final Duration httpRequestTimeout;
   private final ResponseBodyHandler bodyHandler;
 
@@ -38,49 +55,151 @@ public class VertxRequestTransmitter {
     this.bodyHandler = bodyHandler;
   }
 
+  /** Creates a transmitter without a body handler, so responses are streamed to the client. */
+  public VertxRequestTransmitter(final Duration httpRequestTimeout) {
+    this(httpRequestTimeout, null);
+  }
+
+  /**
+   * Reports a failure to the client, or when the response is already under way and it is too late
+   * to report an error, closes the connection to signal the response is incomplete.
+   */
   private void handleException(final RoutingContext context, final Throwable thrown) {
-    if (thrown instanceof TimeoutException || thrown instanceof ConnectException) {
+    final HttpServerResponse clientResponse = context.response();
+    if (clientResponse.headWritten()) {
+      LOG.warn("Request to downstream node failed after the response was started", thrown);
+      if (!clientResponse.closed()) {
+        clientResponse.close();
+      }
+    } else if (thrown instanceof TimeoutException || thrown instanceof ConnectException) {
       context.fail(GATEWAY_TIMEOUT.code(), thrown);
     } else {
       context.fail(INTERNAL_SERVER_ERROR.code(), thrown);
     }
   }
 
+  /**
+   * Passes the node's complete response body to the body handler, or streams it to the client when
+   * the transmitter has no body handler.
+   */
   public void handleResponse(final RoutingContext context, final HttpClientResponse response) {
+    if (bodyHandler == null) {
+      streamResponse(context, response);
+      return;
+    }
     logResponse(response);
 
     response.bodyHandler(
-        body ->
-            context
-                .vertx()
-                .executeBlocking(
-                    future -> {
-                      logResponseBody(body);
-                      bodyHandler.handleResponseBody(context, response, body);
-                      future.complete();
-                    },
-                    false,
-                    res -> {
-                      if (res.failed()) {
-                        LOG.error(
-                            "An unhandled error occurred while processing "
-                                + context.getBodyAsString(),
-                            res.cause());
-                        context.fail(res.cause());
-                      }
-                    }));
+        body -> {
+          endDownstreamSpan(context, null);
+          commitDownstreamEvent(context, response.statusCode());
+          logResponseBody(body);
+          try {
+            bodyHandler.handleResponseBody(context, response, body);
+          } catch (final RuntimeException e) {
+            LOG.error(
+                "An unhandled error occurred while processing " + context.getBodyAsString(), e);
+            handleException(context, e);
+          }
+        });
+  }
+
+  /**
+   * Writes the response to the client as it is received from the node, rather than once it is
+   * complete. The node's connection is paused whenever the client is slower to read than the node
+   * is to write, so the memory held per request is bounded by the client's write queue.
+   */
+  public void streamResponse(final RoutingContext context, final HttpClientResponse response) {
+    logResponse(response);
+
+    final HttpServerResponse clientResponse = context.response();
+    clientResponse.setStatusCode(response.statusCode());
+    clientResponse.headers().setAll(response.headers());
+    // Framing is decided by how the body is written to the client, not how it was received
+    clientResponse.headers().remove(HttpHeaders.TRANSFER_ENCODING);
+    clientResponse.setChunked(!clientResponse.headers().contains(HttpHeaders.CONTENT_LENGTH));
+
+    final Pump pump = Pump.pump(response, clientResponse);
+    response.exceptionHandler(
+        thrown -> {
+          endDownstreamSpan(context, thrown);
+          commitDownstreamEvent(context, response.statusCode());
+          handleException(context, thrown);
+        });
+    response.endHandler(
+        v -> {
+          endDownstreamSpan(context, null);
+          commitDownstreamEvent(context, response.statusCode());
+          clientResponse.end();
+        });
+    clientResponse.closeHandler(
+        v -> {
+          if (!clientResponse.ended()) {
+            // Client has gone away, discard the remainder of the node's response
+            pump.stop();
+            response.handler(chunk -> {});
+            response.resume();
+          }
+        });
+    pump.start();
   }
 
+  /**
+   * @param method the JSON-RPC method of the client's request, recorded with the request's flight
+   *     recorder event
+   * @param failureHandler notified of a failed request, before it is reported to the client
+   */
   public void sendRequest(
-      final HttpClientRequest request, final Buffer bodyContent, final RoutingContext context) {
+      final HttpClientRequest request,
+      final Buffer bodyContent,
+      final RoutingContext context,
+      final String method,
+      final Handler<Throwable> failureHandler) {
+    final Object event = DOWNSTREAM_REQUEST_EVENT.begin();
+    if (event != null) {
+      context.put(DOWNSTREAM_EVENT, new DownstreamEvent(event, method));
+    }
+    final RequestTrace trace = RequestTrace.of(context);
+    final Span downstream = trace.startSpan("downstream", SpanKind.CLIENT);
     request.setTimeout(httpRequestTimeout.toMillis());
-    request.exceptionHandler(thrown -> handleException(context, thrown));
+    request.exceptionHandler(
+        thrown -> {
+          endDownstreamSpan(context, thrown);
+          commitDownstreamEvent(context, 0);
+          failureHandler.handle(thrown);
+          handleException(context, thrown);
+        });
     request.headers().setAll(context.request().headers());
     request.headers().remove("Content-Length"); // created during 'end'.
+    if (trace.isSampled()) {
+      // The node's own tracing, if any, continues from the request it was sent
+      context.put(DOWNSTREAM_SPAN, downstream);
+      request.headers().set(Tracer.TRACEPARENT_HEADER, trace.traceparent(downstream));
+    }
     request.setChunked(false);
     request.end(bodyContent);
   }
 
+  private void endDownstreamSpan(final RoutingContext context, final Throwable thrown) {
+    final Span downstream = context.remove(DOWNSTREAM_SPAN);
+    if (downstream == null) {
+      return;
+    }
+    if (thrown == null) {
+      downstream.end();
+    } else {
+      downstream.fail(thrown);
+    }
+  }
+
+  private void commitDownstreamEvent(final RoutingContext context, final int statusCode) {
+    final DownstreamEvent downstream = context.remove(DOWNSTREAM_EVENT);
+    if (downstream != null) {
+      final String status = statusCode == 0 ? "failed" : Integer.toString(statusCode);
+      DOWNSTREAM_REQUEST_EVENT.commit(downstream.event, downstream.method, status);
+    }
+  }
+
   private void logResponse(final HttpClientResponse response) {
     LOG.debug("Response status: {}", response.statusCode());
   }
@@ -89,6 +208,16 @@ public class VertxRequestTransmitter {
     LOG.debug("Response body: {}", body);
   }
 
+  private static class DownstreamEvent {
+    private final Object event;
+    private final String method;
+
+    private DownstreamEvent(final Object event, final String method) {
+      this.event = event;
+      this.method = method;
+    }
+  }
+
   @FunctionalInterface
   public interface ResponseBodyHandler {
 
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.batch;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
+import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
+import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcErrorResponse;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
+
+import java.util.Optional;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+
+/**
+ * A single request within a batch, which is either answered by EthSigner or forwarded to the
+ * Ethereum node as part of a downstream batch.
+ */
+class BatchMember {
+
+  private final int index;
+  private JsonRpcRequestId id;
+  private boolean notification;
+  private Buffer downstreamRequest;
+  private Transaction transaction;
+  private Buffer response;
+
+  BatchMember(final int index) {
+    this.index = index;
+  }
+
+  /** Position within the batch, which is used as the id of the request sent downstream. */
+  int index() {
+    return index;
+  }
+
+  void id(final JsonRpcRequestId id) {
+    this.id = id;
+  }
+
+  /** A notification is still processed, but its response is omitted from that to the batch. */
+  void notification() {
+    this.notification = true;
+  }
+
+  boolean isNotification() {
+    return notification;
+  }
+
+  void forward(final Buffer downstreamRequest) {
+    this.downstreamRequest = downstreamRequest;
+  }
+
+  /** Forwards a signed transaction, whose nonce depends on how the node responds. */
+  void forward(final Buffer downstreamRequest, final Transaction transaction) {
+    this.downstreamRequest = downstreamRequest;
+    this.transaction = transaction;
+  }
+
+  Optional<Transaction> transaction() {
+    return Optional.ofNullable(transaction);
+  }
+
+  boolean isForwarded() {
+    return downstreamRequest != null && response == null;
+  }
+
+  Buffer downstreamRequest() {
+    return downstreamRequest;
+  }
+
+  void respond(final Buffer response) {
+    this.response = response;
+  }
+
+  void respond(final JsonRpcError error) {
+    this.response = Json.encodeToBuffer(new JsonRpcErrorResponse(id, error));
+  }
+
+  /** Responds with the result or error member from the node's response, under the client's id. */
+  void respond(final String member, final Buffer value) {
+    this.response =
+        Buffer.buffer()
+            .appendString("{\"jsonrpc\":\"2.0\",\"id\":")
+            .appendString(Json.encode(id))
+            .appendString(",\"")
+            .appendString(member)
+            .appendString("\":")
+            .appendBuffer(value)
+            .appendString("}");
+  }
+
+  boolean hasResponse() {
+    return response != null;
+  }
+
+  Buffer response() {
+    return response;
+  }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.batch;
+
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INTERNAL_ERROR;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INVALID_PARAMS;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INVALID_REQUEST;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.SIGNING_FROM_IS_NOT_AN_UNLOCKED_ACCOUNT;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestScanner;
+import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
+import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcErrorResponse;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
+import tech.pegasys.ethsigner.core.requesthandler.BodyProvider;
+import tech.pegasys.ethsigner.core.requesthandler.JsonRpcBody;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceTooLowRetryMechanism;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.TransactionTransmitter;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
+import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
+import tech.pegasys.ethsigner.core.tracing.RequestTrace;
+import tech.pegasys.ethsigner.core.tracing.Span;
+import tech.pegasys.ethsigner.core.tracing.SpanKind;
+import tech.pegasys.ethsigner.core.tracing.Tracer;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.common.collect.ImmutableSet;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.Json;
+import io.vertx.ext.web.RoutingContext;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Handles a JSON-RPC 2.0 batch, responding with an array of responses in the order of the requests.
+ *
+ * <p>Send transaction requests are signed concurrently, with the nonces for each account allocated
+ * in the order the transactions appear in the batch. The resulting raw transactions, together with
+ * every request that is passed through, are then sent to the Ethereum node as a single batch.
+ *
+ * <p>Notifications are handled like any other request, but are not responded to; when every
+ * request is a notification, nothing is returned.
+ */
+public class BatchRequestHandler {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final ImmutableSet<String> SEND_TRANSACTION_METHODS =
+      ImmutableSet.of("eth_sendTransaction", "eea_sendTransaction");
+
+  // Bounds the nonces a single batch may allocate, and the size of the downstream batch
+  private static final int MAX_BATCH_SIZE = 1024;
+
+  private final HttpClient ethNodeClient;
+  private final Duration httpRequestTimeout;
+  private final TransactionSerialiser serialiser;
+  private final TransactionFactory transactionFactory;
+  private final Map<String, BodyProvider> internalResponses;
+  private final EthSignerMetrics metrics;
+
+  public BatchRequestHandler(
+      final HttpClient ethNodeClient,
+      final Duration httpRequestTimeout,
+      final TransactionSerialiser serialiser,
+      final TransactionFactory transactionFactory,
+      final Map<String, BodyProvider> internalResponses,
+      final EthSignerMetrics metrics) {
+    this.ethNodeClient = ethNodeClient;
+    this.httpRequestTimeout = httpRequestTimeout;
+    this.serialiser = serialiser;
+    this.transactionFactory = transactionFactory;
+    this.internalResponses = internalResponses;
+    this.metrics = metrics;
+  }
+
+  public void handle(final RoutingContext context, final List<Buffer> batch) {
+    LOG.debug("Handling batch of {} requests", batch.size());
+    if (batch.isEmpty() || batch.size() > MAX_BATCH_SIZE) {
+      context
+          .response()
+          .setStatusCode(HttpResponseStatus.BAD_REQUEST.code())
+          .end(Json.encodeToBuffer(new JsonRpcErrorResponse(INVALID_REQUEST)));
+      return;
+    }
+
+    final Context vertxContext = context.vertx().getOrCreateContext();
+    final RequestTrace trace = RequestTrace.of(context);
+    final List<BatchMember> members = new ArrayList<>(batch.size());
+    final List<Future<?>> signedTransactions = new ArrayList<>();
+
+    for (int index = 0; index < batch.size(); index++) {
+      final BatchMember member = new BatchMember(index);
+      members.add(member);
+
+      final JsonRpcRequest request;
+      try {
+        request = JsonRpcRequestScanner.scan(batch.get(index));
+      } catch (final DecodeException | IllegalArgumentException e) {
+        LOG.debug("Invalid request in batch: {}", batch.get(index), e);
+        member.respond(INVALID_REQUEST);
+        continue;
+      }
+      member.id(request.getId());
+      if (request.isNotification()) {
+        member.notification();
+      }
+
+      final String method = request.getMethod();
+      if (SEND_TRANSACTION_METHODS.contains(method)) {
+        // Nonces are requested while iterating the batch, so are allocated in the batch's order
+        signedTransactions.add(signTransaction(vertxContext, member, request, trace));
+      } else if (internalResponses.containsKey(method)) {
+        respondInternally(member, request, internalResponses.get(method));
+      } else {
+        member.forward(passThroughRequest(member, request));
+      }
+    }
+
+    join(signedTransactions).setHandler(signed -> sendToEthNode(context, members));
+  }
+
+  private Future<Void> signTransaction(
+      final Context vertxContext,
+      final BatchMember member,
+      final JsonRpcRequest request,
+      final RequestTrace trace) {
+    final Future<Void> signed = Future.future();
+    final Transaction transaction;
+    try {
+      transaction = transactionFactory.createTransaction(request);
+    } catch (final IllegalArgumentException e) {
+      LOG.debug("Parsing values failed for request: {}", request.getParams(), e);
+      member.respond(INVALID_PARAMS);
+      return Future.succeededFuture();
+    }
+
+    if (!serialiser.isUnlockedAccount(transaction.sender())) {
+      LOG.info("From address ({}) is not an unlocked account", transaction.sender());
+      member.respond(SIGNING_FROM_IS_NOT_AN_UNLOCKED_ACCOUNT);
+      return Future.succeededFuture();
+    }
+
+    final long nonceLookupStart = System.nanoTime();
+    final Future<Void> nonceUpdate =
+        transaction.isNonceUserSpecified() ? Future.succeededFuture() : transaction.updateNonce();
+    nonceUpdate.setHandler(
+        nonce ->
+            vertxContext.runOnContext(
+                v -> {
+                  if (nonce.failed()) {
+                    LOG.info("Unable to get nonce from web3j provider.");
+                    member.respond(TransactionTransmitter.nonceFailureError(nonce.cause()));
+                    signed.complete();
+                    return;
+                  }
+                  if (!transaction.isNonceUserSpecified()) {
+                    metrics.observeNonceLookup(nonceLookupStart);
+                  }
+                  serialiser
+                      .serialise(vertxContext, transaction, trace)
+                      .setHandler(
+                          result -> {
+                            if (result.succeeded()) {
+                              member.forward(
+                                  transaction.jsonRpcRequestBody(
+                                      result.result(), new JsonRpcRequestId(member.index())),
+                                  transaction);
+                            } else {
+                              LOG.debug(
+                                  "Failed to encode/serialise transaction: {}",
+                                  transaction,
+                                  result.cause());
+                              transaction.releaseNonce();
+                              member.respond(
+                                  TransactionTransmitter.signingFailureError(result.cause()));
+                            }
+                            signed.complete();
+                          });
+                }));
+    return signed;
+  }
+
+  private void respondInternally(
+      final BatchMember member, final JsonRpcRequest request, final BodyProvider bodyProvider) {
+    final JsonRpcBody body = bodyProvider.getBody(request);
+    if (body.hasError()) {
+      member.respond(body.error());
+    } else {
+      member.respond(body.body());
+    }
+  }
+
+  /** The request is forwarded as received, other than its id being replaced by its position. */
+  private Buffer passThroughRequest(final BatchMember member, final JsonRpcRequest request) {
+    final Buffer downstreamRequest =
+        Buffer.buffer()
+            .appendString("{\"jsonrpc\":")
+            .appendString(Json.encode(request.getVersion()))
+            .appendString(",\"method\":")
+            .appendString(Json.encode(request.getMethod()));
+    request
+        .rawParams()
+        .ifPresent(params -> downstreamRequest.appendString(",\"params\":").appendBuffer(params));
+    return downstreamRequest
+        .appendString(",\"id\":")
+        .appendString(Integer.toString(member.index()))
+        .appendString("}");
+  }
+
+  private void sendToEthNode(final RoutingContext context, final List<BatchMember> members) {
+    final Buffer downstreamBatch = Buffer.buffer().appendString("[");
+    for (final BatchMember member : members) {
+      if (member.isForwarded()) {
+        if (downstreamBatch.length() > 1) {
+          downstreamBatch.appendString(",");
+        }
+        downstreamBatch.appendBuffer(member.downstreamRequest());
+      }
+    }
+
+    if (downstreamBatch.length() == 1) {
+      respond(context, members);
+      return;
+    }
+    downstreamBatch.appendString("]");
+
+    final RequestTrace trace = RequestTrace.of(context);
+    final Span downstream = trace.startSpan("downstream", SpanKind.CLIENT);
+    final long start = System.nanoTime();
+    final HttpClientRequest request =
+        ethNodeClient.request(
+            HttpMethod.POST,
+            context.request().uri(),
+            response -> {
+              metrics.observeDownstreamResponse(response.statusCode(), start);
+              downstream.end();
+              handleEthNodeResponse(context, members, response);
+            });
+    request.setTimeout(httpRequestTimeout.toMillis());
+    request.exceptionHandler(
+        thrown -> {
+          metrics.observeDownstreamFailure(start);
+          downstream.fail(thrown);
+          handleEthNodeFailure(context, members, thrown);
+        });
+    request.headers().setAll(context.request().headers());
+    request.headers().remove("Content-Length"); // created during 'end'.
+    if (trace.isSampled()) {
+      request.headers().set(Tracer.TRACEPARENT_HEADER, trace.traceparent(downstream));
+    }
+    request.setChunked(false);
+    request.end(downstreamBatch);
+  }
+
+  private void handleEthNodeResponse(
+      final RoutingContext context,
+      final List<BatchMember> members,
+      final HttpClientResponse response) {
+    LOG.debug("Response status: {}", response.statusCode());
+    response.bodyHandler(
+        body -> {
+          LOG.debug("Response body: {}", body);
+          try {
+            for (final Buffer downstreamResponse : JsonRpcRequestScanner.splitBatch(body)) {
+              matchResponse(members, downstreamResponse);
+            }
+          } catch (final DecodeException e) {
+            LOG.info("Ethereum node did not respond to batch with an array: {}", body);
+          }
+          // Unknown whether the node accepted any transaction it did not respond to
+          forwardedTransactions(members).forEach(Transaction::resyncNonce);
+          respondToUnanswered(members, INTERNAL_ERROR);
+          respond(context, members);
+        });
+  }
+
+  private void handleEthNodeFailure(
+      final RoutingContext context, final List<BatchMember> members, final Throwable thrown) {
+    if (context.response().ended()) {
+      return;
+    }
+    LOG.info("Failed to send batch to Ethereum node", thrown);
+    if (thrown instanceof ConnectException) {
+      forwardedTransactions(members).forEach(Transaction::releaseNonce);
+    } else {
+      forwardedTransactions(members).forEach(Transaction::resyncNonce);
+    }
+    if (thrown instanceof TimeoutException || thrown instanceof ConnectException) {
+      respondToUnanswered(members, CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT);
+    } else {
+      respondToUnanswered(members, INTERNAL_ERROR);
+    }
+    respond(context, members);
+  }
+
+  /** Reads the id, and result or error of a response, to return it to the originating member. */
+  private void matchResponse(final List<BatchMember> members, final Buffer downstreamResponse) {
+    try (final JsonParser parser = JsonRpcRequestScanner.createParser(downstreamResponse)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return;
+      }
+
+      int index = -1;
+      String member = null;
+      Buffer value = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.getCurrentName();
+        final JsonToken token = parser.nextToken();
+        if ("id".equals(field) && token == JsonToken.VALUE_NUMBER_INT) {
+          index = parser.getIntValue();
+        } else if ("result".equals(field) || "error".equals(field)) {
+          member = field;
+          value = JsonRpcRequestScanner.skipValue(parser, downstreamResponse);
+        } else {
+          parser.skipChildren();
+        }
+      }
+
+      if (index >= 0 && index < members.size() && member != null) {
+        final BatchMember batchMember = members.get(index);
+        if (batchMember.isForwarded()) {
+          if ("error".equals(member)) {
+            final Buffer error = value;
+            batchMember.transaction().ifPresent(transaction -> rejected(transaction, error));
+          } else {
+            batchMember.transaction().ifPresent(Transaction::confirmNonce);
+          }
+          batchMember.respond(member, value);
+        }
+      }
+    } catch (final IOException e) {
+      LOG.debug("Unable to read response from Ethereum node: {}", downstreamResponse, e);
+    }
+  }
+
+  private void rejected(final Transaction transaction, final Buffer error) {
+    JsonRpcError jsonRpcError = null;
+    try {
+      jsonRpcError = Json.decodeValue(error, JsonRpcError.class);
+    } catch (final DecodeException e) {
+      LOG.debug("Unrecognised error from Ethereum node: {}", error, e);
+    }
+
+    if (NonceTooLowRetryMechanism.isNonceError(jsonRpcError)) {
+      transaction.resyncNonce();
+    } else {
+      transaction.releaseNonce();
+    }
+  }
+
+  private List<Transaction> forwardedTransactions(final List<BatchMember> members) {
+    final List<Transaction> transactions = new ArrayList<>();
+    for (final BatchMember member : members) {
+      if (member.isForwarded()) {
+        member.transaction().ifPresent(transactions::add);
+      }
+    }
+    return transactions;
+  }
+
+  private void respondToUnanswered(final List<BatchMember> members, final JsonRpcError error) {
+    for (final BatchMember member : members) {
+      if (!member.hasResponse()) {
+        member.respond(error);
+      }
+    }
+  }
+
+  private void respond(final RoutingContext context, final List<BatchMember> members) {
+    final Buffer responses = Buffer.buffer().appendString("[");
+    for (final BatchMember member : members) {
+      if (member.isNotification()) {
+        continue;
+      }
+      if (responses.length() > 1) {
+        responses.appendString(",");
+      }
+      responses.appendBuffer(member.response());
+    }
+
+    if (responses.length() == 1) {
+      context.response().setStatusCode(HttpResponseStatus.NO_CONTENT.code()).end();
+      return;
+    }
+    responses.appendString("]");
+
+    context
+        .response()
+        .setStatusCode(HttpResponseStatus.OK.code())
+        .setChunked(false)
+        .end(responses);
+  }
+
+  @SuppressWarnings("rawtypes")
+  private static CompositeFuture join(final List<Future<?>> futures) {
+    final List<Future> joined = new ArrayList<>(futures);
+    return CompositeFuture.join(joined);
+  }
+}
@@ -12,15 +12,15 @@
  */
 package tech.pegasys.ethsigner.core.requesthandler.internalresponse;
 
-import static java.util.Collections.singletonList;
-
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcSuccessResponse;
 import tech.pegasys.ethsigner.core.requesthandler.BodyProvider;
 import tech.pegasys.ethsigner.core.requesthandler.JsonRpcBody;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.function.Supplier;
 
 import io.vertx.core.json.Json;
 import org.apache.logging.log4j.LogManager;
@@ -30,10 +30,11 @@ public class EthAccountsBodyProvider implements BodyProvider {
 
   private static final Logger LOG = LogManager.getLogger();
 
-  private final String address;
+  private final Supplier<? extends Collection<String>> addresses;
 
-  public EthAccountsBodyProvider(final String address) {
-    this.address = address;
+  /** @param addresses supplies the current unlocked accounts, which may change over time */
+  public EthAccountsBodyProvider(final Supplier<? extends Collection<String>> addresses) {
+    this.addresses = addresses;
   }
 
   @Override
@@ -46,7 +47,7 @@ public class EthAccountsBodyProvider implements BodyProvider {
     }
 
     final JsonRpcSuccessResponse response =
-        new JsonRpcSuccessResponse(request.getId(), singletonList(address));
+        new JsonRpcSuccessResponse(request.getId(), new ArrayList<>(addresses.get()));
     return new JsonRpcBody(Json.encodeToBuffer(response));
   }
 
@@ -13,61 +13,71 @@
 package tech.pegasys.ethsigner.core.requesthandler.passthrough;
 
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.JsonRpcRequestHandler;
 import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitter;
-import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitterFactory;
 
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
-import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpServerRequest;
-import io.vertx.core.json.Json;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Proxies a request to the downstream node, streaming the node's response back to the client.
+ *
+ * <p>Responses to pass through requests (e.g. eth_getLogs, debug_traceTransaction) can be many
+ * megabytes, and are not inspected by EthSigner, so are not buffered.
+ */
 public class PassThroughHandler implements JsonRpcRequestHandler {
 
   private static final Logger LOG = LogManager.getLogger();
 
   private final HttpClient ethNodeClient;
   private final VertxRequestTransmitter transmitter;
+  private final EthSignerMetrics metrics;
 
   public PassThroughHandler(
       final HttpClient ethNodeClient,
-      final VertxRequestTransmitterFactory vertxTransmitterFactory) {
-    transmitter = vertxTransmitterFactory.create(this::handleResponseBody);
+      final VertxRequestTransmitter transmitter,
+      final EthSignerMetrics metrics) {
     this.ethNodeClient = ethNodeClient;
+    this.transmitter = transmitter;
+    this.metrics = metrics;
   }
 
   @Override
   public void handle(final RoutingContext context, final JsonRpcRequest request) {
     LOG.debug("Passing through request {}, {}", request.getId(), request.getMethod());
     final HttpServerRequest httpServerRequest = context.request();
+    final long start = System.nanoTime();
     final HttpClientRequest proxyRequest =
         ethNodeClient.request(
             httpServerRequest.method(),
             httpServerRequest.uri(),
-            response -> transmitter.handleResponse(context, response));
-
-    transmitter.sendRequest(proxyRequest, context.getBody(), context);
-    logRequest(request, httpServerRequest);
-  }
+            response -> {
+              metrics.observeDownstreamResponse(response.statusCode(), start);
+              transmitter.streamResponse(context, response);
+            });
 
-  private void handleResponseBody(
-      final RoutingContext context, final HttpClientResponse response, final Buffer body) {
-    context.request().response().setStatusCode(response.statusCode());
-    context.request().response().headers().setAll(response.headers());
-    context.request().response().setChunked(false);
-    context.request().response().end(body);
+    final Buffer body = context.getBody();
+    transmitter.sendRequest(
+        proxyRequest,
+        body,
+        context,
+        request.getMethod(),
+        thrown -> metrics.observeDownstreamFailure(start));
+    logRequest(body, httpServerRequest);
   }
 
-  private void logRequest(final JsonRpcRequest jsonRequest, final HttpServerRequest httpRequest) {
+  private void logRequest(final Buffer body, final HttpServerRequest httpRequest) {
+    // Params are not decoded for pass through requests, so log the body as received
     LOG.debug(
         "Proxying method: {}, uri: {}, body: {}",
         httpRequest::method,
         httpRequest::absoluteURI,
-        () -> Json.encodePrettily(jsonRequest));
+        body::toString);
   }
 }
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
+
+import static java.math.BigInteger.ONE;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.google.common.base.MoreObjects;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Allocates nonces for each account from memory, so the node is only asked for an account's
+ * transaction count on first use, or once the node has rejected a nonce which was allocated.
+ *
+ * <p>Concurrent transactions from an account are allocated consecutive nonces, rather than all
+ * being given the node's pending transaction count and then being retried as their nonce is too
+ * low. Nonces of transactions which the node did not accept are released, and allocated again
+ * before any new nonce so that no gap is left in the account's nonces.
+ *
+ * <p>At most one request for an account's nonce is in flight to the node, and every transaction
+ * waiting on it is allocated a nonce from its result. Likewise, a burst of rejections of nonces
+ * allocated from the same result only causes the node to be asked once.
+ *
+ * <p>When a {@link NonceJournal} is provided, an allocated nonce is only provided once it has been
+ * recorded on disk, and accounts whose nonces were all confirmed by the node before a restart do
+ * not need the node to be asked again.
+ */
+public class NonceAllocator {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final Map<String, AccountNonces> accounts = new ConcurrentHashMap<>();
+  private final Optional<NonceJournal> journal;
+
+  /** Nonces are held only in memory, so are retrieved from the node again after a restart. */
+  public NonceAllocator() {
+    this.journal = Optional.empty();
+  }
+
+  /** Nonces are recorded in the journal, allocation resumes from it after a restart. */
+  public NonceAllocator(final NonceJournal journal) {
+    this.journal = Optional.of(journal);
+  }
+
+  /**
+   * @param account identifies the sequence of nonces, i.e. the sender and any privacy group
+   * @param nodeNonceProvider creates the source of the node's nonce, if the account is new
+   * @return provider of nonces allocated for the account
+   */
+  public NonceProvider nonceProvider(
+      final String account, final Supplier<NonceProvider> nodeNonceProvider) {
+    return new AllocatedNonceProvider(account, nodeNonceProvider);
+  }
+
+  /**
+   * Account state is only created once a nonce is required, so is not retained for senders which
+   * are rejected before reaching that point.
+   */
+  private class AllocatedNonceProvider implements NonceProvider {
+
+    private final String account;
+    private final Supplier<NonceProvider> nodeNonceProvider;
+
+    AllocatedNonceProvider(final String account, final Supplier<NonceProvider> nodeNonceProvider) {
+      this.account = account;
+      this.nodeNonceProvider = nodeNonceProvider;
+    }
+
+    @Override
+    public Future<BigInteger> getNonce() {
+      return accounts
+          .computeIfAbsent(account, key -> new AccountNonces(key, nodeNonceProvider.get()))
+          .getNonce();
+    }
+
+    @Override
+    public void release(final BigInteger nonce) {
+      final AccountNonces accountNonces = accounts.get(account);
+      if (accountNonces != null) {
+        accountNonces.release(nonce);
+      }
+    }
+
+    @Override
+    public void confirm(final BigInteger nonce) {
+      final AccountNonces accountNonces = accounts.get(account);
+      if (accountNonces != null) {
+        accountNonces.confirm(nonce);
+      }
+    }
+
+    @Override
+    public void resync(final BigInteger rejectedNonce) {
+      final AccountNonces accountNonces = accounts.get(account);
+      if (accountNonces != null) {
+        accountNonces.resync(rejectedNonce);
+      }
+    }
+
+    @Override
+    public String toString() {
+      return MoreObjects.toStringHelper(this).add("account", account).toString();
+    }
+  }
+
+  private class AccountNonces implements NonceProvider {
+
+    private final String account;
+    private final NonceProvider nodeNonceProvider;
+    private final List<Future<BigInteger>> awaitingNodeNonce = new ArrayList<>();
+    // Absent until recovered from the journal, or the node has been asked for the nonce
+    private NonceSequence sequence;
+
+    AccountNonces(final String account, final NonceProvider nodeNonceProvider) {
+      this.account = account;
+      this.nodeNonceProvider = nodeNonceProvider;
+      this.sequence = journal.flatMap(j -> j.recorded(account)).orElse(null);
+    }
+
+    @Override
+    public Future<BigInteger> getNonce() {
+      final Future<BigInteger> nonce;
+      synchronized (this) {
+        if (sequence != null) {
+          final BigInteger allocated = sequence.allocate();
+          return journal
+              .map(j -> j.allocated(account, allocated).map(recorded -> allocated))
+              .orElseGet(() -> Future.succeededFuture(allocated));
+        }
+
+        nonce = Future.future();
+        awaitingNodeNonce.add(nonce);
+        if (awaitingNodeNonce.size() > 1) {
+          // Node has already been asked, the nonce is allocated once it responds
+          return nonce;
+        }
+      }
+
+      LOG.debug("Retrieving nonce for {} from node", account);
+      nodeNonceProvider.getNonce().setHandler(this::nodeNonceRetrieved);
+      return nonce;
+    }
+
+    private void nodeNonceRetrieved(final AsyncResult<BigInteger> result) {
+      final List<Future<BigInteger>> allocations;
+      final List<BigInteger> allocated = new ArrayList<>();
+      Future<Void> recorded = Future.succeededFuture();
+      synchronized (this) {
+        allocations = new ArrayList<>(awaitingNodeNonce);
+        awaitingNodeNonce.clear();
+        if (result.succeeded()) {
+          sequence = new NonceSequence(result.result());
+          for (int i = 0; i < allocations.size(); i++) {
+            allocated.add(sequence.allocate());
+          }
+          if (journal.isPresent()) {
+            journal.get().synced(account, result.result());
+            recorded = journal.get().allocated(account, sequence.nextNonce().subtract(ONE));
+          }
+        }
+      }
+
+      // Completed outside of the lock, as each completion continues processing its transaction
+      recorded.setHandler(
+          v -> {
+            for (int i = 0; i < allocations.size(); i++) {
+              if (result.failed()) {
+                allocations.get(i).fail(result.cause());
+              } else {
+                allocations.get(i).complete(allocated.get(i));
+              }
+            }
+          });
+    }
+
+    @Override
+    public synchronized void release(final BigInteger nonce) {
+      if (sequence != null && sequence.release(nonce)) {
+        LOG.debug("Released nonce {} for {}", nonce, account);
+        journal.ifPresent(j -> j.released(account, nonce));
+      }
+    }
+
+    @Override
+    public synchronized void confirm(final BigInteger nonce) {
+      if (sequence != null) {
+        sequence.confirm(nonce);
+        journal.ifPresent(j -> j.confirmed(account, nonce));
+      }
+    }
+
+    @Override
+    public synchronized void resync(final BigInteger rejectedNonce) {
+      if (sequence == null) {
+        // Already awaiting the node, any rejections in the meantime are for the same reason
+        return;
+      }
+      if (rejectedNonce.compareTo(sequence.lowestUnused()) < 0) {
+        // Allocated before the node was last asked, so the current nonces already account for it
+        LOG.trace("Ignoring rejection of nonce {} for {}", rejectedNonce, account);
+        return;
+      }
+      LOG.debug("Nonces for {} will be retrieved from node", account);
+      sequence = null;
+      journal.ifPresent(j -> j.resynced(account));
+    }
+  }
+}
@@ -0,0 +1,435 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Append-only journal of the nonces allocated to each account, held in a memory-mapped file so
+ * that EthSigner resumes allocating nonces from where it stopped when it is restarted, rather than
+ * relying on the node's count of pending transactions.
+ *
+ * <p>Each record is checksummed, and replay stops at the first record which is incomplete, so a
+ * crash part way through an append loses only that record. Records are written to the mapping
+ * immediately, and forced to disk by a single thread; all records appended while one force is in
+ * progress are covered by the next, so concurrent allocations share the cost of a sync.
+ *
+ * <p>Nonces which were allocated but not confirmed before a restart may never have reached the
+ * node, so an account with any such nonce is not recovered, and is synced with the node again.
+ *
+ * <p>Once the file is nearly full, it is replaced by a snapshot of the current state of each
+ * account. The snapshot is written by the syncing thread, and records appended in the meantime are
+ * carried over to the replacement.
+ */
+public class NonceJournal implements Closeable {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final int DEFAULT_CAPACITY = 1024 * 1024;
+  // Compaction starts once less than this fraction of the journal is free
+  private static final int COMPACTION_DIVISOR = 4;
+  // Record length and checksum, either side of the payload
+  private static final int RECORD_OVERHEAD = Integer.BYTES * 2;
+
+  private static final byte SYNCED = 1;
+  private static final byte ALLOCATED = 2;
+  private static final byte RELEASED = 3;
+  private static final byte CONFIRMED = 4;
+  private static final byte RESYNCED = 5;
+
+  private final Path path;
+  private final Map<String, NonceSequence> sequences = new HashMap<>();
+  private final ExecutorService syncExecutor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("nonce-journal-%d").setDaemon(true).build());
+  private final CRC32 crc = new CRC32();
+  private FileChannel channel;
+  private MappedByteBuffer buffer;
+  private List<Future<Void>> awaitingSync = new ArrayList<>();
+  private boolean syncScheduled;
+  // Records appended once the journal is full, which are written by the pending compaction
+  private final List<byte[]> overflow = new ArrayList<>();
+  private boolean compactionScheduled;
+  private boolean closed;
+
+  private NonceJournal(final Path path) {
+    this.path = path;
+  }
+
+  /** Opens the journal at the path, creating it if it does not exist, and replays its records. */
+  public static NonceJournal open(final Path path) throws IOException {
+    final NonceJournal journal = new NonceJournal(path);
+    journal.map(Math.max(DEFAULT_CAPACITY, path.toFile().length()));
+    journal.replay();
+    journal.discardUnconfirmed();
+    LOG.info("Nonce journal {} holds {} accounts", path, journal.sequences.size());
+    return journal;
+  }
+
+  /** @return a copy of the nonces recorded for the account, if it has been synced with the node */
+  synchronized Optional<NonceSequence> recorded(final String account) {
+    final NonceSequence sequence = sequences.get(account);
+    return sequence == null ? Optional.empty() : Optional.of(new NonceSequence(sequence));
+  }
+
+  /** @return future completed once the record is on disk */
+  public synchronized Future<Void> synced(final String account, final BigInteger nodeNonce) {
+    return append(SYNCED, account, nodeNonce, true);
+  }
+
+  /** @return future completed once the record is on disk */
+  public synchronized Future<Void> allocated(final String account, final BigInteger nonce) {
+    return append(ALLOCATED, account, nonce, true);
+  }
+
+  public synchronized void released(final String account, final BigInteger nonce) {
+    append(RELEASED, account, nonce, false);
+  }
+
+  public synchronized void confirmed(final String account, final BigInteger nonce) {
+    append(CONFIRMED, account, nonce, false);
+  }
+
+  public synchronized void resynced(final String account) {
+    append(RESYNCED, account, BigInteger.ZERO, false);
+  }
+
+  /** Waits for any pending sync or compaction, then forces the journal to disk. */
+  @Override
+  public void close() throws IOException {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+    }
+
+    // The syncing thread needs the lock to finish, so must not be waited on while holding it
+    syncExecutor.shutdown();
+    try {
+      syncExecutor.awaitTermination(1, TimeUnit.MINUTES);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    synchronized (this) {
+      buffer.force();
+      channel.close();
+    }
+  }
+
+  private Future<Void> append(
+      final byte type, final String account, final BigInteger nonce, final boolean awaitSync) {
+    if (closed) {
+      return Future.failedFuture(new IllegalStateException("Nonce journal is closed"));
+    }
+    apply(type, account, nonce);
+    final byte[] payload = payload(type, account, nonce);
+    // Once a record has overflowed, later records must follow it to keep their order
+    if (!overflow.isEmpty() || buffer.remaining() < payload.length + RECORD_OVERHEAD) {
+      overflow.add(payload);
+    } else {
+      write(buffer, payload);
+    }
+
+    if (!compactionScheduled && buffer.remaining() < buffer.capacity() / COMPACTION_DIVISOR) {
+      compactionScheduled = true;
+      syncExecutor.execute(this::compact);
+    }
+
+    if (!awaitSync) {
+      return Future.succeededFuture();
+    }
+    final Future<Void> synced = Future.future();
+    awaitingSync.add(synced);
+    scheduleSync();
+    return synced;
+  }
+
+  private void scheduleSync() {
+    if (!syncScheduled) {
+      syncScheduled = true;
+      syncExecutor.execute(this::sync);
+    }
+  }
+
+  private void sync() {
+    final List<Future<Void>> covered;
+    final MappedByteBuffer mapping;
+    synchronized (this) {
+      syncScheduled = false;
+      if (!overflow.isEmpty()) {
+        // Overflowed records are not in the mapping, the compaction queued ahead syncs them
+        return;
+      }
+      covered = awaitingSync;
+      awaitingSync = new ArrayList<>();
+      mapping = buffer;
+    }
+
+    try {
+      mapping.force();
+    } catch (final RuntimeException e) {
+      // Allocation continues from memory, only recovery after a crash is affected
+      LOG.warn("Failed to sync nonce journal {}", path, e);
+    }
+    covered.forEach(Future::complete);
+  }
+
+  /**
+   * Replaces the journal with the state of each account, followed by the records appended while
+   * the snapshot of that state was being written.
+   */
+  private void compact() {
+    final ByteBuffer snapshot;
+    final int snapshotPosition;
+    final int snapshotOverflow;
+    synchronized (this) {
+      snapshot = snapshot();
+      snapshotPosition = buffer.position();
+      snapshotOverflow = overflow.size();
+    }
+    LOG.debug("Compacting nonce journal {} to {} bytes", path, snapshot.remaining());
+
+    final int snapshotLength = snapshot.remaining();
+    final Path compacted = path.resolveSibling(path.getFileName() + ".compacted");
+    try (final FileChannel compactedChannel =
+        FileChannel.open(
+            compacted,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+      while (snapshot.hasRemaining()) {
+        compactedChannel.write(snapshot);
+      }
+      compactedChannel.force(true);
+    } catch (final IOException e) {
+      LOG.error("Unable to compact nonce journal {}", path, e);
+      synchronized (this) {
+        // Retried on a later append
+        compactionScheduled = false;
+      }
+      return;
+    }
+
+    final MappedByteBuffer mapping;
+    synchronized (this) {
+      final ByteBuffer appended = buffer.duplicate();
+      appended.limit(buffer.position()).position(snapshotPosition);
+      final List<byte[]> overflowed = overflow.subList(snapshotOverflow, overflow.size());
+      final int overflowedLength =
+          overflowed.stream().mapToInt(p -> p.length + RECORD_OVERHEAD).sum();
+      long capacity = buffer.capacity();
+      // Leaves at least half the journal free for appends
+      while (snapshotLength + appended.remaining() + overflowedLength > capacity / 2) {
+        capacity *= 2;
+      }
+
+      try {
+        Files.move(
+            compacted,
+            path,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+        channel.close();
+        map(capacity);
+      } catch (final IOException e) {
+        LOG.error("Unable to replace nonce journal {}", path, e);
+        compactionScheduled = false;
+        return;
+      }
+      buffer.position(snapshotLength);
+      buffer.put(appended);
+      overflowed.forEach(payload -> write(buffer, payload));
+      overflow.clear();
+      compactionScheduled = false;
+      if (!awaitingSync.isEmpty()) {
+        scheduleSync();
+      }
+      mapping = buffer;
+    }
+
+    // Records carried over are only in memory until the new mapping is forced, even if they were
+    // synced to the replaced journal, and the replacement is only durable once its directory is
+    try {
+      mapping.force();
+      syncDirectory();
+    } catch (final IOException | RuntimeException e) {
+      LOG.warn("Failed to sync compacted nonce journal {}", path, e);
+    }
+  }
+
+  private void syncDirectory() throws IOException {
+    try (final FileChannel directory =
+        FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+      directory.force(true);
+    }
+  }
+
+  /** @return future completed once any sync or compaction already scheduled has finished */
+  synchronized Future<Void> pendingWork() {
+    final Future<Void> completed = Future.future();
+    syncExecutor.execute(completed::complete);
+    return completed;
+  }
+
+  private ByteBuffer snapshot() {
+    final List<byte[]> payloads = new ArrayList<>();
+    sequences.forEach(
+        (account, sequence) -> {
+          payloads.add(payload(SYNCED, account, sequence.lowestUnused()));
+          if (sequence.nextNonce().compareTo(sequence.lowestUnused()) > 0) {
+            payloads.add(
+                payload(ALLOCATED, account, sequence.nextNonce().subtract(BigInteger.ONE)));
+          }
+          sequence.released().forEach(nonce -> payloads.add(payload(RELEASED, account, nonce)));
+          sequence.confirmed().forEach(nonce -> payloads.add(payload(CONFIRMED, account, nonce)));
+        });
+
+    final int length = payloads.stream().mapToInt(p -> p.length + RECORD_OVERHEAD).sum();
+    final ByteBuffer snapshot = ByteBuffer.allocate(length);
+    payloads.forEach(payload -> write(snapshot, payload));
+    snapshot.flip();
+    return snapshot;
+  }
+
+  private void map(final long capacity) throws IOException {
+    channel =
+        FileChannel.open(
+            path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    buffer = channel.map(MapMode.READ_WRITE, 0, capacity);
+  }
+
+  private void replay() {
+    while (buffer.remaining() >= RECORD_OVERHEAD) {
+      final int start = buffer.position();
+      final int length = buffer.getInt();
+      if (length <= 0 || length > buffer.remaining() - Integer.BYTES) {
+        buffer.position(start);
+        break;
+      }
+      final byte[] payload = new byte[length];
+      buffer.get(payload);
+      if (buffer.getInt() != checksum(payload)) {
+        LOG.warn("Nonce journal {} ends with an incomplete record at {}", path, start);
+        buffer.position(start);
+        break;
+      }
+      replay(ByteBuffer.wrap(payload));
+    }
+
+    // Anything following the last complete record was never fully written, so is discarded
+    final int end = buffer.position();
+    while (buffer.hasRemaining()) {
+      buffer.put((byte) 0);
+    }
+    buffer.position(end);
+  }
+
+  private void replay(final ByteBuffer payload) {
+    final byte type = payload.get();
+    final byte[] account = new byte[payload.getShort()];
+    payload.get(account);
+    final byte[] nonce = new byte[payload.getShort()];
+    payload.get(nonce);
+    apply(type, new String(account, UTF_8), new BigInteger(nonce));
+  }
+
+  private void discardUnconfirmed() {
+    final int recorded = sequences.size();
+    sequences.values().removeIf(NonceSequence::hasUnconfirmed);
+    if (sequences.size() < recorded) {
+      LOG.info(
+          "{} accounts in nonce journal {} have unconfirmed nonces, so are synced with the node",
+          recorded - sequences.size(),
+          path);
+    }
+  }
+
+  private void apply(final byte type, final String account, final BigInteger nonce) {
+    if (type == SYNCED) {
+      sequences.put(account, new NonceSequence(nonce));
+      return;
+    }
+    if (type == RESYNCED) {
+      sequences.remove(account);
+      return;
+    }
+
+    final NonceSequence sequence = sequences.get(account);
+    if (sequence == null) {
+      return;
+    }
+    switch (type) {
+      case ALLOCATED:
+        sequence.allocated(nonce);
+        break;
+      case RELEASED:
+        sequence.release(nonce);
+        break;
+      case CONFIRMED:
+        sequence.confirm(nonce);
+        break;
+      default:
+        LOG.warn("Unknown record type {} in nonce journal {}", type, path);
+    }
+  }
+
+  private static byte[] payload(final byte type, final String account, final BigInteger nonce) {
+    final byte[] accountBytes = account.getBytes(UTF_8);
+    final byte[] nonceBytes = nonce.toByteArray();
+    return ByteBuffer.allocate(1 + Short.BYTES * 2 + accountBytes.length + nonceBytes.length)
+        .put(type)
+        .putShort((short) accountBytes.length)
+        .put(accountBytes)
+        .putShort((short) nonceBytes.length)
+        .put(nonceBytes)
+        .array();
+  }
+
+  private void write(final ByteBuffer target, final byte[] payload) {
+    target.putInt(payload.length).put(payload).putInt(checksum(payload));
+  }
+
+  private int checksum(final byte[] payload) {
+    crc.reset();
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+}
@@ -14,8 +14,30 @@ package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
 
 import java.math.BigInteger;
 
+import io.vertx.core.Future;
+
 @FunctionalInterface
 public interface NonceProvider {
 
-  BigInteger getNonce();
+  /**
+   * Retrieves the next nonce for the account, without blocking the calling thread.
+   *
+   * @return future completed with the nonce, or failed when it could not be determined.
+   */
+  Future<BigInteger> getNonce();
+
+  /**
+   * Returns a nonce which was provided, but not used as the transaction was not accepted by the
+   * node, so it may be provided again.
+   */
+  default void release(final BigInteger nonce) {}
+
+  /** Records that a nonce which was provided has been accepted by the node. */
+  default void confirm(final BigInteger nonce) {}
+
+  /**
+   * Discards any nonces held locally, as the node has reported the nonce which was provided is not
+   * consistent with its own.
+   */
+  default void resync(final BigInteger rejectedNonce) {}
 }
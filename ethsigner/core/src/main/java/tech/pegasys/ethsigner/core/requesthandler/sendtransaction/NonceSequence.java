@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
+
+import java.math.BigInteger;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * The nonces of an account which have been allocated, and those which are free to be allocated
+ * again. Callers are responsible for synchronisation.
+ *
+ * <p>The node accepts a transaction whose nonce is above that of one still in flight, so a nonce is
+ * only treated as used once it and every lower nonce have been confirmed. Until then, a lower
+ * nonce which fails may still be released and allocated again, rather than leaving a gap.
+ */
+class NonceSequence {
+
+  private final NavigableSet<BigInteger> released = new TreeSet<>();
+  // Nonces accepted by the node above a lower nonce which has not been
+  private final NavigableSet<BigInteger> confirmed = new TreeSet<>();
+  private BigInteger lowestUnused;
+  private BigInteger nextNonce;
+
+  /** @param nodeNonce the next nonce reported by the node, below which all nonces are used */
+  NonceSequence(final BigInteger nodeNonce) {
+    this.lowestUnused = nodeNonce;
+    this.nextNonce = nodeNonce;
+  }
+
+  NonceSequence(final NonceSequence sequence) {
+    this.lowestUnused = sequence.lowestUnused;
+    this.nextNonce = sequence.nextNonce;
+    this.released.addAll(sequence.released);
+    this.confirmed.addAll(sequence.confirmed);
+  }
+
+  /** @return the lowest released nonce, otherwise the next nonce */
+  BigInteger allocate() {
+    if (!released.isEmpty()) {
+      return released.pollFirst();
+    }
+    final BigInteger allocated = nextNonce;
+    nextNonce = nextNonce.add(BigInteger.ONE);
+    return allocated;
+  }
+
+  /** Records a nonce as allocated, without allocating it. */
+  void allocated(final BigInteger nonce) {
+    released.remove(nonce);
+    if (nonce.compareTo(nextNonce) >= 0) {
+      nextNonce = nonce.add(BigInteger.ONE);
+    }
+  }
+
+  /** @return whether the nonce may be allocated again */
+  boolean release(final BigInteger nonce) {
+    // Nonces allocated before the node was last asked may since have been used, so are not reused
+    if (nonce.compareTo(lowestUnused) < 0
+        || nonce.compareTo(nextNonce) >= 0
+        || confirmed.contains(nonce)) {
+      return false;
+    }
+    if (nonce.add(BigInteger.ONE).equals(nextNonce)) {
+      nextNonce = nonce;
+      while (!released.isEmpty() && released.last().add(BigInteger.ONE).equals(nextNonce)) {
+        nextNonce = released.pollLast();
+      }
+    } else {
+      released.add(nonce);
+    }
+    return true;
+  }
+
+  /**
+   * Records a nonce as accepted by the node, which is no longer usable once every lower nonce has
+   * also been accepted.
+   */
+  void confirm(final BigInteger nonce) {
+    if (nonce.compareTo(lowestUnused) < 0) {
+      return;
+    }
+    final BigInteger following = nonce.add(BigInteger.ONE);
+    if (following.compareTo(nextNonce) > 0) {
+      nextNonce = following;
+    }
+    released.remove(nonce);
+    confirmed.add(nonce);
+    while (!confirmed.isEmpty() && confirmed.first().equals(lowestUnused)) {
+      lowestUnused = confirmed.pollFirst().add(BigInteger.ONE);
+    }
+  }
+
+  /** @return whether any nonce has been allocated which the node has not yet accepted */
+  boolean hasUnconfirmed() {
+    return nextNonce.compareTo(lowestUnused) > 0;
+  }
+
+  BigInteger lowestUnused() {
+    return lowestUnused;
+  }
+
+  BigInteger nextNonce() {
+    return nextNonce;
+  }
+
+  NavigableSet<BigInteger> released() {
+    return released;
+  }
+
+  /** @return the nonces accepted by the node above the lowest which has not been */
+  NavigableSet<BigInteger> confirmed() {
+    return confirmed;
+  }
+}
@@ -15,6 +15,7 @@ package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcErrorResponse;
 
+import com.google.common.collect.ImmutableSet;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientResponse;
@@ -26,6 +27,13 @@ public class NonceTooLowRetryMechanism extends RetryMechanism {
 
   private static final Logger LOG = LogManager.getLogger();
 
+  private static final ImmutableSet<JsonRpcError> NONCE_ERRORS =
+      ImmutableSet.of(
+          JsonRpcError.NONCE_TOO_LOW,
+          JsonRpcError.INCORRECT_NONCE,
+          JsonRpcError.PRIVATE_NONCE_TOO_LOW,
+          JsonRpcError.INCORRECT_PRIVATE_NONCE);
+
   public NonceTooLowRetryMechanism(final int maxRetries) {
     super(maxRetries);
   }
@@ -34,14 +42,22 @@ public class NonceTooLowRetryMechanism extends RetryMechanism {
   public boolean responseRequiresRetry(final HttpClientResponse response, final Buffer body) {
     if ((response.statusCode() == HttpResponseStatus.BAD_REQUEST.code())) {
       final JsonRpcErrorResponse errorResponse = specialiseResponse(body);
-      if (errorResponse.getError().equals(JsonRpcError.NONCE_TOO_LOW)) {
-        LOG.info("Nonce too low, resend required for {}.", errorResponse.getId());
+      if (isNonceError(errorResponse.getError())) {
+        LOG.info(
+            "{}, resend required for {}.",
+            errorResponse.getError().getMessage(),
+            errorResponse.getId());
         return true;
       }
     }
     return false;
   }
 
+  /** @return whether the node rejected a transaction because of its nonce */
+  public static boolean isNonceError(final JsonRpcError error) {
+    return NONCE_ERRORS.contains(error);
+  }
+
   private JsonRpcErrorResponse specialiseResponse(final Buffer body) {
     final JsonObject jsonBody = new JsonObject(body);
     return jsonBody.mapTo(JsonRpcErrorResponse.class);
@@ -16,6 +16,7 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INTERNAL_ERROR;
 
 import tech.pegasys.ethsigner.core.jsonrpc.exception.JsonRpcException;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitterFactory;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
 import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
@@ -28,7 +29,9 @@ import io.vertx.ext.web.RoutingContext;
 
 public class RetryingTransactionTransmitter extends TransactionTransmitter {
 
+  private final Transaction transaction;
   private final RetryMechanism retryMechanism;
+  private final EthSignerMetrics metrics;
 
   public RetryingTransactionTransmitter(
       final HttpClient ethNodeClient,
@@ -36,11 +39,19 @@ public class RetryingTransactionTransmitter extends TransactionTransmitter {
       final TransactionSerialiser transactionSerialiser,
       final VertxRequestTransmitterFactory vertxTransmitterFactory,
       final RetryMechanism retryMechanism,
-      final RoutingContext routingContext) {
+      final RoutingContext routingContext,
+      final EthSignerMetrics metrics) {
     super(
-        ethNodeClient, transaction, transactionSerialiser, vertxTransmitterFactory, routingContext);
+        ethNodeClient,
+        transaction,
+        transactionSerialiser,
+        vertxTransmitterFactory,
+        routingContext,
+        metrics);
 
+    this.transaction = transaction;
     this.retryMechanism = retryMechanism;
+    this.metrics = metrics;
   }
 
   @Override
@@ -48,10 +59,14 @@ public class RetryingTransactionTransmitter extends TransactionTransmitter {
       final RoutingContext context, final HttpClientResponse response, final Buffer body) {
     if (response.statusCode() != HttpResponseStatus.OK.code()
         && retryMechanism.responseRequiresRetry(response, body)) {
+      // Nonces held locally are inconsistent with the node, any retry uses the node's nonce
+      transaction.resyncNonce();
       if (retryMechanism.retriesAvailable()) {
         retryMechanism.incrementRetries();
+        metrics.incrementNonceRetries();
         send();
       } else {
+        metrics.incrementNonceRetriesExhausted();
         context.fail(BAD_REQUEST.code(), new JsonRpcException(INTERNAL_ERROR));
       }
       return;
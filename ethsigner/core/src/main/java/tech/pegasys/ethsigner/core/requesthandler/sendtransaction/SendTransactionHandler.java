@@ -18,11 +18,14 @@ import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.SIGNING_
 
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
 import tech.pegasys.ethsigner.core.jsonrpc.exception.JsonRpcException;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.JsonRpcRequestHandler;
 import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitterFactory;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.TransactionFactory;
 import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
+import tech.pegasys.ethsigner.core.tracing.RequestTrace;
+import tech.pegasys.ethsigner.core.tracing.Span;
 
 import io.vertx.core.http.HttpClient;
 import io.vertx.ext.web.RoutingContext;
@@ -37,6 +40,7 @@ public class SendTransactionHandler implements JsonRpcRequestHandler {
   private final TransactionSerialiser serialiser;
   private final TransactionFactory transactionFactory;
   private final VertxRequestTransmitterFactory vertxTransmitterFactory;
+  private final EthSignerMetrics metrics;
 
   private static final int MAX_RETRIES_NONCE_RETRIES = 5;
 
@@ -44,34 +48,37 @@ public class SendTransactionHandler implements JsonRpcRequestHandler {
       final HttpClient ethNodeClient,
       final TransactionSerialiser serialiser,
       final TransactionFactory transactionFactory,
-      final VertxRequestTransmitterFactory vertxTransmitterFactory) {
+      final VertxRequestTransmitterFactory vertxTransmitterFactory,
+      final EthSignerMetrics metrics) {
     this.ethNodeClient = ethNodeClient;
     this.serialiser = serialiser;
     this.transactionFactory = transactionFactory;
     this.vertxTransmitterFactory = vertxTransmitterFactory;
+    this.metrics = metrics;
   }
 
   @Override
   public void handle(final RoutingContext context, final JsonRpcRequest request) {
     LOG.debug("Transforming request {}, {}", request.getId(), request.getMethod());
+    final Span creation = RequestTrace.of(context).startSpan("createTransaction");
     final Transaction transaction;
     try {
       transaction = transactionFactory.createTransaction(request);
+      creation.end();
     } catch (final NumberFormatException e) {
+      creation.fail(e);
       LOG.debug("Parsing values failed for request: {}", request.getParams(), e);
       context.fail(BAD_REQUEST.code(), new JsonRpcException(INVALID_PARAMS));
       return;
     } catch (final IllegalArgumentException e) {
+      creation.fail(e);
       LOG.debug("JSON Deserialisation failed for request: {}", request.getParams(), e);
       context.fail(BAD_REQUEST.code(), new JsonRpcException(INVALID_PARAMS));
       return;
     }
 
     if (senderNotUnlockedAccount(transaction)) {
-      LOG.info(
-          "From address ({}) does not match unlocked account ({})",
-          transaction.sender(),
-          serialiser.getAddress());
+      LOG.info("From address ({}) is not an unlocked account", transaction.sender());
       context.fail(
           BAD_REQUEST.code(), new JsonRpcException(SIGNING_FROM_IS_NOT_AN_UNLOCKED_ACCOUNT));
       return;
@@ -102,15 +109,16 @@ public class SendTransactionHandler implements JsonRpcRequestHandler {
           serialiser,
           vertxTransmitterFactory,
           new NonceTooLowRetryMechanism(MAX_RETRIES_NONCE_RETRIES),
-          routingContext);
+          routingContext,
+          metrics);
     } else {
       LOG.debug("Nonce supplied by client, forwarding request");
       return new TransactionTransmitter(
-          ethNodeClient, transaction, serialiser, vertxTransmitterFactory, routingContext);
+          ethNodeClient, transaction, serialiser, vertxTransmitterFactory, routingContext, metrics);
     }
   }
 
   private boolean senderNotUnlockedAccount(final Transaction transaction) {
-    return !transaction.sender().equalsIgnoreCase(serialiser.getAddress());
+    return !serialiser.isUnlockedAccount(transaction.sender());
   }
 }
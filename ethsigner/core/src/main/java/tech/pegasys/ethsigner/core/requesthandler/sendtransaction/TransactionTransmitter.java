@@ -16,24 +16,31 @@ import static io.netty.handler.codec.http.HttpResponseStatus.BAD_REQUEST;
 import static io.netty.handler.codec.http.HttpResponseStatus.GATEWAY_TIMEOUT;
 import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT;
 import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INTERNAL_ERROR;
+import static tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError.INVALID_PARAMS;
 
-import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
 import tech.pegasys.ethsigner.core.jsonrpc.exception.JsonRpcException;
 import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcError;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitter;
 import tech.pegasys.ethsigner.core.requesthandler.VertxRequestTransmitterFactory;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
 import tech.pegasys.ethsigner.core.signing.TransactionSerialiser;
+import tech.pegasys.ethsigner.core.tracing.RequestTrace;
+import tech.pegasys.ethsigner.core.tracing.Span;
 
+import java.net.ConnectException;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeoutException;
 
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.http.HttpServerRequest;
-import io.vertx.core.json.Json;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -47,71 +54,133 @@ public class TransactionTransmitter {
   private final Transaction transaction;
   private final VertxRequestTransmitter transmitter;
   private final RoutingContext routingContext;
+  private final EthSignerMetrics metrics;
 
   public TransactionTransmitter(
       final HttpClient ethNodeClient,
       final Transaction transaction,
       final TransactionSerialiser transactionSerialiser,
       final VertxRequestTransmitterFactory vertxTransmitterFactory,
-      final RoutingContext routingContext) {
+      final RoutingContext routingContext,
+      final EthSignerMetrics metrics) {
     this.transmitter = vertxTransmitterFactory.create(this::handleResponseBody);
     this.ethNodeClient = ethNodeClient;
     this.transaction = transaction;
     this.transactionSerialiser = transactionSerialiser;
     this.routingContext = routingContext;
+    this.metrics = metrics;
   }
 
   public void send() {
-    createSignedTransactionBody();
+    final Context context = routingContext.vertx().getOrCreateContext();
+    final RequestTrace trace = RequestTrace.of(routingContext);
+    final long nonceLookupStart = System.nanoTime();
+    final Span nonceLookup =
+        transaction.isNonceUserSpecified() ? Span.NOT_SAMPLED : trace.startSpan("nonceLookup");
+    final Future<Void> nonceUpdate =
+        transaction.isNonceUserSpecified() ? Future.succeededFuture() : transaction.updateNonce();
+
+    // The nonce may be supplied on a non Vert.x thread, so resume on the request's context
+    nonceUpdate.setHandler(
+        result ->
+            context.runOnContext(
+                v -> {
+                  if (result.succeeded()) {
+                    if (!transaction.isNonceUserSpecified()) {
+                      metrics.observeNonceLookup(nonceLookupStart);
+                    }
+                    nonceLookup.end();
+                    signTransaction(context, trace);
+                  } else {
+                    nonceLookup.fail(result.cause());
+                    handleNonceFailure(result.cause());
+                  }
+                }));
+  }
+
+  private void signTransaction(final Context context, final RequestTrace trace) {
+    transactionSerialiser
+        .serialise(context, transaction, trace)
+        .setHandler(
+            result -> {
+              if (result.succeeded()) {
+                sendSignedTransaction(result.result());
+              } else {
+                handleSigningFailure(result.cause());
+              }
+            });
+  }
+
+  private void handleNonceFailure(final Throwable thrown) {
+    LOG.info("Unable to get nonce from web3j provider.");
+    routingContext.fail(GATEWAY_TIMEOUT.code(), new JsonRpcException(nonceFailureError(thrown)));
+  }
+
+  private void handleSigningFailure(final Throwable thrown) {
+    LOG.debug("Failed to encode/serialise transaction: {}", transaction, thrown);
+    transaction.releaseNonce();
+    routingContext.fail(BAD_REQUEST.code(), new JsonRpcException(signingFailureError(thrown)));
   }
 
-  private void createSignedTransactionBody() {
-    final String signedTransactionHexString;
-    try {
-      if (!transaction.isNonceUserSpecified()) {
-        transaction.updateNonce();
-      }
-
-      signedTransactionHexString = transactionSerialiser.serialise(transaction);
-    } catch (final IllegalArgumentException e) {
-      LOG.debug("Failed to encode transaction: {}", transaction, e);
-      routingContext.fail(BAD_REQUEST.code(), new JsonRpcException(JsonRpcError.INVALID_PARAMS));
-      return;
-    } catch (final RuntimeException e) {
-      LOG.info("Unable to get nonce from web3j provider.");
-      final Throwable cause = e.getCause();
-      if (cause instanceof SocketException || cause instanceof SocketTimeoutException) {
-        routingContext.fail(
-            GATEWAY_TIMEOUT.code(), new JsonRpcException(CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT));
-      } else {
-        routingContext.fail(GATEWAY_TIMEOUT.code(), new JsonRpcException(INTERNAL_ERROR));
-      }
-      return;
-    } catch (final Throwable thrown) {
-      LOG.debug("Failed to encode/serialise transaction: {}", transaction, thrown);
-      routingContext.fail(BAD_REQUEST.code(), new JsonRpcException(INTERNAL_ERROR));
-      return;
+  /** @return the error reported to the client when the nonce could not be retrieved */
+  public static JsonRpcError nonceFailureError(final Throwable thrown) {
+    final Throwable cause = thrown.getCause();
+    if (cause instanceof SocketException
+        || cause instanceof SocketTimeoutException
+        || cause instanceof TimeoutException) {
+      return CONNECTION_TO_DOWNSTREAM_NODE_TIMED_OUT;
     }
+    return INTERNAL_ERROR;
+  }
 
-    final JsonRpcRequest rawTransaction =
-        transaction.jsonRpcRequest(signedTransactionHexString, transaction.getId());
-    try {
-      sendTransaction(Json.encodeToBuffer(rawTransaction));
-    } catch (final IllegalArgumentException e) {
-      LOG.debug("JSON Serialisation failed for: {}", rawTransaction, e);
-      routingContext.fail(BAD_REQUEST.code(), new JsonRpcException(INTERNAL_ERROR));
+  /** @return the error reported to the client when the transaction could not be signed */
+  public static JsonRpcError signingFailureError(final Throwable thrown) {
+    if (thrown instanceof IllegalArgumentException) {
+      return INVALID_PARAMS;
     }
+    return INTERNAL_ERROR;
+  }
+
+  private void sendSignedTransaction(final byte[] signedTransaction) {
+    sendTransaction(transaction.jsonRpcRequestBody(signedTransaction, transaction.getId()));
   }
 
   private void sendTransaction(final Buffer bodyContent) {
+    final long start = System.nanoTime();
     final HttpClientRequest request =
-        ethNodeClient.post("/", response -> transmitter.handleResponse(routingContext, response));
+        ethNodeClient.post(
+            "/",
+            response -> {
+              metrics.observeDownstreamResponse(response.statusCode(), start);
+              transmitter.handleResponse(routingContext, response);
+            });
 
-    transmitter.sendRequest(request, bodyContent, routingContext);
+    transmitter.sendRequest(
+        request,
+        bodyContent,
+        routingContext,
+        transaction.method(),
+        thrown -> handleSendFailure(thrown, start));
+  }
+
+  private void handleSendFailure(final Throwable thrown, final long start) {
+    metrics.observeDownstreamFailure(start);
+    if (thrown instanceof ConnectException) {
+      // The transaction never reached the node
+      transaction.releaseNonce();
+    } else {
+      // The node may, or may not, have received the transaction
+      transaction.resyncNonce();
+    }
   }
 
   protected void handleResponseBody(
       final RoutingContext context, final HttpClientResponse response, final Buffer body) {
+    if (response.statusCode() == HttpResponseStatus.OK.code()) {
+      transaction.confirmNonce();
+    } else {
+      transaction.releaseNonce();
+    }
     final HttpServerRequest httpServerRequest = context.request();
     httpServerRequest.response().setStatusCode(response.statusCode());
     httpServerRequest.response().headers().setAll(response.headers());
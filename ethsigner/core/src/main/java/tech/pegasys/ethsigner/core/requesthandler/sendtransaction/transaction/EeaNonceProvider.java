@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
+
+import static java.util.Arrays.asList;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcClient;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceProvider;
+
+import java.math.BigInteger;
+
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class EeaNonceProvider implements NonceProvider {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final String METHOD = "eea_getTransactionCount";
+
+  private final JsonRpcClient client;
+  private final String accountAddress;
+  private final String privacyGroupId;
+
+  EeaNonceProvider(
+      final JsonRpcClient client, final String accountAddress, final String privacyGroupId) {
+    this.client = client;
+    this.accountAddress = accountAddress;
+    this.privacyGroupId = privacyGroupId;
+  }
+
+  @Override
+  public Future<BigInteger> getNonce() {
+    LOG.debug(
+        "Retrieving Transaction count from Ethereum node for {} with privacy group id {}",
+        accountAddress,
+        privacyGroupId);
+    final Object event = EthNonceProvider.NONCE_LOOKUP_EVENT.begin();
+    final Future<String> response =
+        client.request(METHOD, asList(accountAddress, privacyGroupId), String.class);
+    return EthNonceProvider.transactionCount(response, accountAddress, METHOD, event);
+  }
+}
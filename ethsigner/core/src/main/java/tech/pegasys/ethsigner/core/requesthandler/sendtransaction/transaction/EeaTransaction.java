@@ -13,27 +13,26 @@
 package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
 
 import tech.pegasys.ethsigner.core.jsonrpc.EeaSendTransactionJsonParameters;
-import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
+import tech.pegasys.ethsigner.core.jsonrpc.RawTransactionRequestWriter;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceProvider;
 
 import java.math.BigInteger;
-import java.util.List;
 
 import com.google.common.base.MoreObjects;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import org.web3j.crypto.Sign.SignatureData;
-import org.web3j.protocol.eea.crypto.PrivateTransactionEncoder;
-import org.web3j.protocol.eea.crypto.RawPrivateTransaction;
-import org.web3j.rlp.RlpEncoder;
-import org.web3j.rlp.RlpList;
-import org.web3j.rlp.RlpType;
 
 public class EeaTransaction implements Transaction {
-  private static final String JSON_RPC_METHOD = "eea_sendRawTransaction";
+  private static final RawTransactionRequestWriter REQUEST_WRITER =
+      new RawTransactionRequestWriter("eea_sendRawTransaction");
   private final EeaSendTransactionJsonParameters transactionJsonParameters;
   private final JsonRpcRequestId id;
   private final NonceProvider nonceProvider;
   private BigInteger nonce;
+  // The encoding of the fields other than the signature, which is discarded with the nonce
+  private TransactionRlpEncoder encoder;
 
   EeaTransaction(
       final EeaSendTransactionJsonParameters transactionJsonParameters,
@@ -46,17 +45,46 @@ public class EeaTransaction implements Transaction {
   }
 
   @Override
-  public void updateNonce() {
-    this.nonce = nonceProvider.getNonce();
+  public Future<Void> updateNonce() {
+    return nonceProvider
+        .getNonce()
+        .map(
+            providedNonce -> {
+              this.nonce = providedNonce;
+              this.encoder = null;
+              return null;
+            });
+  }
+
+  @Override
+  public void releaseNonce() {
+    if (!isNonceUserSpecified() && nonce != null) {
+      nonceProvider.release(nonce);
+      nonce = null;
+      encoder = null;
+    }
+  }
+
+  @Override
+  public void confirmNonce() {
+    if (!isNonceUserSpecified() && nonce != null) {
+      nonceProvider.confirm(nonce);
+    }
+  }
+
+  @Override
+  public void resyncNonce() {
+    if (!isNonceUserSpecified() && nonce != null) {
+      nonceProvider.resync(nonce);
+    }
   }
 
   @Override
   public byte[] rlpEncode(final SignatureData signatureData) {
-    final RawPrivateTransaction rawTransaction = createTransaction();
-    final List<RlpType> values =
-        PrivateTransactionEncoder.asRlpValues(rawTransaction, signatureData);
-    final RlpList rlpList = new RlpList(values);
-    return RlpEncoder.encode(rlpList);
+    if (encoder == null) {
+      encoder = createEncoder();
+    }
+    return encoder.encode(signatureData);
   }
 
   @Override
@@ -70,9 +98,13 @@ public class EeaTransaction implements Transaction {
   }
 
   @Override
-  public JsonRpcRequest jsonRpcRequest(
-      final String signedTransactionHexString, final JsonRpcRequestId id) {
-    return Transaction.jsonRpcRequest(signedTransactionHexString, id, JSON_RPC_METHOD);
+  public String method() {
+    return "eea_sendTransaction";
+  }
+
+  @Override
+  public Buffer jsonRpcRequestBody(final byte[] signedTransaction, final JsonRpcRequestId id) {
+    return REQUEST_WRITER.write(signedTransaction, id);
   }
 
   @Override
@@ -90,8 +122,8 @@ public class EeaTransaction implements Transaction {
         .toString();
   }
 
-  private RawPrivateTransaction createTransaction() {
-    return RawPrivateTransaction.createTransaction(
+  private TransactionRlpEncoder createEncoder() {
+    return TransactionRlpEncoder.createPrivate(
         nonce,
         transactionJsonParameters.gasPrice().orElse(DEFAULT_GAS_PRICE),
         transactionJsonParameters.gas().orElse(DEFAULT_GAS),
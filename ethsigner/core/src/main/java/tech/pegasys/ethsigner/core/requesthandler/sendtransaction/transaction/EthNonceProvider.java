@@ -0,0 +1,82 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
+
+import static java.util.Arrays.asList;
+
+import tech.pegasys.ethsigner.core.jfr.FlightRecorderEvent;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcClient;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceProvider;
+
+import java.math.BigInteger;
+
+import io.vertx.core.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.web3j.utils.Numeric;
+
+public class EthNonceProvider implements NonceProvider {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  static final FlightRecorderEvent NONCE_LOOKUP_EVENT =
+      FlightRecorderEvent.define(
+          "tech.pegasys.ethsigner.NonceLookup", "Nonce Lookup", "method", "sender");
+  private static final String METHOD = "eth_getTransactionCount";
+
+  private final JsonRpcClient client;
+  private final String accountAddress;
+
+  public EthNonceProvider(final JsonRpcClient client, final String accountAddress) {
+    this.client = client;
+    this.accountAddress = accountAddress;
+  }
+
+  @Override
+  public Future<BigInteger> getNonce() {
+    LOG.debug("Retrieving Transaction count from Ethereum node for {}.", accountAddress);
+    final Object event = NONCE_LOOKUP_EVENT.begin();
+    final Future<String> response =
+        client.request(METHOD, asList(accountAddress, "pending"), String.class);
+    return transactionCount(response, accountAddress, METHOD, event);
+  }
+
+  /** @param event the flight recorder event of the lookup, committed once it completes */
+  static Future<BigInteger> transactionCount(
+      final Future<String> response,
+      final String accountAddress,
+      final String method,
+      final Object event) {
+    final Future<BigInteger> nonce = Future.future();
+    response.setHandler(
+        result -> {
+          NONCE_LOOKUP_EVENT.commit(event, method, accountAddress);
+          if (result.failed()) {
+            LOG.info("Failed to determine nonce from downstream handler.", result.cause());
+            nonce.fail(
+                new RuntimeException(
+                    "Unable to determine nonce from Ethereum node.", result.cause()));
+            return;
+          }
+          try {
+            final BigInteger transactionCount = Numeric.decodeQuantity(result.result());
+            LOG.trace("Reported transaction count for {} is {}", accountAddress, transactionCount);
+            nonce.complete(transactionCount);
+          } catch (final RuntimeException e) {
+            LOG.info("Invalid transaction count received from downstream handler.", e);
+            nonce.fail(e);
+          }
+        });
+    return nonce;
+  }
+}
@@ -13,28 +13,27 @@
 package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
 
 import tech.pegasys.ethsigner.core.jsonrpc.EthSendTransactionJsonParameters;
-import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
+import tech.pegasys.ethsigner.core.jsonrpc.RawTransactionRequestWriter;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceProvider;
 
 import java.math.BigInteger;
-import java.util.List;
 
 import com.google.common.base.MoreObjects;
-import org.web3j.crypto.RawTransaction;
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import org.web3j.crypto.Sign.SignatureData;
-import org.web3j.crypto.TransactionEncoder;
-import org.web3j.rlp.RlpEncoder;
-import org.web3j.rlp.RlpList;
-import org.web3j.rlp.RlpType;
 
 public class EthTransaction implements Transaction {
 
-  private static final String JSON_RPC_METHOD = "eth_sendRawTransaction";
+  private static final RawTransactionRequestWriter REQUEST_WRITER =
+      new RawTransactionRequestWriter("eth_sendRawTransaction");
   private final EthSendTransactionJsonParameters transactionJsonParameters;
   private final NonceProvider nonceProvider;
   private final JsonRpcRequestId id;
   private BigInteger nonce;
+  // The encoding of the fields other than the signature, which is discarded with the nonce
+  private TransactionRlpEncoder encoder;
 
   EthTransaction(
       final EthSendTransactionJsonParameters transactionJsonParameters,
@@ -47,16 +46,46 @@ public class EthTransaction implements Transaction {
   }
 
   @Override
-  public void updateNonce() {
-    this.nonce = nonceProvider.getNonce();
+  public Future<Void> updateNonce() {
+    return nonceProvider
+        .getNonce()
+        .map(
+            providedNonce -> {
+              this.nonce = providedNonce;
+              this.encoder = null;
+              return null;
+            });
+  }
+
+  @Override
+  public void releaseNonce() {
+    if (!isNonceUserSpecified() && nonce != null) {
+      nonceProvider.release(nonce);
+      nonce = null;
+      encoder = null;
+    }
+  }
+
+  @Override
+  public void confirmNonce() {
+    if (!isNonceUserSpecified() && nonce != null) {
+      nonceProvider.confirm(nonce);
+    }
+  }
+
+  @Override
+  public void resyncNonce() {
+    if (!isNonceUserSpecified() && nonce != null) {
+      nonceProvider.resync(nonce);
+    }
   }
 
   @Override
   public byte[] rlpEncode(final SignatureData signatureData) {
-    final RawTransaction rawTransaction = createTransaction();
-    final List<RlpType> values = TransactionEncoder.asRlpValues(rawTransaction, signatureData);
-    final RlpList rlpList = new RlpList(values);
-    return RlpEncoder.encode(rlpList);
+    if (encoder == null) {
+      encoder = createEncoder();
+    }
+    return encoder.encode(signatureData);
   }
 
   @Override
@@ -70,9 +99,13 @@ public class EthTransaction implements Transaction {
   }
 
   @Override
-  public JsonRpcRequest jsonRpcRequest(
-      final String signedTransactionHexString, final JsonRpcRequestId id) {
-    return Transaction.jsonRpcRequest(signedTransactionHexString, id, JSON_RPC_METHOD);
+  public String method() {
+    return "eth_sendTransaction";
+  }
+
+  @Override
+  public Buffer jsonRpcRequestBody(final byte[] signedTransaction, final JsonRpcRequestId id) {
+    return REQUEST_WRITER.write(signedTransaction, id);
   }
 
   @Override
@@ -90,8 +123,8 @@ public class EthTransaction implements Transaction {
         .toString();
   }
 
-  private RawTransaction createTransaction() {
-    return RawTransaction.createTransaction(
+  private TransactionRlpEncoder createEncoder() {
+    return TransactionRlpEncoder.create(
         nonce,
         transactionJsonParameters.gasPrice().orElse(DEFAULT_GAS_PRICE),
         transactionJsonParameters.gas().orElse(DEFAULT_GAS),
@@ -12,15 +12,13 @@
  */
 package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
 
-import static java.util.Collections.singletonList;
-import static tech.pegasys.ethsigner.core.jsonrpc.RpcUtil.JSON_RPC_VERSION;
-
-import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
 
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
 import org.web3j.crypto.Sign.SignatureData;
 
 public interface Transaction {
@@ -30,7 +28,16 @@ public interface Transaction {
   String DEFAULT_DATA = "";
   String DEFAULT_TO = "";
 
-  void updateNonce();
+  Future<Void> updateNonce();
+
+  /** Returns a provided nonce for reuse, as the transaction was not accepted by the node. */
+  void releaseNonce();
+
+  /** Records that the transaction, and so its nonce, was accepted by the node. */
+  void confirmNonce();
+
+  /** Discards any nonces held locally, as the node reported the nonce was incorrect. */
+  void resyncNonce();
 
   byte[] rlpEncode(SignatureData signatureData);
 
@@ -44,7 +51,11 @@ public interface Transaction {
 
   String sender();
 
-  JsonRpcRequest jsonRpcRequest(String signedTransactionHexString, JsonRpcRequestId id);
+  /** @return the JSON-RPC method with which the transaction was submitted */
+  String method();
+
+  /** @return the body of the request which sends the signed transaction to the node */
+  Buffer jsonRpcRequestBody(byte[] signedTransaction, JsonRpcRequestId id);
 
   // NOTE: This was taken from Web3j TransactionEncode as the function is private
   static byte[] longToBytes(final long x) {
@@ -53,13 +64,5 @@ public interface Transaction {
     return buffer.array();
   }
 
-  static JsonRpcRequest jsonRpcRequest(
-      final String signedTransactionHexString, final JsonRpcRequestId id, final String rpcMethod) {
-    final JsonRpcRequest transaction = new JsonRpcRequest(JSON_RPC_VERSION, rpcMethod);
-    transaction.setParams(singletonList(signedTransactionHexString));
-    transaction.setId(id);
-    return transaction;
-  }
-
   JsonRpcRequestId getId();
 }
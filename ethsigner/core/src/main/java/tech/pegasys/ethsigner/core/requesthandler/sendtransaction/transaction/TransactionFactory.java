@@ -16,20 +16,19 @@ import static tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transac
 
 import tech.pegasys.ethsigner.core.jsonrpc.EeaSendTransactionJsonParameters;
 import tech.pegasys.ethsigner.core.jsonrpc.EthSendTransactionJsonParameters;
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcClient;
 import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequest;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceAllocator;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.NonceProvider;
 
-import org.web3j.protocol.Web3j;
-import org.web3j.protocol.eea.Eea;
-
 public class TransactionFactory {
 
-  private final Eea eea;
-  private final Web3j web3j;
+  private final JsonRpcClient client;
+  private final NonceAllocator nonceAllocator;
 
-  public TransactionFactory(final Eea eea, final Web3j web3j) {
-    this.eea = eea;
-    this.web3j = web3j;
+  public TransactionFactory(final JsonRpcClient client, final NonceAllocator nonceAllocator) {
+    this.client = client;
+    this.nonceAllocator = nonceAllocator;
   }
 
   public Transaction createTransaction(final JsonRpcRequest request) {
@@ -48,13 +47,17 @@ public class TransactionFactory {
     final EeaSendTransactionJsonParameters params = EeaSendTransactionJsonParameters.from(request);
     final String privacyGroupId = generatePrivacyGroupId(params.privateFrom(), params.privateFor());
     final NonceProvider nonceProvider =
-        new EeaWeb3jNonceProvider(eea, params.sender(), privacyGroupId);
+        nonceAllocator.nonceProvider(
+            params.sender().toLowerCase() + ":" + privacyGroupId,
+            () -> new EeaNonceProvider(client, params.sender(), privacyGroupId));
     return new EeaTransaction(params, nonceProvider, request.getId());
   }
 
   private Transaction createEthTransaction(final JsonRpcRequest request) {
     final EthSendTransactionJsonParameters params = EthSendTransactionJsonParameters.from(request);
-    final NonceProvider ethNonceProvider = new EthWeb3jNonceProvider(web3j, params.sender());
+    final NonceProvider ethNonceProvider =
+        nonceAllocator.nonceProvider(
+            params.sender().toLowerCase(), () -> new EthNonceProvider(client, params.sender()));
     return new EthTransaction(params, ethNonceProvider, request.getId());
   }
 }
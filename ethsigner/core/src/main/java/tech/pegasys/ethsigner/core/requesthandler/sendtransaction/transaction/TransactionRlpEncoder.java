@@ -0,0 +1,296 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.web3j.crypto.Sign.SignatureData;
+
+/**
+ * Encodes a transaction as RLP, writing its fields directly into a single array which is sized up
+ * front, rather than building a list of web3j RlpTypes which is then encoded.
+ *
+ * <p>A transaction is encoded twice when it is signed, once to produce the hash to be signed and
+ * again with the signature. Only the signature differs between the two, so the fields either side
+ * of it are encoded once, when the encoder is created, and copied into each encoding.
+ *
+ * <p>The output is byte for byte that of web3j's TransactionEncoder and PrivateTransactionEncoder.
+ */
+class TransactionRlpEncoder {
+
+  private static final int SHORT_LENGTH_LIMIT = 55;
+  private static final int STRING_OFFSET = 0x80;
+  private static final int LONG_STRING_OFFSET = 0xb7;
+  private static final int LIST_OFFSET = 0xc0;
+  private static final int LONG_LIST_OFFSET = 0xf7;
+  private static final byte[] NO_FIELDS = new byte[0];
+
+  private final byte[] leadingFields;
+  private final byte[] trailingFields;
+
+  private TransactionRlpEncoder(final byte[] leadingFields, final byte[] trailingFields) {
+    this.leadingFields = leadingFields;
+    this.trailingFields = trailingFields;
+  }
+
+  static TransactionRlpEncoder create(
+      final BigInteger nonce,
+      final BigInteger gasPrice,
+      final BigInteger gas,
+      final String to,
+      final BigInteger value,
+      final String data) {
+    return new TransactionRlpEncoder(
+        leadingFields(nonce, gasPrice, gas, to, value, data), NO_FIELDS);
+  }
+
+  static TransactionRlpEncoder createPrivate(
+      final BigInteger nonce,
+      final BigInteger gasPrice,
+      final BigInteger gas,
+      final String to,
+      final String data,
+      final String privateFrom,
+      final List<String> privateFor,
+      final String restriction) {
+    final byte[] privateFromBytes = privateFrom.getBytes(UTF_8);
+    final byte[] restrictionBytes = restriction.getBytes(UTF_8);
+    final byte[][] privateForBytes = new byte[privateFor.size()][];
+    int privateForLength = 0;
+    for (int i = 0; i < privateForBytes.length; i++) {
+      privateForBytes[i] = privateFor.get(i).getBytes(UTF_8);
+      privateForLength += bytesLength(privateForBytes[i]);
+    }
+
+    final Writer writer =
+        new Writer(
+            bytesLength(privateFromBytes)
+                + listLength(privateForLength)
+                + bytesLength(restrictionBytes));
+    writer.writeBytes(privateFromBytes);
+    writer.writeListHeader(privateForLength);
+    for (final byte[] participant : privateForBytes) {
+      writer.writeBytes(participant);
+    }
+    writer.writeBytes(restrictionBytes);
+
+    return new TransactionRlpEncoder(
+        leadingFields(nonce, gasPrice, gas, to, BigInteger.ZERO, data), writer.bytes());
+  }
+
+  /** @return the transaction encoded as an RLP list, with the signature between its fields */
+  byte[] encode(final SignatureData signatureData) {
+    final byte[] v = trimLeadingZeroes(signatureData.getV());
+    final byte[] r = trimLeadingZeroes(signatureData.getR());
+    final byte[] s = trimLeadingZeroes(signatureData.getS());
+    final int payloadLength =
+        leadingFields.length
+            + bytesLength(v)
+            + bytesLength(r)
+            + bytesLength(s)
+            + trailingFields.length;
+
+    final Writer writer = new Writer(listLength(payloadLength));
+    writer.writeListHeader(payloadLength);
+    writer.writeEncoded(leadingFields);
+    writer.writeBytes(v);
+    writer.writeBytes(r);
+    writer.writeBytes(s);
+    writer.writeEncoded(trailingFields);
+    return writer.bytes();
+  }
+
+  private static byte[] leadingFields(
+      final BigInteger nonce,
+      final BigInteger gasPrice,
+      final BigInteger gas,
+      final String to,
+      final BigInteger value,
+      final String data) {
+    final String receiver = to == null ? "" : to;
+    final Writer writer =
+        new Writer(
+            quantityLength(nonce)
+                + quantityLength(gasPrice)
+                + quantityLength(gas)
+                + hexLength(receiver)
+                + quantityLength(value)
+                + hexLength(data));
+    writer.writeQuantity(nonce);
+    writer.writeQuantity(gasPrice);
+    writer.writeQuantity(gas);
+    writer.writeHex(receiver);
+    writer.writeQuantity(value);
+    writer.writeHex(data);
+    return writer.bytes();
+  }
+
+  private static int quantityLength(final BigInteger quantity) {
+    final int length = quantityByteCount(quantity);
+    return stringLength(length, length == 1 ? quantity.intValue() : 0);
+  }
+
+  private static int hexLength(final String hex) {
+    final int start = hexStart(hex);
+    final int length = (hex.length() - start + 1) / 2;
+    return stringLength(length, length == 1 ? hexByte(hex, start, 0) : 0);
+  }
+
+  private static int bytesLength(final byte[] bytes) {
+    return stringLength(bytes.length, bytes.length == 1 ? bytes[0] & 0xff : 0);
+  }
+
+  /** @return the encoded length of a string, whose first byte is only relevant if it is alone */
+  private static int stringLength(final int length, final int firstByte) {
+    if (length == 1 && firstByte < STRING_OFFSET) {
+      return 1;
+    }
+    return headerLength(length) + length;
+  }
+
+  private static int listLength(final int payloadLength) {
+    return headerLength(payloadLength) + payloadLength;
+  }
+
+  private static int headerLength(final int length) {
+    return length <= SHORT_LENGTH_LIMIT ? 1 : 1 + lengthByteCount(length);
+  }
+
+  private static int lengthByteCount(final int length) {
+    return (Integer.SIZE - Integer.numberOfLeadingZeros(length) + 7) / 8;
+  }
+
+  /** Quantities which are zero or negative are encoded as the empty string, as in web3j. */
+  private static int quantityByteCount(final BigInteger quantity) {
+    return quantity.signum() < 1 ? 0 : (quantity.bitLength() + 7) / 8;
+  }
+
+  private static int hexStart(final String hex) {
+    return hex.length() > 1 && hex.charAt(0) == '0' && hex.charAt(1) == 'x' ? 2 : 0;
+  }
+
+  /**
+   * Mirrors web3j's Numeric.hexStringToByteArray, in which an odd number of digits has an implied
+   * leading zero, and invalid digits are not rejected.
+   *
+   * @return the unsigned value of the byte at the index of the decoded hex string
+   */
+  private static int hexByte(final String hex, final int start, final int byteIndex) {
+    final boolean oddDigits = (hex.length() - start) % 2 != 0;
+    if (oddDigits && byteIndex == 0) {
+      return Character.digit(hex.charAt(start), 16) & 0xff;
+    }
+    final int index = start + 2 * byteIndex - (oddDigits ? 1 : 0);
+    return ((Character.digit(hex.charAt(index), 16) << 4)
+            + Character.digit(hex.charAt(index + 1), 16))
+        & 0xff;
+  }
+
+  private static byte[] trimLeadingZeroes(final byte[] bytes) {
+    int offset = 0;
+    while (offset < bytes.length - 1 && bytes[offset] == 0) {
+      offset++;
+    }
+    if (offset == 0) {
+      return bytes;
+    }
+    final byte[] trimmed = new byte[bytes.length - offset];
+    System.arraycopy(bytes, offset, trimmed, 0, trimmed.length);
+    return trimmed;
+  }
+
+  private static class Writer {
+
+    private final byte[] bytes;
+    private int position;
+
+    Writer(final int length) {
+      bytes = new byte[length];
+    }
+
+    void writeQuantity(final BigInteger quantity) {
+      final int length = quantityByteCount(quantity);
+      if (length == 1 && quantity.intValue() < STRING_OFFSET) {
+        bytes[position++] = (byte) quantity.intValue();
+        return;
+      }
+      writeStringHeader(length);
+      if (length <= Long.BYTES) {
+        writeBigEndian(quantity.longValue(), length);
+      } else {
+        // The two's complement form has a sign byte when the top bit of the quantity is set
+        final byte[] magnitude = quantity.toByteArray();
+        System.arraycopy(magnitude, magnitude.length - length, bytes, position, length);
+        position += length;
+      }
+    }
+
+    void writeHex(final String hex) {
+      final int start = hexStart(hex);
+      final int length = (hex.length() - start + 1) / 2;
+      if (length == 1 && hexByte(hex, start, 0) < STRING_OFFSET) {
+        bytes[position++] = (byte) hexByte(hex, start, 0);
+        return;
+      }
+      writeStringHeader(length);
+      for (int i = 0; i < length; i++) {
+        bytes[position++] = (byte) hexByte(hex, start, i);
+      }
+    }
+
+    void writeBytes(final byte[] value) {
+      if (value.length == 1 && (value[0] & 0xff) < STRING_OFFSET) {
+        bytes[position++] = value[0];
+        return;
+      }
+      writeStringHeader(value.length);
+      writeEncoded(value);
+    }
+
+    void writeEncoded(final byte[] encoded) {
+      System.arraycopy(encoded, 0, bytes, position, encoded.length);
+      position += encoded.length;
+    }
+
+    void writeListHeader(final int payloadLength) {
+      writeHeader(payloadLength, LIST_OFFSET, LONG_LIST_OFFSET);
+    }
+
+    private void writeStringHeader(final int length) {
+      writeHeader(length, STRING_OFFSET, LONG_STRING_OFFSET);
+    }
+
+    private void writeHeader(final int length, final int shortOffset, final int longOffset) {
+      if (length <= SHORT_LENGTH_LIMIT) {
+        bytes[position++] = (byte) (shortOffset + length);
+      } else {
+        final int lengthBytes = lengthByteCount(length);
+        bytes[position++] = (byte) (longOffset + lengthBytes);
+        writeBigEndian(length, lengthBytes);
+      }
+    }
+
+    private void writeBigEndian(final long value, final int length) {
+      for (int i = length - 1; i >= 0; i--) {
+        bytes[position++] = (byte) (value >>> (8 * i));
+      }
+    }
+
+    byte[] bytes() {
+      return bytes;
+    }
+  }
+}
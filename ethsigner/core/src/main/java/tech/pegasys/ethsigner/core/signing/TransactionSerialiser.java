@@ -12,27 +12,156 @@
  */
 package tech.pegasys.ethsigner.core.signing;
 
+import tech.pegasys.ethsigner.core.jfr.FlightRecorderEvent;
+import tech.pegasys.ethsigner.core.metrics.EthSignerMetrics;
 import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.Transaction;
+import tech.pegasys.ethsigner.core.tracing.RequestTrace;
+import tech.pegasys.ethsigner.core.tracing.Span;
+import tech.pegasys.ethsigner.core.tracing.SpanKind;
 
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
 import org.web3j.crypto.Sign.SignatureData;
 import org.web3j.crypto.TransactionEncoder;
-import org.web3j.utils.Numeric;
 
 public class TransactionSerialiser {
 
-  private final TransactionSigner signer;
+  private static final FlightRecorderEvent SERIALISE_EVENT =
+      FlightRecorderEvent.define(
+          "tech.pegasys.ethsigner.Serialise",
+          "Transaction Serialisation",
+          "method",
+          "sender",
+          "signer");
+
+  private final TransactionSignerProvider signerProvider;
   private final long chainId;
+  private final EthSignerMetrics metrics;
 
-  public TransactionSerialiser(final TransactionSigner signer, final long chainId) {
-    this.signer = signer;
+  public TransactionSerialiser(
+      final TransactionSignerProvider signerProvider,
+      final long chainId,
+      final EthSignerMetrics metrics) {
+    this.signerProvider = signerProvider;
     this.chainId = chainId;
+    this.metrics = metrics;
   }
 
-  public String serialise(final Transaction transaction) {
-    final byte[] bytesToSign = transaction.rlpEncode(chainId);
+  /**
+   * @return the RLP encoding of the transaction, signed by the unlocked account of its sender
+   * @throws IllegalArgumentException when the sender is not an unlocked account
+   */
+  public byte[] serialise(final Transaction transaction) {
+    final TransactionSigner signer = signerFor(transaction);
+    final Object event = SERIALISE_EVENT.begin();
+    final byte[] serialised = serialise(signer, transaction, RequestTrace.NOT_SAMPLED);
+    commitEvent(event, transaction, signer);
+    return serialised;
+  }
 
+  private byte[] serialise(
+      final TransactionSigner signer, final Transaction transaction, final RequestTrace trace) {
+    final byte[] bytesToSign = rlpEncode(transaction, trace);
+    final Span signing = trace.startSpan("sign");
+    final long signingStart = System.nanoTime();
     final Signature signature = signer.sign(bytesToSign);
+    metrics.observeSigning(signingStart);
+    signing.end();
+    return encodeSigned(transaction, signature, trace);
+  }
+
+  /**
+   * Serialises the transaction without blocking the event loop of the given context.
+   *
+   * @param trace of the request, to which the encoding and signing stages are added
+   * @return a future completed on the context with the RLP encoding of the signed transaction
+   */
+  public Future<byte[]> serialise(
+      final Context context, final Transaction transaction, final RequestTrace trace) {
+    final TransactionSigner signer;
+    try {
+      signer = signerFor(transaction);
+    } catch (final IllegalArgumentException e) {
+      return Future.failedFuture(e);
+    }
+
+    final Object event = SERIALISE_EVENT.begin();
+    final Future<byte[]> serialised = Future.future();
+    if (!(signer instanceof AsyncTransactionSigner)) {
+      // Local signing is CPU bound, so is kept off the event loop
+      metrics.workerQueued();
+      final Span queued = trace.startSpan("signingQueue");
+      context.<byte[]>executeBlocking(
+          future -> {
+            metrics.workerStarted();
+            queued.end();
+            future.complete(serialise(signer, transaction, trace));
+          },
+          false,
+          result -> {
+            commitEvent(event, transaction, signer);
+            serialised.completer().handle(result);
+          });
+      return serialised;
+    }
+
+    // Remote signing waits on the network rather than a worker thread
+    final byte[] bytesToSign;
+    try {
+      bytesToSign = rlpEncode(transaction, trace);
+    } catch (final RuntimeException e) {
+      return Future.failedFuture(e);
+    }
+    final Span signing = trace.startSpan("sign", SpanKind.CLIENT);
+    final long signingStart = System.nanoTime();
+    ((AsyncTransactionSigner) signer)
+        .signAsync(bytesToSign)
+        .whenComplete(
+            (signature, error) -> {
+              if (error == null) {
+                metrics.observeSigning(signingStart);
+                signing.end();
+              } else {
+                signing.fail(unwrap(error));
+              }
+              context.runOnContext(
+                  v -> {
+                    commitEvent(event, transaction, signer);
+                    if (error != null) {
+                      serialised.fail(unwrap(error));
+                      return;
+                    }
+                    try {
+                      serialised.complete(encodeSigned(transaction, signature, trace));
+                    } catch (final RuntimeException e) {
+                      serialised.fail(e);
+                    }
+                  });
+            });
+    return serialised;
+  }
+
+  private static void commitEvent(
+      final Object event, final Transaction transaction, final TransactionSigner signer) {
+    if (event != null) {
+      SERIALISE_EVENT.commit(
+          event, transaction.method(), transaction.sender(), signer.getClass().getName());
+    }
+  }
+
+  private byte[] rlpEncode(final Transaction transaction, final RequestTrace trace) {
+    final Span encoding = trace.startSpan("rlpEncode");
+    final byte[] encoded = transaction.rlpEncode(chainId);
+    encoding.end();
+    return encoded;
+  }
 
+  private byte[] encodeSigned(
+      final Transaction transaction, final Signature signature, final RequestTrace trace) {
+    final Span encoding = trace.startSpan("rlpEncodeSigned");
     final SignatureData web3jSignature =
         new SignatureData(
             signature.getV().toByteArray(),
@@ -42,11 +171,31 @@ public class TransactionSerialiser {
     final SignatureData eip155Signature =
         TransactionEncoder.createEip155SignatureData(web3jSignature, chainId);
 
-    final byte[] serialisedBytes = transaction.rlpEncode(eip155Signature);
-    return Numeric.toHexString(serialisedBytes);
+    final byte[] encoded = transaction.rlpEncode(eip155Signature);
+    encoding.end();
+    return encoded;
+  }
+
+  private static Throwable unwrap(final Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+
+  /** @return whether a transaction from the address can be signed */
+  public boolean isUnlockedAccount(final String address) {
+    return signerProvider.getSigner(address).isPresent();
+  }
+
+  /** @return the addresses of every unlocked account */
+  public Set<String> getAddresses() {
+    return signerProvider.availableAddresses();
   }
 
-  public String getAddress() {
-    return signer.getAddress();
+  private TransactionSigner signerFor(final Transaction transaction) {
+    return signerProvider
+        .getSigner(transaction.sender())
+        .orElseThrow(
+            () -> new IllegalArgumentException("No unlocked account for " + transaction.sender()));
   }
 }
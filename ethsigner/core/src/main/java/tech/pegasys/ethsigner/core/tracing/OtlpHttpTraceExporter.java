@@ -0,0 +1,62 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Posts each batch of traces to an OTLP/HTTP endpoint (e.g. http://localhost:4318/v1/traces) of
+ * an OpenTelemetry collector, or any tracing backend which accepts the protocol's JSON encoding.
+ *
+ * <p>Exporting has a thread of its own, so a blocking connection is used in preference to sharing
+ * the event loops which handle requests.
+ */
+public class OtlpHttpTraceExporter implements TraceExporter {
+
+  private final URL endpoint;
+  private final int timeoutMillis;
+
+  public OtlpHttpTraceExporter(final URL endpoint, final Duration timeout) {
+    this.endpoint = endpoint;
+    this.timeoutMillis = Math.toIntExact(timeout.toMillis());
+  }
+
+  @Override
+  public void export(final List<RequestTrace> traces) throws IOException {
+    final byte[] body = OtlpJsonEncoder.encode(traces);
+    final HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+    try {
+      connection.setRequestMethod("POST");
+      connection.setConnectTimeout(timeoutMillis);
+      connection.setReadTimeout(timeoutMillis);
+      connection.setDoOutput(true);
+      connection.setFixedLengthStreamingMode(body.length);
+      connection.setRequestProperty("Content-Type", "application/json");
+      try (final OutputStream output = connection.getOutputStream()) {
+        output.write(body);
+      }
+
+      final int status = connection.getResponseCode();
+      if (status < 200 || status >= 300) {
+        throw new IOException("Trace collector responded with status " + status);
+      }
+    } finally {
+      connection.disconnect();
+    }
+  }
+}
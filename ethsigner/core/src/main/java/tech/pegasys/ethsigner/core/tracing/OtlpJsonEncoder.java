@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.vertx.core.json.Json;
+
+/**
+ * Encodes traces as an OpenTelemetry (OTLP) ExportTraceServiceRequest, in its JSON mapping.
+ *
+ * <p>Stages are recorded as children of the request's root span. A stage still open when its
+ * request completed, such as the call to a node which timed out, ends with the request.
+ */
+class OtlpJsonEncoder {
+
+  static final String SERVICE_NAME = "ethsigner";
+
+  private static final int STATUS_CODE_ERROR = 2;
+
+  private OtlpJsonEncoder() {}
+
+  static byte[] encode(final List<RequestTrace> traces) throws IOException {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (final JsonGenerator generator = Json.mapper.getFactory().createGenerator(out)) {
+      generator.writeStartObject();
+      generator.writeArrayFieldStart("resourceSpans");
+      generator.writeStartObject();
+
+      generator.writeObjectFieldStart("resource");
+      generator.writeArrayFieldStart("attributes");
+      generator.writeStartObject();
+      generator.writeStringField("key", "service.name");
+      generator.writeObjectFieldStart("value");
+      generator.writeStringField("stringValue", SERVICE_NAME);
+      generator.writeEndObject();
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+
+      generator.writeArrayFieldStart("scopeSpans");
+      generator.writeStartObject();
+      generator.writeObjectFieldStart("scope");
+      generator.writeStringField("name", SERVICE_NAME);
+      generator.writeEndObject();
+      generator.writeArrayFieldStart("spans");
+      for (final RequestTrace trace : traces) {
+        writeTrace(generator, trace);
+      }
+      generator.writeEndArray();
+      generator.writeEndObject();
+      generator.writeEndArray();
+
+      generator.writeEndObject();
+      generator.writeEndArray();
+      generator.writeEndObject();
+    }
+    return out.toByteArray();
+  }
+
+  private static void writeTrace(final JsonGenerator generator, final RequestTrace trace)
+      throws IOException {
+    final long traceEnd = trace.getEndNanos();
+    writeSpan(
+        generator,
+        trace,
+        trace.getSpanId(),
+        trace.getParentSpanId(),
+        trace.getName() == null ? "[invalid]" : trace.getName(),
+        SpanKind.SERVER,
+        trace.getStartNanos(),
+        traceEnd,
+        null);
+
+    for (final Span span : trace.getSpans()) {
+      final long end = span.getEndNanos();
+      writeSpan(
+          generator,
+          trace,
+          span.getSpanId(),
+          trace.getSpanId(),
+          span.getName(),
+          span.getKind(),
+          span.getStartNanos(),
+          end == 0 ? traceEnd : end,
+          span.getError());
+    }
+  }
+
+  private static void writeSpan(
+      final JsonGenerator generator,
+      final RequestTrace trace,
+      final String spanId,
+      final String parentSpanId,
+      final String name,
+      final SpanKind kind,
+      final long startNanos,
+      final long endNanos,
+      final String error)
+      throws IOException {
+    generator.writeStartObject();
+    generator.writeStringField("traceId", trace.getTraceId());
+    generator.writeStringField("spanId", spanId);
+    if (parentSpanId != null) {
+      generator.writeStringField("parentSpanId", parentSpanId);
+    }
+    generator.writeStringField("name", name);
+    generator.writeNumberField("kind", kind.otlpValue());
+    // 64 bit integers are encoded as strings by the OTLP JSON mapping
+    generator.writeStringField(
+        "startTimeUnixNano", Long.toString(trace.toEpochNanos(startNanos)));
+    generator.writeStringField("endTimeUnixNano", Long.toString(trace.toEpochNanos(endNanos)));
+    if (error != null) {
+      generator.writeObjectFieldStart("status");
+      generator.writeNumberField("code", STATUS_CODE_ERROR);
+      generator.writeStringField("message", error);
+      generator.writeEndObject();
+    }
+    generator.writeEndObject();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * The spans recorded while handling a single JSON-RPC request, rooted in a span covering the whole
+ * request.
+ *
+ * <p>Only sampled requests allocate a trace. Every other request shares {@link #NOT_SAMPLED},
+ * whose spans record nothing, so instrumented code need not check whether it is being traced.
+ */
+public class RequestTrace {
+
+  public static final RequestTrace NOT_SAMPLED = new RequestTrace();
+
+  private static final String CONTEXT_KEY = "ethsigner.trace";
+
+  private final boolean sampled;
+  private final String traceId;
+  private final String parentSpanId;
+  private final String spanId;
+  private final long startEpochNanos;
+  private final long startNanos;
+  private final TraceExportQueue exportQueue;
+  private final List<Span> spans = new ArrayList<>();
+  private volatile String name;
+  private volatile long endNanos;
+
+  private RequestTrace() {
+    this.sampled = false;
+    this.traceId = null;
+    this.parentSpanId = null;
+    this.spanId = null;
+    this.startEpochNanos = 0;
+    this.startNanos = 0;
+    this.exportQueue = null;
+  }
+
+  RequestTrace(
+      final String traceId, final String parentSpanId, final TraceExportQueue exportQueue) {
+    this.sampled = true;
+    this.traceId = traceId;
+    this.parentSpanId = parentSpanId;
+    this.spanId = randomId();
+    this.startEpochNanos = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    this.startNanos = System.nanoTime();
+    this.exportQueue = exportQueue;
+  }
+
+  /** @return the trace of the request being handled, or {@link #NOT_SAMPLED} */
+  public static RequestTrace of(final RoutingContext context) {
+    final RequestTrace trace = context.get(CONTEXT_KEY);
+    return trace == null ? NOT_SAMPLED : trace;
+  }
+
+  void attachTo(final RoutingContext context) {
+    context.put(CONTEXT_KEY, this);
+    context.addBodyEndHandler(v -> end());
+  }
+
+  public boolean isSampled() {
+    return sampled;
+  }
+
+  /** Names the request's root span, which is only known once its body has been read. */
+  public void setName(final String name) {
+    this.name = name;
+  }
+
+  public Span startSpan(final String name) {
+    return startSpan(name, SpanKind.INTERNAL);
+  }
+
+  public Span startSpan(final String name, final SpanKind kind) {
+    if (!sampled) {
+      return Span.NOT_SAMPLED;
+    }
+    final Span span = new Span(this, randomId(), name, kind, System.nanoTime());
+    synchronized (spans) {
+      spans.add(span);
+    }
+    return span;
+  }
+
+  /**
+   * @return a W3C traceparent header identifying the span as the parent of the work it requests of
+   *     another service
+   */
+  public String traceparent(final Span span) {
+    return "00-" + traceId + "-" + span.getSpanId() + "-01";
+  }
+
+  /** Completes the trace, queueing it to be exported. */
+  void end() {
+    if (sampled && endNanos == 0) {
+      endNanos = System.nanoTime();
+      exportQueue.offer(this);
+    }
+  }
+
+  String getTraceId() {
+    return traceId;
+  }
+
+  /** @return the id of the span of the client which sent the request, or null if it sent none */
+  String getParentSpanId() {
+    return parentSpanId;
+  }
+
+  String getSpanId() {
+    return spanId;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  long getStartNanos() {
+    return startNanos;
+  }
+
+  long getEndNanos() {
+    return endNanos;
+  }
+
+  List<Span> getSpans() {
+    synchronized (spans) {
+      return new ArrayList<>(spans);
+    }
+  }
+
+  /** @return the wall clock time of a {@link System#nanoTime()} taken during the request */
+  long toEpochNanos(final long nanos) {
+    return startEpochNanos + (nanos - startNanos);
+  }
+
+  static String randomId() {
+    return String.format("%016x", ThreadLocalRandom.current().nextLong());
+  }
+}
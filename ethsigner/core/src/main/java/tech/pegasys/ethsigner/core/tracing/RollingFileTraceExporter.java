@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Appends each batch of traces to a file as a line of OTLP JSON, which an OpenTelemetry collector
+ * can read with its OTLP JSON file receiver.
+ *
+ * <p>Once the file reaches its maximum size it is renamed with the suffix ".1", and earlier files
+ * shuffled along to make room, discarding the oldest.
+ */
+public class RollingFileTraceExporter implements TraceExporter {
+
+  public static final long DEFAULT_MAX_FILE_SIZE = 64L * 1024 * 1024;
+  public static final int DEFAULT_MAX_ROLLED_FILES = 4;
+
+  private static final byte[] NEW_LINE = {'\n'};
+
+  private final Path file;
+  private final long maxFileSize;
+  private final int maxRolledFiles;
+  private OutputStream output;
+  private long fileSize;
+
+  public RollingFileTraceExporter(final Path file) {
+    this(file, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_ROLLED_FILES);
+  }
+
+  public RollingFileTraceExporter(
+      final Path file, final long maxFileSize, final int maxRolledFiles) {
+    this.file = file;
+    this.maxFileSize = maxFileSize;
+    this.maxRolledFiles = maxRolledFiles;
+  }
+
+  @Override
+  public void export(final List<RequestTrace> traces) throws IOException {
+    final byte[] line = OtlpJsonEncoder.encode(traces);
+    if (output == null) {
+      open();
+    }
+    if (fileSize > 0 && fileSize + line.length + 1 > maxFileSize) {
+      roll();
+    }
+    output.write(line);
+    output.write(NEW_LINE);
+    output.flush();
+    fileSize += line.length + 1;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (output != null) {
+      output.close();
+      output = null;
+    }
+  }
+
+  private void open() throws IOException {
+    output = Files.newOutputStream(file, CREATE, APPEND);
+    fileSize = Files.size(file);
+  }
+
+  private void roll() throws IOException {
+    close();
+    for (int index = maxRolledFiles - 1; index > 0; index--) {
+      final Path rolled = rolledFile(index);
+      if (Files.exists(rolled)) {
+        Files.move(rolled, rolledFile(index + 1), REPLACE_EXISTING);
+      }
+    }
+    if (maxRolledFiles > 0) {
+      Files.move(file, rolledFile(1), REPLACE_EXISTING);
+    } else {
+      Files.delete(file);
+    }
+    open();
+  }
+
+  private Path rolledFile(final int index) {
+    return file.resolveSibling(file.getFileName() + "." + index);
+  }
+}
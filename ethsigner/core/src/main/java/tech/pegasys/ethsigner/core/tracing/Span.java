@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+/**
+ * A timed stage in the handling of a request, such as signing or the call to the Ethereum node.
+ *
+ * <p>Stages of a request which is not sampled share {@link #NOT_SAMPLED}, which records nothing.
+ */
+public class Span {
+
+  public static final Span NOT_SAMPLED = new Span(null, null, null, SpanKind.INTERNAL, 0);
+
+  private final RequestTrace trace;
+  private final String spanId;
+  private final String name;
+  private final SpanKind kind;
+  private final long startNanos;
+  private volatile long endNanos;
+  private volatile String error;
+
+  Span(
+      final RequestTrace trace,
+      final String spanId,
+      final String name,
+      final SpanKind kind,
+      final long startNanos) {
+    this.trace = trace;
+    this.spanId = spanId;
+    this.name = name;
+    this.kind = kind;
+    this.startNanos = startNanos;
+  }
+
+  public void end() {
+    if (trace != null && endNanos == 0) {
+      endNanos = System.nanoTime();
+    }
+  }
+
+  /** Ends the span, marking the stage as having failed. */
+  public void fail(final Throwable thrown) {
+    if (trace != null && endNanos == 0) {
+      error = String.valueOf(thrown);
+      endNanos = System.nanoTime();
+    }
+  }
+
+  String getSpanId() {
+    return spanId;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  SpanKind getKind() {
+    return kind;
+  }
+
+  long getStartNanos() {
+    return startNanos;
+  }
+
+  /** @return when the span ended, or zero if it is still open */
+  long getEndNanos() {
+    return endNanos;
+  }
+
+  /** @return a description of why the stage failed, or null if it did not */
+  String getError() {
+    return error;
+  }
+}
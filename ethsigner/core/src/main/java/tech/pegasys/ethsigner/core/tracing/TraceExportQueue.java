@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Hands completed traces from the event loop to the exporter's thread, in batches.
+ *
+ * <p>The queue is bounded, and traces are dropped rather than applying back pressure when the
+ * exporter cannot keep up, as tracing must never slow the requests it is observing.
+ */
+class TraceExportQueue {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final int CAPACITY = 8192;
+  private static final int MAX_BATCH_SIZE = 512;
+  private static final long POLL_INTERVAL_MILLIS = 1000;
+  private static final long CLOSE_TIMEOUT_SECONDS = 5;
+
+  private final BlockingQueue<RequestTrace> queue = new ArrayBlockingQueue<>(CAPACITY);
+  private final AtomicLong dropped = new AtomicLong();
+  private final TraceExporter exporter;
+  private final ExecutorService executor;
+  private volatile boolean closed = false;
+
+  TraceExportQueue(final TraceExporter exporter) {
+    this.exporter = exporter;
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("trace-exporter").setDaemon(true).build());
+    executor.execute(this::exportUntilClosed);
+  }
+
+  void offer(final RequestTrace trace) {
+    if (!queue.offer(trace)) {
+      dropped.incrementAndGet();
+    }
+  }
+
+  void close() {
+    closed = true;
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        LOG.warn("Timed out exporting the remaining {} traces", queue.size());
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void exportUntilClosed() {
+    final List<RequestTrace> batch = new ArrayList<>(MAX_BATCH_SIZE);
+    try {
+      while (!closed || !queue.isEmpty()) {
+        final RequestTrace first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first != null) {
+          batch.add(first);
+          queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+          export(batch);
+          batch.clear();
+        }
+        logDropped();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      try {
+        exporter.close();
+      } catch (final IOException e) {
+        LOG.warn("Failed to close trace exporter", e);
+      }
+    }
+  }
+
+  private void export(final List<RequestTrace> batch) {
+    try {
+      exporter.export(batch);
+    } catch (final IOException | RuntimeException e) {
+      LOG.warn("Failed to export {} traces: {}", batch.size(), e.getMessage());
+      LOG.debug("Trace export failure", e);
+    }
+  }
+
+  private void logDropped() {
+    final long count = dropped.getAndSet(0);
+    if (count > 0) {
+      LOG.warn(
+          "Dropped {} traces, as they were completed faster than they could be exported", count);
+    }
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Decides which requests are traced, and starts their traces.
+ *
+ * <p>A request carrying a W3C traceparent header joins the caller's trace, and is sampled if the
+ * caller sampled it. Any other request starts a new trace, sampled at the configured ratio.
+ */
+public class Tracer {
+
+  public static final String TRACEPARENT_HEADER = "traceparent";
+
+  // version "-" trace id "-" parent id "-" flags, e.g. 00-0af7651916cd43dd8448eb211c80319c-...
+  private static final int TRACEPARENT_LENGTH = 55;
+  private static final int TRACE_ID_START = 3;
+  private static final int PARENT_ID_START = 36;
+  private static final int FLAGS_START = 53;
+  private static final int SAMPLED_FLAG = 0x01;
+
+  private final double sampleRatio;
+  private final TraceExportQueue exportQueue;
+
+  public Tracer(final double sampleRatio, final TraceExporter exporter) {
+    this.sampleRatio = sampleRatio;
+    this.exportQueue = new TraceExportQueue(exporter);
+  }
+
+  private Tracer() {
+    this.sampleRatio = 0;
+    this.exportQueue = null;
+  }
+
+  /** @return a tracer which samples no requests */
+  public static Tracer disabled() {
+    return new Tracer();
+  }
+
+  /**
+   * Starts the trace of a request, which is completed and exported once its response has been
+   * written.
+   *
+   * @return the request's trace, or {@link RequestTrace#NOT_SAMPLED}
+   */
+  public RequestTrace startTrace(final RoutingContext context) {
+    if (exportQueue == null) {
+      return RequestTrace.NOT_SAMPLED;
+    }
+
+    final RequestTrace trace;
+    final String traceparent = context.request().getHeader(TRACEPARENT_HEADER);
+    if (isValidTraceparent(traceparent)) {
+      if ((hexValue(traceparent, FLAGS_START, FLAGS_START + 2) & SAMPLED_FLAG) == 0) {
+        return RequestTrace.NOT_SAMPLED;
+      }
+      trace =
+          new RequestTrace(
+              traceparent.substring(TRACE_ID_START, PARENT_ID_START - 1),
+              traceparent.substring(PARENT_ID_START, FLAGS_START - 1),
+              exportQueue);
+    } else {
+      if (ThreadLocalRandom.current().nextDouble() >= sampleRatio) {
+        return RequestTrace.NOT_SAMPLED;
+      }
+      final String traceId = RequestTrace.randomId() + RequestTrace.randomId();
+      trace = new RequestTrace(traceId, null, exportQueue);
+    }
+
+    trace.attachTo(context);
+    return trace;
+  }
+
+  /** Exports any traces which have been completed but not yet exported. */
+  public void close() {
+    if (exportQueue != null) {
+      exportQueue.close();
+    }
+  }
+
+  static boolean isValidTraceparent(final String traceparent) {
+    if (traceparent == null
+        || traceparent.length() < TRACEPARENT_LENGTH
+        || traceparent.charAt(TRACE_ID_START - 1) != '-'
+        || traceparent.charAt(PARENT_ID_START - 1) != '-'
+        || traceparent.charAt(FLAGS_START - 1) != '-') {
+      return false;
+    }
+    // Later versions may append fields, but the version must be known to read them
+    if (traceparent.length() > TRACEPARENT_LENGTH
+        && traceparent.charAt(TRACEPARENT_LENGTH) != '-') {
+      return false;
+    }
+    final long version = hexValue(traceparent, 0, TRACE_ID_START - 1);
+    return version >= 0
+        && version != 0xff
+        && hexValue(traceparent, FLAGS_START, FLAGS_START + 2) >= 0
+        && isNonZeroHex(traceparent, TRACE_ID_START, PARENT_ID_START - 1)
+        && isNonZeroHex(traceparent, PARENT_ID_START, FLAGS_START - 1);
+  }
+
+  private static boolean isNonZeroHex(final String value, final int start, final int end) {
+    boolean nonZero = false;
+    for (int i = start; i < end; i++) {
+      final char c = value.charAt(i);
+      if (!isLowerCaseHex(c)) {
+        return false;
+      }
+      nonZero |= c != '0';
+    }
+    return nonZero;
+  }
+
+  /** @return the value of the hex digits, or -1 if they are not all lower case hex */
+  private static long hexValue(final String value, final int start, final int end) {
+    long result = 0;
+    for (int i = start; i < end; i++) {
+      final char c = value.charAt(i);
+      if (!isLowerCaseHex(c)) {
+        return -1;
+      }
+      result = (result << 4) | Character.digit(c, 16);
+    }
+    return result;
+  }
+
+  private static boolean isLowerCaseHex(final char c) {
+    return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+  }
+}
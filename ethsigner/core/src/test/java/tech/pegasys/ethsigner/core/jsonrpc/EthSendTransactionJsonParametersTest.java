@@ -13,10 +13,12 @@
 package tech.pegasys.ethsigner.core.jsonrpc;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import java.math.BigInteger;
 import java.util.Optional;
 
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import org.junit.Test;
@@ -91,4 +93,61 @@ public class EthSendTransactionJsonParametersTest {
     assertThat(txnParams.receiver()).isEqualTo(Optional.of(parameters.getString("to")));
     assertThat(txnParams.value()).isEqualTo(getStringAsOptionalBigInteger(parameters, "value"));
   }
+
+  @Test
+  public void transactionCanBeDecodedDirectlyFromRequestBody() {
+    final JsonObject parameters = new JsonObject();
+    parameters.put("from", "0xb60e8dd61c5d32be8058bb8eb970870f07233155");
+    parameters.put("to", "0xd46e8dd67c5d32be8058bb8eb970870f07244567");
+    parameters.put("nonce", "0xe04d296d2460cfb8472af2c5fd05b5a214109c25688d3704aed5484f9a7792f2");
+    parameters.put("gas", "0x76c0");
+    parameters.put("gasPrice", "0x9184e72a000");
+    parameters.put("value", "0x9184e72a");
+
+    final JsonObject input = new JsonObject();
+    input.put("jsonrpc", 2.0);
+    input.put("method", "eth_sendTransaction");
+    input.put("params", new JsonArray().add(parameters));
+    input.put("id", 1);
+
+    final JsonRpcRequest request = JsonRpcRequestScanner.scan(input.toBuffer());
+    final EthSendTransactionJsonParameters txnParams =
+        EthSendTransactionJsonParameters.from(request);
+
+    assertThat(txnParams.sender()).isEqualTo(parameters.getString("from"));
+    assertThat(txnParams.gas()).isEqualTo(getStringAsOptionalBigInteger(parameters, "gas"));
+    assertThat(txnParams.gasPrice())
+        .isEqualTo(getStringAsOptionalBigInteger(parameters, "gasPrice"));
+    assertThat(txnParams.nonce()).isEqualTo(getStringAsOptionalBigInteger(parameters, "nonce"));
+    assertThat(txnParams.receiver()).isEqualTo(Optional.of(parameters.getString("to")));
+    assertThat(txnParams.value()).isEqualTo(getStringAsOptionalBigInteger(parameters, "value"));
+    assertThat(txnParams.data()).isEmpty();
+  }
+
+  @Test
+  public void invalidQuantityInRequestBodyIsRejected() {
+    final Buffer body =
+        Buffer.buffer(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"eth_sendTransaction\",\"params\":"
+                + "[{\"from\":\"0xb60e8dd61c5d32be8058bb8eb970870f07233155\",\"gas\":\"0x7G\"}]}");
+
+    final JsonRpcRequest request = JsonRpcRequestScanner.scan(body);
+
+    assertThatThrownBy(() -> EthSendTransactionJsonParameters.from(request))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void multipleParamsInRequestBodyAreRejected() {
+    final Buffer body =
+        Buffer.buffer(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"eth_sendTransaction\",\"params\":"
+                + "[{\"from\":\"0xb60e8dd61c5d32be8058bb8eb970870f07233155\"},{}]}");
+
+    final JsonRpcRequest request = JsonRpcRequestScanner.scan(body);
+
+    assertThatThrownBy(() -> EthSendTransactionJsonParameters.from(request))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("request contained 2");
+  }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.ethsigner.core.jsonrpc.exception.InvalidJsonRpcRequestException;
+
+import java.util.List;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import org.junit.Test;
+
+public class JsonRpcRequestScannerTest {
+
+  @Test
+  public void envelopeIsReadWithoutDecodingParams() {
+    final JsonRpcRequest request =
+        scan(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\","
+                + "\"params\":[{\"to\":\"0x01\",\"data\":[1,{\"a\":2}]},\"latest\"],\"id\":7}");
+
+    assertThat(request.getVersion()).isEqualTo("2.0");
+    assertThat(request.getMethod()).isEqualTo("eth_call");
+    assertThat(request.getId()).isEqualTo(new JsonRpcRequestId(7));
+    assertThat(request.rawParams().map(Buffer::toString))
+        .contains("[{\"to\":\"0x01\",\"data\":[1,{\"a\":2}]},\"latest\"]");
+  }
+
+  @Test
+  public void scalarParamsAreRetainedInFull() {
+    final JsonRpcRequest request =
+        scan("{\"jsonrpc\":\"2.0\",\"method\":\"mine\",\"params\":\"value\",\"id\":1}");
+
+    assertThat(request.rawParams().map(Buffer::toString)).contains("\"value\"");
+    assertThat(request.getParams()).isEqualTo("value");
+  }
+
+  @Test
+  public void idIsReadWhenItPrecedesParams() {
+    final JsonRpcRequest request =
+        scan("{\"id\":\"abc\",\"params\":[],\"method\":\"eth_blockNumber\",\"jsonrpc\":2.0}");
+
+    assertThat(request.getVersion()).isEqualTo("2.0");
+    assertThat(request.getMethod()).isEqualTo("eth_blockNumber");
+    assertThat(request.getId()).isEqualTo(new JsonRpcRequestId("abc"));
+  }
+
+  @Test
+  public void nullIdIsAccepted() {
+    final JsonRpcRequest request =
+        scan("{\"jsonrpc\":\"2.0\",\"method\":\"net_version\",\"id\":null}");
+
+    assertThat(request.getId()).isNull();
+    assertThat(request.isNotification()).isFalse();
+  }
+
+  @Test
+  public void requestWithoutIdIsANotification() {
+    final JsonRpcRequest request = scan("{\"jsonrpc\":\"2.0\",\"method\":\"net_version\"}");
+
+    assertThat(request.getId()).isNull();
+    assertThat(request.isNotification()).isTrue();
+  }
+
+  @Test
+  public void missingMethodIsRejected() {
+    assertThatThrownBy(() -> scan("{\"jsonrpc\":\"2.0\",\"params\":[],\"id\":1}"))
+        .isInstanceOf(InvalidJsonRpcRequestException.class);
+  }
+
+  @Test
+  public void objectIdIsRejected() {
+    assertThatThrownBy(() -> scan("{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"id\":{}}"))
+        .isInstanceOf(InvalidJsonRpcRequestException.class);
+  }
+
+  @Test
+  public void unknownMemberIsRejected() {
+    assertThatThrownBy(() -> scan("{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"foo\":1}"))
+        .isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  public void bodyWhichIsNotAnObjectIsRejected() {
+    assertThatThrownBy(() -> scan("[]")).isInstanceOf(DecodeException.class);
+    assertThatThrownBy(() -> scan("")).isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  public void malformedJsonIsRejected() {
+    assertThatThrownBy(() -> scan("{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"params\":[}"))
+        .isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  public void contentAfterRequestIsRejected() {
+    assertThatThrownBy(() -> scan("{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"id\":1}{}"))
+        .isInstanceOf(DecodeException.class);
+    assertThatThrownBy(() -> scan("{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"id\":1} x"))
+        .isInstanceOf(DecodeException.class);
+  }
+
+  @Test
+  public void trailingWhitespaceIsAccepted() {
+    assertThat(scan("{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"id\":1} \n").getMethod())
+        .isEqualTo("eth_call");
+  }
+
+  @Test
+  public void batchIsSplitIntoItsMembers() {
+    final Buffer body =
+        Buffer.buffer(
+            " [{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"params\":[{}],\"id\":1}, 5 ,\"a\"]");
+
+    assertThat(JsonRpcRequestScanner.isBatch(body)).isTrue();
+    final List<Buffer> members = JsonRpcRequestScanner.splitBatch(body);
+    assertThat(members)
+        .extracting(Buffer::toString)
+        .containsExactly(
+            "{\"jsonrpc\":\"2.0\",\"method\":\"eth_call\",\"params\":[{}],\"id\":1}",
+            "5",
+            "\"a\"");
+    assertThat(JsonRpcRequestScanner.scan(members.get(0)).getMethod()).isEqualTo("eth_call");
+  }
+
+  @Test
+  public void singleRequestIsNotBatch() {
+    assertThat(JsonRpcRequestScanner.isBatch(Buffer.buffer(" {\"method\":\"eth_call\"}")))
+        .isFalse();
+    assertThat(JsonRpcRequestScanner.isBatch(Buffer.buffer(""))).isFalse();
+  }
+
+  @Test
+  public void incompleteBatchIsRejected() {
+    assertThatThrownBy(() -> JsonRpcRequestScanner.splitBatch(Buffer.buffer("[{},")))
+        .isInstanceOf(DecodeException.class);
+  }
+
+  private JsonRpcRequest scan(final String body) {
+    return JsonRpcRequestScanner.scan(Buffer.buffer(body));
+  }
+}
@@ -19,6 +19,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.util.List;
 
 import com.google.common.collect.Lists;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.json.JsonObject;
 import org.junit.Test;
 
@@ -103,4 +104,25 @@ public class JsonRpcRequestTest {
 
     assertThat(first.equals(second)).isTrue();
   }
+
+  @Test
+  public void ensureEqualityWorksForScannedRequests() {
+    final String body = "{\"jsonrpc\":\"2.0\",\"method\":\"mine\",\"params\":[1,2],\"id\":1}";
+    final JsonRpcRequest first = JsonRpcRequestScanner.scan(Buffer.buffer(body));
+    final JsonRpcRequest second = JsonRpcRequestScanner.scan(Buffer.buffer(body));
+
+    assertThat(first).isEqualTo(second);
+    assertThat(first.hashCode()).isEqualTo(second.hashCode());
+  }
+
+  @Test
+  public void ensureEqualityWorksWithoutParams() {
+    final JsonRpcRequest first = new JsonRpcRequest("2.0", "method");
+    final JsonRpcRequest second = new JsonRpcRequest("2.0", "method");
+    second.setParams(emptyList());
+
+    assertThat(first).isEqualTo(new JsonRpcRequest("2.0", "method"));
+    assertThat(first.hashCode()).isEqualTo(new JsonRpcRequest("2.0", "method").hashCode());
+    assertThat(first).isNotEqualTo(second);
+  }
 }
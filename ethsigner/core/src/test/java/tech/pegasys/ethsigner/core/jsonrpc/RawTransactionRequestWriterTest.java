@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jsonrpc;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.vertx.core.json.Json;
+import org.junit.Test;
+import org.web3j.utils.Numeric;
+
+public class RawTransactionRequestWriterTest {
+
+  private final RawTransactionRequestWriter writer =
+      new RawTransactionRequestWriter("eth_sendRawTransaction");
+  private final byte[] signedTransaction =
+      Numeric.hexStringToByteArray("0xf86a0086d55698372431831e848094f0109fc8df283027b6285cc889f5");
+
+  @Test
+  public void bodyMatchesEncodingOfEquivalentRequest() {
+    assertMatchesJackson(new JsonRpcRequestId(7));
+    assertMatchesJackson(new JsonRpcRequestId(Long.MAX_VALUE));
+    assertMatchesJackson(new JsonRpcRequestId("an \"escaped\" id"));
+    assertMatchesJackson(null);
+  }
+
+  @Test
+  public void emptyTransactionIsWrittenAsPrefix() {
+    final JsonRpcRequest request =
+        Json.decodeValue(writer.write(new byte[0], new JsonRpcRequestId(1)), JsonRpcRequest.class);
+
+    assertThat(request.getParams()).isEqualTo(singletonList("0x"));
+  }
+
+  private void assertMatchesJackson(final JsonRpcRequestId id) {
+    final JsonRpcRequest request =
+        new JsonRpcRequest(RpcUtil.JSON_RPC_VERSION, "eth_sendRawTransaction");
+    request.setParams(singletonList(Numeric.toHexString(signedTransaction)));
+    request.setId(id);
+
+    assertThat(writer.write(signedTransaction, id).toString()).isEqualTo(Json.encode(request));
+  }
+}
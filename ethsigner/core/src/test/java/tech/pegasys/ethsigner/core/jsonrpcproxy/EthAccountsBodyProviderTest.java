@@ -12,6 +12,7 @@
  */
 package tech.pegasys.ethsigner.core.jsonrpcproxy;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -31,7 +32,8 @@ public class EthAccountsBodyProviderTest {
   public void valueFromBodyProviderInsertedToResult() {
     final String address = "MyAddress";
     final int id = 1;
-    final EthAccountsBodyProvider bodyProvider = new EthAccountsBodyProvider(address);
+    final EthAccountsBodyProvider bodyProvider =
+        new EthAccountsBodyProvider(() -> singletonList(address));
 
     final JsonRpcRequest request = new JsonRpcRequest("2.0", "eth_accounts");
     request.setId(new JsonRpcRequestId(id));
@@ -46,11 +48,27 @@ public class EthAccountsBodyProviderTest {
     assertThat(jsonObj.getJsonArray("result")).containsExactly(address);
   }
 
+  @Test
+  public void everyUnlockedAccountIsReturned() {
+    final EthAccountsBodyProvider bodyProvider =
+        new EthAccountsBodyProvider(() -> asList("0xaddress1", "0xaddress2"));
+
+    final JsonRpcRequest request = new JsonRpcRequest("2.0", "eth_accounts");
+    request.setId(new JsonRpcRequestId(1));
+
+    final JsonRpcBody body = bodyProvider.getBody(request);
+    final JsonObject jsonObj = new JsonObject(body.body());
+
+    assertThat(body.hasError()).isFalse();
+    assertThat(jsonObj.getJsonArray("result")).containsExactly("0xaddress1", "0xaddress2");
+  }
+
   @Test
   public void ifParamsContainsANonEmptyArrayErrorIsReturned() {
     final String address = "MyAddress";
     final int id = 1;
-    final EthAccountsBodyProvider bodyProvider = new EthAccountsBodyProvider(address);
+    final EthAccountsBodyProvider bodyProvider =
+        new EthAccountsBodyProvider(() -> singletonList(address));
 
     final JsonRpcRequest request = new JsonRpcRequest("2.0", "eth_accounts");
     request.setId(new JsonRpcRequestId(id));
@@ -65,7 +83,8 @@ public class EthAccountsBodyProviderTest {
   public void isParamIsAnObjectErrorIsReturned() {
     final String address = "MyAddress";
     final int id = 1;
-    final EthAccountsBodyProvider bodyProvider = new EthAccountsBodyProvider(address);
+    final EthAccountsBodyProvider bodyProvider =
+        new EthAccountsBodyProvider(() -> singletonList(address));
 
     final JsonRpcRequest request = new JsonRpcRequest("2.0", "eth_accounts");
     request.setId(new JsonRpcRequestId(id));
@@ -80,7 +99,8 @@ public class EthAccountsBodyProviderTest {
   public void missingParametersIsOk() {
     final String address = "MyAddress";
     final int id = 1;
-    final EthAccountsBodyProvider bodyProvider = new EthAccountsBodyProvider(address);
+    final EthAccountsBodyProvider bodyProvider =
+        new EthAccountsBodyProvider(() -> singletonList(address));
 
     final JsonRpcRequest request = new JsonRpcRequest("2.0", "eth_accounts");
     request.setId(new JsonRpcRequestId(id));
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EthSignerMetricsTest {
+
+  private CollectorRegistry registry;
+  private EthSignerMetrics metrics;
+
+  @Before
+  public void setup() {
+    registry = new CollectorRegistry();
+    metrics = new EthSignerMetrics(registry, "hashicorp-transit");
+  }
+
+  @Test
+  public void requestsAreCountedByMethod() {
+    metrics.observeRequest("eth_sendTransaction", System.nanoTime());
+    metrics.observeRequest("eth_sendTransaction", System.nanoTime());
+    metrics.observeRequest(null, System.nanoTime());
+    metrics.observeBatch(System.nanoTime());
+
+    assertThat(requestCount("eth_sendTransaction")).isEqualTo(2.0);
+    assertThat(requestCount(EthSignerMetrics.OTHER_METHOD)).isEqualTo(1.0);
+    assertThat(requestCount(EthSignerMetrics.BATCH_METHOD)).isEqualTo(1.0);
+  }
+
+  @Test
+  public void methodsBeyondTheLabelLimitAreCountedAsOther() {
+    for (int i = 0; i < EthSignerMetrics.MAX_METHOD_LABELS; i++) {
+      metrics.observeRequest("method_" + i, System.nanoTime());
+    }
+    metrics.observeRequest("method_0", System.nanoTime());
+    metrics.observeRequest("one_too_many", System.nanoTime());
+
+    assertThat(requestCount("method_0")).isEqualTo(2.0);
+    assertThat(requestCount("one_too_many")).isNull();
+    assertThat(requestCount(EthSignerMetrics.OTHER_METHOD)).isEqualTo(1.0);
+  }
+
+  @Test
+  public void downstreamRequestsAreCountedByStatus() {
+    metrics.observeDownstreamResponse(200, System.nanoTime());
+    metrics.observeDownstreamResponse(200, System.nanoTime());
+    metrics.observeDownstreamResponse(503, System.nanoTime());
+    metrics.observeDownstreamFailure(System.nanoTime());
+
+    assertThat(downstreamCount("200")).isEqualTo(2.0);
+    assertThat(downstreamCount("503")).isEqualTo(1.0);
+    assertThat(downstreamCount(EthSignerMetrics.FAILED_STATUS)).isEqualTo(1.0);
+  }
+
+  @Test
+  public void signingIsLabelledWithTheSignerBackend() {
+    metrics.observeSigning(System.nanoTime());
+
+    assertThat(
+            registry.getSampleValue(
+                "ethsigner_signing_duration_seconds_count",
+                new String[] {"backend"},
+                new String[] {"hashicorp-transit"}))
+        .isEqualTo(1.0);
+  }
+
+  @Test
+  public void nonceLookupsAndRetriesAreCounted() {
+    metrics.observeNonceLookup(System.nanoTime());
+    metrics.incrementNonceRetries();
+    metrics.incrementNonceRetries();
+    metrics.incrementNonceRetriesExhausted();
+
+    assertThat(registry.getSampleValue("ethsigner_nonce_lookup_duration_seconds_count"))
+        .isEqualTo(1.0);
+    assertThat(registry.getSampleValue("ethsigner_nonce_retries_total")).isEqualTo(2.0);
+    assertThat(registry.getSampleValue("ethsigner_nonce_retries_exhausted_total")).isEqualTo(1.0);
+  }
+
+  @Test
+  public void workerQueueDepthFallsAsTasksStart() {
+    metrics.workerQueued();
+    metrics.workerQueued();
+    metrics.workerStarted();
+
+    assertThat(registry.getSampleValue("ethsigner_worker_queue_depth")).isEqualTo(1.0);
+  }
+
+  private Double requestCount(final String method) {
+    return registry.getSampleValue(
+        "ethsigner_jsonrpc_request_duration_seconds_count",
+        new String[] {"method"},
+        new String[] {method});
+  }
+
+  private Double downstreamCount(final String status) {
+    return registry.getSampleValue(
+        "ethsigner_downstream_request_duration_seconds_count",
+        new String[] {"status"},
+        new String[] {status});
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class VertxRequestTransmitterTest {
+
+  private final VertxRequestTransmitter transmitter =
+      new VertxRequestTransmitter(Duration.ofSeconds(5));
+
+  private final RoutingContext context = mock(RoutingContext.class);
+  private final HttpServerResponse clientResponse = mock(HttpServerResponse.class);
+  private final HttpClientResponse nodeResponse = mock(HttpClientResponse.class);
+  private final MultiMap clientHeaders = MultiMap.caseInsensitiveMultiMap();
+  private final MultiMap nodeHeaders = MultiMap.caseInsensitiveMultiMap();
+
+  @Before
+  public void setUp() {
+    when(context.response()).thenReturn(clientResponse);
+    when(clientResponse.headers()).thenReturn(clientHeaders);
+    when(nodeResponse.statusCode()).thenReturn(200);
+    when(nodeResponse.headers()).thenReturn(nodeHeaders);
+  }
+
+  @Test
+  public void responseIsWrittenToClientAsItIsReceived() {
+    nodeHeaders.set(HttpHeaders.CONTENT_LENGTH, "6");
+    transmitter.streamResponse(context, nodeResponse);
+
+    verify(clientResponse).setStatusCode(200);
+    verify(clientResponse).setChunked(false);
+    assertThat(clientHeaders.get(HttpHeaders.CONTENT_LENGTH)).isEqualTo("6");
+
+    final Handler<Buffer> dataHandler = lastHandler(nodeResponse);
+    dataHandler.handle(Buffer.buffer("abc"));
+    dataHandler.handle(Buffer.buffer("def"));
+    verify(clientResponse).write(Buffer.buffer("abc"));
+    verify(clientResponse).write(Buffer.buffer("def"));
+    verify(clientResponse, never()).end();
+
+    endHandler().handle(null);
+    verify(clientResponse).end();
+  }
+
+  @Test
+  public void responseWithoutContentLengthIsChunked() {
+    nodeHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+    transmitter.streamResponse(context, nodeResponse);
+
+    verify(clientResponse).setChunked(true);
+    assertThat(clientHeaders.contains(HttpHeaders.TRANSFER_ENCODING)).isFalse();
+  }
+
+  @Test
+  public void nodeIsPausedWhileClientWriteQueueIsFull() {
+    transmitter.streamResponse(context, nodeResponse);
+    when(clientResponse.writeQueueFull()).thenReturn(true);
+
+    lastHandler(nodeResponse).handle(Buffer.buffer("abc"));
+    verify(nodeResponse).pause();
+    verify(nodeResponse, never()).resume();
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Void>> drainHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(clientResponse).drainHandler(drainHandler.capture());
+    drainHandler.getValue().handle(null);
+    verify(nodeResponse).resume();
+  }
+
+  @Test
+  public void remainderOfResponseIsDiscardedWhenClientDisconnects() {
+    transmitter.streamResponse(context, nodeResponse);
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Void>> closeHandler = ArgumentCaptor.forClass(Handler.class);
+    verify(clientResponse).closeHandler(closeHandler.capture());
+    closeHandler.getValue().handle(null);
+
+    // The node is drained rather than left paused, so its connection may be reused
+    verify(nodeResponse).resume();
+    lastHandler(nodeResponse).handle(Buffer.buffer("abc"));
+    verify(clientResponse, never()).write(any(Buffer.class));
+  }
+
+  @Test
+  public void failureBeforeHeadersAreWrittenIsReportedToClient() {
+    transmitter.streamResponse(context, nodeResponse);
+
+    final TimeoutException timeout = new TimeoutException();
+    exceptionHandler().handle(timeout);
+    verify(context).fail(504, timeout);
+    verify(clientResponse, never()).close();
+  }
+
+  @Test
+  public void failureAfterHeadersAreWrittenClosesConnection() {
+    transmitter.streamResponse(context, nodeResponse);
+    when(clientResponse.headWritten()).thenReturn(true);
+
+    exceptionHandler().handle(new IllegalStateException("Connection reset"));
+    verify(clientResponse).close();
+    verify(context, never()).fail(anyInt(), any());
+  }
+
+  @Test
+  public void requestFailureBeforeHeadersAreWrittenIsReportedToClient() {
+    final Handler<Throwable> failureHandler = requestExceptionHandler();
+
+    final TimeoutException timeout = new TimeoutException();
+    failureHandler.handle(timeout);
+    verify(context).fail(504, timeout);
+    verify(clientResponse, never()).close();
+  }
+
+  @Test
+  public void requestFailureAfterHeadersAreWrittenClosesConnection() {
+    final Handler<Throwable> failureHandler = requestExceptionHandler();
+    when(clientResponse.headWritten()).thenReturn(true);
+
+    failureHandler.handle(new TimeoutException());
+    verify(clientResponse).close();
+    verify(context, never()).fail(anyInt(), any());
+  }
+
+  @Test
+  public void responseIsStreamedByTransmitterWithoutBodyHandler() {
+    transmitter.handleResponse(context, nodeResponse);
+
+    lastHandler(nodeResponse).handle(Buffer.buffer("abc"));
+    verify(clientResponse).write(Buffer.buffer("abc"));
+  }
+
+  @Test
+  public void responseBodyIsPassedToBodyHandler() {
+    final VertxRequestTransmitter.ResponseBodyHandler bodyHandler =
+        mock(VertxRequestTransmitter.ResponseBodyHandler.class);
+    new VertxRequestTransmitter(Duration.ofSeconds(5), bodyHandler)
+        .handleResponse(context, nodeResponse);
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Buffer>> handler = ArgumentCaptor.forClass(Handler.class);
+    verify(nodeResponse).bodyHandler(handler.capture());
+    handler.getValue().handle(Buffer.buffer("abc"));
+    verify(bodyHandler).handleResponseBody(context, nodeResponse, Buffer.buffer("abc"));
+  }
+
+  /** @return the handler most recently set for the data read from the node */
+  private static Handler<Buffer> lastHandler(final HttpClientResponse nodeResponse) {
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Buffer>> handler = ArgumentCaptor.forClass(Handler.class);
+    verify(nodeResponse, atLeastOnce()).handler(handler.capture());
+    final List<Handler<Buffer>> handlers = handler.getAllValues();
+    return handlers.get(handlers.size() - 1);
+  }
+
+  private Handler<Void> endHandler() {
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Void>> handler = ArgumentCaptor.forClass(Handler.class);
+    verify(nodeResponse).endHandler(handler.capture());
+    return handler.getValue();
+  }
+
+  /** @return the handler for failures of a request sent to the node */
+  private Handler<Throwable> requestExceptionHandler() {
+    final HttpServerRequest clientRequest = mock(HttpServerRequest.class);
+    when(context.request()).thenReturn(clientRequest);
+    when(clientRequest.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+    final HttpClientRequest nodeRequest = mock(HttpClientRequest.class);
+    when(nodeRequest.headers()).thenReturn(MultiMap.caseInsensitiveMultiMap());
+
+    transmitter.sendRequest(nodeRequest, Buffer.buffer("{}"), context, "eth_call", thrown -> {});
+
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Throwable>> handler = ArgumentCaptor.forClass(Handler.class);
+    verify(nodeRequest).exceptionHandler(handler.capture());
+    return handler.getValue();
+  }
+
+  private Handler<Throwable> exceptionHandler() {
+    @SuppressWarnings("unchecked")
+    final ArgumentCaptor<Handler<Throwable>> handler = ArgumentCaptor.forClass(Handler.class);
+    verify(nodeResponse).exceptionHandler(handler.capture());
+    return handler.getValue();
+  }
+}
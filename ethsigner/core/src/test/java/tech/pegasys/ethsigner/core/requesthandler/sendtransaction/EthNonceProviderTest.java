@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcClient;
+import tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction.EthNonceProvider;
+
+import java.math.BigInteger;
+import java.net.ConnectException;
+
+import io.vertx.core.Future;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EthNonceProviderTest {
+
+  @Mock private JsonRpcClient client;
+
+  private final String accountAddress = "1122334455667788990011223344556677889900";
+
+  @Test
+  public void failedRequestFailsTheNonceWithTheUnderlyingCause() {
+    final ConnectException cause = new ConnectException("connection refused");
+    when(client.request(
+            "eth_getTransactionCount", asList(accountAddress, "pending"), String.class))
+        .thenReturn(Future.failedFuture(cause));
+    final EthNonceProvider nonceProvider = new EthNonceProvider(client, accountAddress);
+
+    final Future<BigInteger> nonce = nonceProvider.getNonce();
+    assertThat(nonce.failed()).isTrue();
+    assertThat(nonce.cause().getCause()).isSameAs(cause);
+  }
+
+  @Test
+  public void returnsValueAsReceivedFromEthereumNode() {
+    when(client.request(
+            "eth_getTransactionCount", asList(accountAddress, "pending"), String.class))
+        .thenReturn(Future.succeededFuture("0xa"));
+    final EthNonceProvider nonceProvider = new EthNonceProvider(client, accountAddress);
+
+    final Future<BigInteger> nonce = nonceProvider.getNonce();
+    assertThat(nonce.succeeded()).isTrue();
+    assertThat(nonce.result()).isEqualTo(BigInteger.TEN);
+  }
+
+  @Test
+  public void invalidTransactionCountFailsTheNonce() {
+    when(client.request(
+            "eth_getTransactionCount", asList(accountAddress, "pending"), String.class))
+        .thenReturn(Future.succeededFuture("ten"));
+    final EthNonceProvider nonceProvider = new EthNonceProvider(client, accountAddress);
+
+    assertThat(nonceProvider.getNonce().failed()).isTrue();
+  }
+}
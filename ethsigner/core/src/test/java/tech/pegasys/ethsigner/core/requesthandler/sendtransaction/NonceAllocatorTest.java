@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+
+import io.vertx.core.Future;
+import org.junit.Test;
+
+public class NonceAllocatorTest {
+
+  private final NonceProvider nodeNonceProvider = mock(NonceProvider.class);
+  private final NonceAllocator nonceAllocator = new NonceAllocator();
+  private final NonceProvider nonceProvider =
+      nonceAllocator.nonceProvider("account", () -> nodeNonceProvider);
+
+  @Test
+  public void nodeIsAskedOnceForConcurrentNonces() {
+    final Future<BigInteger> nodeNonce = Future.future();
+    when(nodeNonceProvider.getNonce()).thenReturn(nodeNonce);
+
+    final Future<BigInteger> first = nonceProvider.getNonce();
+    final Future<BigInteger> second = nonceProvider.getNonce();
+    nodeNonce.complete(BigInteger.valueOf(5));
+    final Future<BigInteger> third = nonceProvider.getNonce();
+
+    assertThat(first.result()).isEqualTo(BigInteger.valueOf(5));
+    assertThat(second.result()).isEqualTo(BigInteger.valueOf(6));
+    assertThat(third.result()).isEqualTo(BigInteger.valueOf(7));
+    verify(nodeNonceProvider, times(1)).getNonce();
+  }
+
+  @Test
+  public void releasedNonceIsAllocatedBeforeNewNonces() {
+    when(nodeNonceProvider.getNonce()).thenReturn(Future.succeededFuture(BigInteger.ZERO));
+    nonceProvider.getNonce();
+    final BigInteger released = nonceProvider.getNonce().result();
+    nonceProvider.getNonce();
+
+    nonceProvider.release(released);
+
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(released);
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(3));
+  }
+
+  @Test
+  public void releasingLatestNoncesWindsBackNextNonce() {
+    when(nodeNonceProvider.getNonce()).thenReturn(Future.succeededFuture(BigInteger.ZERO));
+    nonceProvider.getNonce();
+    final BigInteger second = nonceProvider.getNonce().result();
+    final BigInteger third = nonceProvider.getNonce().result();
+
+    nonceProvider.release(second);
+    nonceProvider.release(third);
+
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.ONE);
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(2));
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(3));
+  }
+
+  @Test
+  public void nonceReleasedAfterHigherNonceIsConfirmedIsAllocatedAgain() {
+    when(nodeNonceProvider.getNonce()).thenReturn(Future.succeededFuture(BigInteger.ZERO));
+    final BigInteger first = nonceProvider.getNonce().result();
+    final BigInteger second = nonceProvider.getNonce().result();
+
+    nonceProvider.confirm(second);
+    nonceProvider.release(first);
+
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(first);
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(2));
+  }
+
+  @Test
+  public void confirmedNonceIsNotAllocatedAgain() {
+    when(nodeNonceProvider.getNonce()).thenReturn(Future.succeededFuture(BigInteger.ZERO));
+    nonceProvider.getNonce();
+    final BigInteger second = nonceProvider.getNonce().result();
+
+    nonceProvider.confirm(second);
+    nonceProvider.release(second);
+
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(2));
+  }
+
+  @Test
+  public void resyncRetrievesNonceFromNodeAndIgnoresEarlierReleases() {
+    when(nodeNonceProvider.getNonce())
+        .thenReturn(Future.succeededFuture(BigInteger.ZERO))
+        .thenReturn(Future.succeededFuture(BigInteger.TEN));
+    final BigInteger stale = nonceProvider.getNonce().result();
+
+    nonceProvider.resync(stale);
+    nonceProvider.release(stale);
+
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.TEN);
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(11));
+    verify(nodeNonceProvider, times(2)).getNonce();
+  }
+
+  @Test
+  public void failureToRetrieveNonceIsRetriedOnNextAllocation() {
+    final RuntimeException failure = new RuntimeException("Unable to determine nonce");
+    when(nodeNonceProvider.getNonce())
+        .thenReturn(Future.failedFuture(failure))
+        .thenReturn(Future.succeededFuture(BigInteger.ONE));
+
+    assertThat(nonceProvider.getNonce().cause()).isSameAs(failure);
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.ONE);
+  }
+
+  @Test
+  public void providersForSameAccountShareOneRequestToNode() {
+    final Future<BigInteger> nodeNonce = Future.future();
+    when(nodeNonceProvider.getNonce()).thenReturn(nodeNonce);
+    final NonceProvider otherNodeNonceProvider = mock(NonceProvider.class);
+    final NonceProvider otherNonceProvider =
+        nonceAllocator.nonceProvider("account", () -> otherNodeNonceProvider);
+
+    final Future<BigInteger> first = nonceProvider.getNonce();
+    final Future<BigInteger> second = otherNonceProvider.getNonce();
+    nodeNonce.complete(BigInteger.ONE);
+
+    assertThat(first.result()).isEqualTo(BigInteger.ONE);
+    assertThat(second.result()).isEqualTo(BigInteger.valueOf(2));
+    verify(nodeNonceProvider, times(1)).getNonce();
+    verify(otherNodeNonceProvider, never()).getNonce();
+  }
+
+  @Test
+  public void burstOfRejectionsCausesOneRequestToNode() {
+    when(nodeNonceProvider.getNonce())
+        .thenReturn(Future.succeededFuture(BigInteger.ZERO))
+        .thenReturn(Future.succeededFuture(BigInteger.TEN));
+    final BigInteger first = nonceProvider.getNonce().result();
+    final BigInteger second = nonceProvider.getNonce().result();
+
+    nonceProvider.resync(first);
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.TEN);
+    nonceProvider.resync(second);
+
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(11));
+    verify(nodeNonceProvider, times(2)).getNonce();
+  }
+
+  @Test
+  public void rejectionsWhileAwaitingNodeAreIgnored() {
+    final Future<BigInteger> nodeNonce = Future.future();
+    when(nodeNonceProvider.getNonce())
+        .thenReturn(Future.succeededFuture(BigInteger.ZERO))
+        .thenReturn(nodeNonce);
+    final BigInteger first = nonceProvider.getNonce().result();
+    final BigInteger second = nonceProvider.getNonce().result();
+
+    nonceProvider.resync(first);
+    final Future<BigInteger> awaiting = nonceProvider.getNonce();
+    nonceProvider.resync(second);
+    nodeNonce.complete(BigInteger.valueOf(3));
+
+    assertThat(awaiting.result()).isEqualTo(BigInteger.valueOf(3));
+    assertThat(nonceProvider.getNonce().result()).isEqualTo(BigInteger.valueOf(4));
+    verify(nodeNonceProvider, times(2)).getNonce();
+  }
+
+  @Test
+  public void nodeIsNotAskedUntilNonceIsRequired() {
+    nonceAllocator.nonceProvider("unused", () -> nodeNonceProvider).resync(BigInteger.ZERO);
+
+    verify(nodeNonceProvider, never()).getNonce();
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction;
+
+import static java.math.BigInteger.valueOf;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigInteger;
+import java.nio.file.Path;
+
+import io.vertx.core.Future;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class NonceJournalTest {
+
+  private static final String ACCOUNT = "0x7577919ae5df4941180eac211965f275cdce314d";
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void allocationResumesFromJournalAfterRestart() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      journal.synced(ACCOUNT, valueOf(5));
+      journal.allocated(ACCOUNT, valueOf(5));
+      journal.allocated(ACCOUNT, valueOf(6));
+      journal.allocated(ACCOUNT, valueOf(7));
+      journal.confirmed(ACCOUNT, valueOf(5));
+      journal.released(ACCOUNT, valueOf(7));
+      journal.confirmed(ACCOUNT, valueOf(6));
+    }
+
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      final NonceProvider nodeNonceProvider = mock(NonceProvider.class);
+      final NonceProvider nonceProvider =
+          new NonceAllocator(journal).nonceProvider(ACCOUNT, () -> nodeNonceProvider);
+
+      assertThat(allocate(nonceProvider)).isEqualTo(valueOf(7));
+      assertThat(allocate(nonceProvider)).isEqualTo(valueOf(8));
+      verify(nodeNonceProvider, never()).getNonce();
+    }
+  }
+
+  @Test
+  public void accountWithUnconfirmedNonceIsSyncedWithNodeAfterRestart() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      journal.synced(ACCOUNT, valueOf(5));
+      journal.allocated(ACCOUNT, valueOf(5));
+      journal.allocated(ACCOUNT, valueOf(6));
+      journal.confirmed(ACCOUNT, valueOf(5));
+    }
+
+    // Nonce 6 may never have reached the node, so allocating 7 next could leave a gap
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      final NonceProvider nodeNonceProvider = mock(NonceProvider.class);
+      when(nodeNonceProvider.getNonce()).thenReturn(Future.succeededFuture(valueOf(6)));
+      final NonceProvider nonceProvider =
+          new NonceAllocator(journal).nonceProvider(ACCOUNT, () -> nodeNonceProvider);
+
+      assertThat(allocate(nonceProvider)).isEqualTo(valueOf(6));
+      verify(nodeNonceProvider).getNonce();
+    }
+  }
+
+  @Test
+  public void confirmedNonceIsNotReleased() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      journal.synced(ACCOUNT, valueOf(1));
+      journal.allocated(ACCOUNT, valueOf(1));
+      journal.allocated(ACCOUNT, valueOf(2));
+      journal.released(ACCOUNT, valueOf(1));
+      journal.confirmed(ACCOUNT, valueOf(1));
+      journal.released(ACCOUNT, valueOf(2));
+    }
+
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      final NonceSequence sequence = journal.recorded(ACCOUNT).get();
+      assertThat(sequence.released()).isEmpty();
+      assertThat(sequence.lowestUnused()).isEqualTo(valueOf(2));
+      assertThat(sequence.nextNonce()).isEqualTo(valueOf(2));
+    }
+  }
+
+  @Test
+  public void resyncedAccountIsNotRecovered() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      journal.synced(ACCOUNT, valueOf(1));
+      journal.resynced(ACCOUNT);
+    }
+
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      assertThat(journal.recorded(ACCOUNT)).isEmpty();
+    }
+  }
+
+  @Test
+  public void incompleteRecordIsDiscarded() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      journal.synced(ACCOUNT, valueOf(1));
+      journal.allocated(ACCOUNT, valueOf(1));
+    }
+
+    // Corrupts the checksum of the final record, as if the process died while writing it
+    final int recordLength = Integer.BYTES * 2 + 1 + Short.BYTES * 2 + ACCOUNT.length() + 1;
+    try (final RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+      file.seek(recordLength * 2 - 1);
+      final int checksumByte = file.read();
+      file.seek(recordLength * 2 - 1);
+      file.write(checksumByte ^ 0xFF);
+    }
+
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      assertThat(journal.recorded(ACCOUNT).get().nextNonce()).isEqualTo(valueOf(1));
+      journal.allocated(ACCOUNT, valueOf(1));
+      journal.confirmed(ACCOUNT, valueOf(1));
+    }
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      assertThat(journal.recorded(ACCOUNT).get().nextNonce()).isEqualTo(valueOf(2));
+    }
+  }
+
+  @Test
+  public void compactedJournalIsRecoveredWithoutFurtherSync() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    // Confirmations are not awaited, so nothing is waiting on a sync when the journal compacts
+    final long confirmations = 15_000;
+    final NonceJournal journal = NonceJournal.open(path);
+    try {
+      journal.synced(ACCOUNT, BigInteger.ZERO);
+      journal.allocated(ACCOUNT, BigInteger.ZERO);
+      await(journal.pendingWork());
+      for (long nonce = 0; nonce < confirmations; nonce++) {
+        journal.confirmed(ACCOUNT, valueOf(nonce));
+      }
+      await(journal.pendingWork());
+      assertThat(firstRecordNonce(path)).isGreaterThan(BigInteger.ZERO);
+
+      // Opened without closing the compacted journal, as if the process had then died
+      try (final NonceJournal recovered = NonceJournal.open(path)) {
+        final NonceSequence sequence = recovered.recorded(ACCOUNT).get();
+        assertThat(sequence.lowestUnused()).isEqualTo(valueOf(confirmations));
+        assertThat(sequence.nextNonce()).isEqualTo(valueOf(confirmations));
+      }
+    } finally {
+      journal.close();
+    }
+  }
+
+  @Test
+  public void journalIsCompactedWhenFull() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    // Exceeds the initial size of the journal several times over
+    final long allocations = 50_000;
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      journal.synced(ACCOUNT, BigInteger.ZERO);
+      for (long nonce = 0; nonce < allocations; nonce++) {
+        journal.allocated(ACCOUNT, valueOf(nonce));
+        journal.confirmed(ACCOUNT, valueOf(nonce));
+      }
+    }
+
+    try (final NonceJournal journal = NonceJournal.open(path)) {
+      assertThat(journal.recorded(ACCOUNT).get().nextNonce()).isEqualTo(valueOf(allocations));
+    }
+  }
+
+  @Test
+  public void allocationIsNotRecordedOnceClosed() throws IOException {
+    final Path path = folder.getRoot().toPath().resolve("ethsigner.nonces");
+    final NonceJournal journal = NonceJournal.open(path);
+    journal.synced(ACCOUNT, valueOf(1));
+    journal.close();
+
+    assertThat(journal.allocated(ACCOUNT, valueOf(1)).failed()).isTrue();
+  }
+
+  private BigInteger allocate(final NonceProvider nonceProvider) {
+    return await(nonceProvider.getNonce());
+  }
+
+  private static <T> T await(final Future<T> future) {
+    final long deadline = System.currentTimeMillis() + 5_000;
+    while (!future.isComplete() && System.currentTimeMillis() < deadline) {
+      Thread.yield();
+    }
+    return future.result();
+  }
+
+  /** @return the nonce of the first record, which is a snapshot of the account once compacted */
+  private static BigInteger firstRecordNonce(final Path path) throws IOException {
+    try (final RandomAccessFile file = new RandomAccessFile(path.toFile(), "r")) {
+      file.readInt();
+      file.readByte();
+      file.skipBytes(file.readShort());
+      final byte[] nonce = new byte[file.readShort()];
+      file.readFully(nonce);
+      return new BigInteger(nonce);
+    }
+  }
+}
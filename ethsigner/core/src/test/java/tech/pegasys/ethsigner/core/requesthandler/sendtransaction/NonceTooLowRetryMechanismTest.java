@@ -22,6 +22,7 @@ import tech.pegasys.ethsigner.core.jsonrpc.response.JsonRpcErrorResponse;
 import java.math.BigInteger;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.vertx.core.Future;
 import io.vertx.core.http.HttpClientResponse;
 import io.vertx.core.json.Json;
 import org.junit.Before;
@@ -36,7 +37,7 @@ public class NonceTooLowRetryMechanismTest {
 
   @Before
   public void setup() {
-    when(nonceProvider.getNonce()).thenReturn(BigInteger.ONE);
+    when(nonceProvider.getNonce()).thenReturn(Future.succeededFuture(BigInteger.ONE));
   }
 
   @Test
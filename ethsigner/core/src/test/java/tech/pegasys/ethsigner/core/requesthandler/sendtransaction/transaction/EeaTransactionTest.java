@@ -24,6 +24,8 @@ import tech.pegasys.ethsigner.core.jsonrpc.JsonRpcRequestId;
 import java.math.BigInteger;
 import java.util.List;
 
+import io.vertx.core.Future;
+import io.vertx.core.json.Json;
 import org.junit.Before;
 import org.junit.Test;
 import org.web3j.crypto.Sign.SignatureData;
@@ -43,14 +45,17 @@ public class EeaTransactionTest {
             singletonList("GV8m0VZAccYGAAYMBuYQtKEj0XtpXeaw2APcoBmtA2w="),
             "restricted");
     params.receiver("0xd46e8dd67c5d32be8058bb8eb970870f07244567");
-    params.gas("0x76c0");
-    params.gasPrice("0x9184e72a000");
-    params.nonce("0xe04d296d2460cfb8472af2c5fd05b5a214109c25688d3704aed5484f9a7792f2");
-    params.value("0x0");
+    params.gas(decodeQuantity("0x76c0"));
+    params.gasPrice(decodeQuantity("0x9184e72a000"));
+    params.nonce(
+        decodeQuantity("0xe04d296d2460cfb8472af2c5fd05b5a214109c25688d3704aed5484f9a7792f2"));
+    params.value(decodeQuantity("0x0"));
     params.data(
         "0xd46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f072445675");
 
-    eeaTransaction = new EeaTransaction(params, () -> BigInteger.ZERO, new JsonRpcRequestId(1));
+    eeaTransaction =
+        new EeaTransaction(
+            params, () -> Future.succeededFuture(BigInteger.ZERO), new JsonRpcRequestId(1));
   }
 
   @Test
@@ -90,7 +95,10 @@ public class EeaTransactionTest {
     final JsonRpcRequestId id = new JsonRpcRequestId(2);
     final String transactionString =
         "0xf90114a0e04d296d2460cfb8472af2c5fd05b5a214109c25688d3704aed5484f9a7792f28609184e72a0008276c094d46e8dd67c5d32be8058bb8eb970870f0724456704a9d46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f07244567536a0fe72a92aede764ce41d06b163d28700b58e5ee8bb1af91d9d54979ea3bdb3e7ea046ae10c94c322fa44ddceb86677c2cd6cc17dfbd766924f41d10a244c512996dac5a6c617045736c3971444c50792f6538382b2f36797643554556497648383379304e3441367748754b58493dedac4756386d30565a41636359474141594d42755951744b456a3058747058656177324150636f426d744132773d8a72657374726963746564";
-    final JsonRpcRequest jsonRpcRequest = eeaTransaction.jsonRpcRequest(transactionString, id);
+    final JsonRpcRequest jsonRpcRequest =
+        Json.decodeValue(
+            eeaTransaction.jsonRpcRequestBody(Numeric.hexStringToByteArray(transactionString), id),
+            JsonRpcRequest.class);
 
     assertThat(jsonRpcRequest.getMethod()).isEqualTo("eea_sendRawTransaction");
     assertThat(jsonRpcRequest.getVersion()).isEqualTo("2.0");
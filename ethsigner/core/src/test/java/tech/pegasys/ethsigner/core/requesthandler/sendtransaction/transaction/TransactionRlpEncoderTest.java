@@ -0,0 +1,133 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.requesthandler.sendtransaction.transaction;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.util.List;
+
+import org.junit.Test;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.eea.crypto.PrivateTransactionEncoder;
+import org.web3j.protocol.eea.crypto.RawPrivateTransaction;
+import org.web3j.rlp.RlpEncoder;
+import org.web3j.rlp.RlpList;
+
+public class TransactionRlpEncoderTest {
+
+  private static final String DATA =
+      "0xd46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675058bb8eb970870f072445675";
+  private static final String TO = "0xd46e8dd67c5d32be8058bb8eb970870f07244567";
+  private static final BigInteger LARGE_NONCE =
+      new BigInteger("e04d296d2460cfb8472af2c5fd05b5a214109c25688d3704aed5484f9a7792f2", 16);
+
+  private final SignatureData chainIdSignature =
+      new SignatureData(Transaction.longToBytes(2018), new byte[0], new byte[0]);
+  private final SignatureData signature =
+      new SignatureData(
+          new byte[] {0, 0x1c},
+          new BigInteger("fe72a92aede764ce41d06b163d28700b58e5ee8bb1af91d9d54979ea3bdb3e7e", 16)
+              .toByteArray(),
+          new byte[] {0, 0, 3});
+
+  @Test
+  public void encodesTransactionAsWeb3j() {
+    assertMatchesWeb3j(LARGE_NONCE, BigInteger.valueOf(0x9184e72a000L), TO, BigInteger.TEN, DATA);
+  }
+
+  @Test
+  public void encodesSingleByteAndEmptyFieldsAsWeb3j() {
+    assertMatchesWeb3j(BigInteger.ZERO, BigInteger.valueOf(0x7f), "", BigInteger.valueOf(0x80), "");
+    assertMatchesWeb3j(BigInteger.ONE, BigInteger.ZERO, "0x", BigInteger.ZERO, "0x7f");
+    assertMatchesWeb3j(BigInteger.ONE, BigInteger.ZERO, "0x", BigInteger.ZERO, "0x80");
+  }
+
+  @Test
+  public void encodesOddLengthHexAsWeb3j() {
+    assertMatchesWeb3j(BigInteger.ONE, BigInteger.ONE, "0x1", BigInteger.ONE, "abc");
+  }
+
+  @Test
+  public void encodesLongDataAsWeb3j() {
+    final StringBuilder data = new StringBuilder("0x");
+    for (int i = 0; i < 300; i++) {
+      data.append(String.format("%02x", i & 0xff));
+    }
+    assertMatchesWeb3j(LARGE_NONCE, BigInteger.ONE, TO, BigInteger.ONE, data.toString());
+  }
+
+  @Test
+  public void encodesPrivateTransactionAsWeb3j() {
+    assertPrivateMatchesWeb3j(
+        asList(
+            "GV8m0VZAccYGAAYMBuYQtKEj0XtpXeaw2APcoBmtA2w=",
+            "k2zXEin4Ip/qBGlRkJejnGWdP9cjkK+DAvKNW31L2C8="));
+    assertPrivateMatchesWeb3j(emptyList());
+  }
+
+  private void assertMatchesWeb3j(
+      final BigInteger nonce,
+      final BigInteger gasPrice,
+      final String to,
+      final BigInteger value,
+      final String data) {
+    final BigInteger gas = BigInteger.valueOf(90000);
+    final TransactionRlpEncoder encoder =
+        TransactionRlpEncoder.create(nonce, gasPrice, gas, to, value, data);
+    final RawTransaction transaction =
+        RawTransaction.createTransaction(nonce, gasPrice, gas, to, value, data);
+
+    for (final SignatureData signatureData : asList(chainIdSignature, signature)) {
+      final byte[] expected =
+          RlpEncoder.encode(
+              new RlpList(TransactionEncoder.asRlpValues(transaction, signatureData)));
+      assertThat(encoder.encode(signatureData)).isEqualTo(expected);
+    }
+  }
+
+  private void assertPrivateMatchesWeb3j(final List<String> privateFor) {
+    final String privateFrom = "ZlapEsl9qDLPy/e88+/6yvCUEVIvH83y0N4A6wHuKXI=";
+    final TransactionRlpEncoder encoder =
+        TransactionRlpEncoder.createPrivate(
+            LARGE_NONCE,
+            BigInteger.ONE,
+            BigInteger.TEN,
+            TO,
+            DATA,
+            privateFrom,
+            privateFor,
+            "restricted");
+    final RawPrivateTransaction transaction =
+        RawPrivateTransaction.createTransaction(
+            LARGE_NONCE,
+            BigInteger.ONE,
+            BigInteger.TEN,
+            TO,
+            DATA,
+            privateFrom,
+            privateFor,
+            "restricted");
+
+    for (final SignatureData signatureData : asList(chainIdSignature, signature)) {
+      final byte[] expected =
+          RlpEncoder.encode(
+              new RlpList(PrivateTransactionEncoder.asRlpValues(transaction, signatureData)));
+      assertThat(encoder.encode(signatureData)).isEqualTo(expected);
+    }
+  }
+}
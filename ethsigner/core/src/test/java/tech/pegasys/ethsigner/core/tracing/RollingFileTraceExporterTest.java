@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class RollingFileTraceExporterTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private final TraceExportQueue exportQueue = new TraceExportQueue(traces -> {});
+
+  @After
+  public void closeExportQueue() {
+    exportQueue.close();
+  }
+
+  @Test
+  public void eachBatchIsWrittenAsALineOfOtlpJson() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("traces.json");
+    final RollingFileTraceExporter exporter = new RollingFileTraceExporter(file);
+    exporter.export(singletonList(completedTrace()));
+    exporter.export(singletonList(completedTrace()));
+    exporter.close();
+
+    final List<String> lines = Files.readAllLines(file, UTF_8);
+    assertThat(lines).hasSize(2);
+    for (final String line : lines) {
+      assertThat(new JsonObject(line).getJsonArray("resourceSpans")).hasSize(1);
+    }
+  }
+
+  @Test
+  public void fileIsRolledOnceFullDiscardingTheOldest() throws IOException {
+    final Path file = folder.getRoot().toPath().resolve("traces.json");
+    final long lineLength = OtlpJsonEncoder.encode(singletonList(completedTrace())).length + 1;
+    final RollingFileTraceExporter exporter = new RollingFileTraceExporter(file, lineLength, 2);
+    for (int i = 0; i < 4; i++) {
+      exporter.export(singletonList(completedTrace()));
+    }
+    exporter.close();
+
+    assertThat(Files.readAllLines(file, UTF_8)).hasSize(1);
+    assertThat(Files.readAllLines(file.resolveSibling("traces.json.1"), UTF_8)).hasSize(1);
+    assertThat(Files.readAllLines(file.resolveSibling("traces.json.2"), UTF_8)).hasSize(1);
+    assertThat(file.resolveSibling("traces.json.3")).doesNotExist();
+  }
+
+  private RequestTrace completedTrace() {
+    final RequestTrace trace =
+        new RequestTrace("4bf92f3577b34da6a3ce929d0e0e4736", null, exportQueue);
+    trace.setName("eth_sendTransaction");
+    trace.startSpan("sign").end();
+    trace.end();
+    return trace;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.tracing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.RoutingContext;
+import org.junit.Test;
+
+public class TracerTest {
+
+  private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+  private static final String PARENT_ID = "00f067aa0ba902b7";
+
+  private final List<RequestTrace> exported = new CopyOnWriteArrayList<>();
+  private final TraceExporter exporter = exported::addAll;
+
+  @Test
+  public void wellFormedTraceparentIsValid() {
+    assertThat(Tracer.isValidTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-01")).isTrue();
+    assertThat(Tracer.isValidTraceparent("01-" + TRACE_ID + "-" + PARENT_ID + "-00-extra"))
+        .isTrue();
+  }
+
+  @Test
+  public void malformedTraceparentIsInvalid() {
+    assertThat(Tracer.isValidTraceparent(null)).isFalse();
+    assertThat(Tracer.isValidTraceparent("00-" + TRACE_ID + "-" + PARENT_ID)).isFalse();
+    assertThat(Tracer.isValidTraceparent("ff-" + TRACE_ID + "-" + PARENT_ID + "-01")).isFalse();
+    assertThat(Tracer.isValidTraceparent("00-" + TRACE_ID.toUpperCase() + "-" + PARENT_ID + "-01"))
+        .isFalse();
+    assertThat(
+            Tracer.isValidTraceparent(
+                "00-00000000000000000000000000000000-" + PARENT_ID + "-01"))
+        .isFalse();
+    assertThat(Tracer.isValidTraceparent("00-" + TRACE_ID + "-0000000000000000-01")).isFalse();
+    assertThat(Tracer.isValidTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-01x")).isFalse();
+  }
+
+  @Test
+  public void sampledTraceparentJoinsCallersTraceRegardlessOfRatio() throws IOException {
+    final Tracer tracer = new Tracer(0, exporter);
+    final RequestTrace trace =
+        tracer.startTrace(requestWithTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-01"));
+    trace.setName("eth_sendTransaction");
+    trace.startSpan("sign").end();
+    trace.end();
+    tracer.close();
+
+    assertThat(trace.isSampled()).isTrue();
+    assertThat(exported).containsExactly(trace);
+
+    final JsonArray spans =
+        new JsonObject(new String(OtlpJsonEncoder.encode(exported), UTF_8))
+            .getJsonArray("resourceSpans")
+            .getJsonObject(0)
+            .getJsonArray("scopeSpans")
+            .getJsonObject(0)
+            .getJsonArray("spans");
+    assertThat(spans).hasSize(2);
+    final JsonObject root = spans.getJsonObject(0);
+    assertThat(root.getString("traceId")).isEqualTo(TRACE_ID);
+    assertThat(root.getString("parentSpanId")).isEqualTo(PARENT_ID);
+    assertThat(root.getString("name")).isEqualTo("eth_sendTransaction");
+    assertThat(root.getInteger("kind")).isEqualTo(SpanKind.SERVER.otlpValue());
+    final JsonObject stage = spans.getJsonObject(1);
+    assertThat(stage.getString("traceId")).isEqualTo(TRACE_ID);
+    assertThat(stage.getString("parentSpanId")).isEqualTo(root.getString("spanId"));
+    assertThat(stage.getString("name")).isEqualTo("sign");
+  }
+
+  @Test
+  public void unsampledTraceparentIsNotTracedRegardlessOfRatio() {
+    final Tracer tracer = new Tracer(1, exporter);
+    final RequestTrace trace =
+        tracer.startTrace(requestWithTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-00"));
+    tracer.close();
+
+    assertThat(trace).isSameAs(RequestTrace.NOT_SAMPLED);
+  }
+
+  @Test
+  public void requestWithoutTraceparentIsSampledAtRatio() {
+    final Tracer never = new Tracer(0, exporter);
+    final Tracer always = new Tracer(1, exporter);
+
+    assertThat(never.startTrace(requestWithTraceparent(null)).isSampled()).isFalse();
+    final RequestTrace trace = always.startTrace(requestWithTraceparent(null));
+    never.close();
+    always.close();
+
+    assertThat(trace.isSampled()).isTrue();
+    assertThat(trace.getTraceId()).hasSize(32).isNotEqualTo(TRACE_ID);
+    assertThat(trace.getParentSpanId()).isNull();
+  }
+
+  @Test
+  public void disabledTracerSamplesNothing() {
+    final RequestTrace trace =
+        Tracer.disabled()
+            .startTrace(requestWithTraceparent("00-" + TRACE_ID + "-" + PARENT_ID + "-01"));
+
+    assertThat(trace).isSameAs(RequestTrace.NOT_SAMPLED);
+    assertThat(trace.startSpan("sign")).isSameAs(Span.NOT_SAMPLED);
+  }
+
+  private RoutingContext requestWithTraceparent(final String traceparent) {
+    final RoutingContext context = mock(RoutingContext.class);
+    final HttpServerRequest request = mock(HttpServerRequest.class);
+    when(context.request()).thenReturn(request);
+    when(request.getHeader(Tracer.TRACEPARENT_HEADER)).thenReturn(traceparent);
+    return context;
+  }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.azure;
+
+import java.net.MalformedURLException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.microsoft.aad.adal4j.AuthenticationContext;
+import com.microsoft.aad.adal4j.AuthenticationResult;
+import com.microsoft.aad.adal4j.ClientCredential;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Holds the access tokens acquired from Azure AD, for each authority and resource the vault
+ * challenges with, and refreshes them on a background thread shortly before they expire.
+ *
+ * <p>Only the first request to a vault waits on a token being acquired, or any request made after
+ * refreshing has failed for long enough that the token has expired.
+ */
+class AccessTokenCache {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private static final long REFRESH_BEFORE_EXPIRY_MILLIS = TimeUnit.MINUTES.toMillis(5);
+  private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(10);
+  // Azure AD's shortest configurable lifetime, assumed for a token whose lifetime is not reported
+  private static final long MIN_LIFETIME_SECONDS = TimeUnit.MINUTES.toSeconds(10);
+
+  @FunctionalInterface
+  interface TokenSource {
+    AuthenticationResult acquire(String authorization, String resource)
+        throws InterruptedException, ExecutionException, MalformedURLException;
+  }
+
+  private final TokenSource tokenSource;
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, CachedToken> tokens = new ConcurrentHashMap<>();
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+  AccessTokenCache(final ClientCredential credentials) {
+    this(
+        adalTokenSource(credentials, Executors.newCachedThreadPool(daemonThreads("azure-ad-%d"))),
+        Executors.newSingleThreadScheduledExecutor(daemonThreads("azure-ad-token-refresh")));
+  }
+
+  AccessTokenCache(final TokenSource tokenSource, final ScheduledExecutorService scheduler) {
+    this.tokenSource = tokenSource;
+    this.scheduler = scheduler;
+  }
+
+  String getAccessToken(final String authorization, final String resource)
+      throws InterruptedException, ExecutionException, MalformedURLException {
+    final String key = authorization + " " + resource;
+    final CachedToken cached = tokens.get(key);
+    if (cached != null && !cached.hasExpired()) {
+      return cached.accessToken;
+    }
+    return acquire(key, authorization, resource).accessToken;
+  }
+
+  private synchronized CachedToken acquire(
+      final String key, final String authorization, final String resource)
+      throws InterruptedException, ExecutionException, MalformedURLException {
+    // Another request may have acquired the token while this one waited
+    final CachedToken cached = tokens.get(key);
+    if (cached != null && !cached.hasExpired()) {
+      return cached;
+    }
+
+    final CachedToken token = new CachedToken(tokenSource.acquire(authorization, resource));
+    tokens.put(key, token);
+    if (refreshing.add(key)) {
+      scheduleRefresh(key, authorization, resource, token.refreshDelayMillis());
+    }
+    return token;
+  }
+
+  private void refresh(final String key, final String authorization, final String resource) {
+    long delayMillis;
+    try {
+      final CachedToken token = new CachedToken(tokenSource.acquire(authorization, resource));
+      tokens.put(key, token);
+      delayMillis = token.refreshDelayMillis();
+      LOG.debug("Refreshed access token for {}", resource);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (final Exception e) {
+      LOG.warn("Failed to refresh access token for {}, will retry", resource, e);
+      delayMillis = RETRY_DELAY_MILLIS;
+    }
+    scheduleRefresh(key, authorization, resource, delayMillis);
+  }
+
+  private void scheduleRefresh(
+      final String key, final String authorization, final String resource, final long delayMillis) {
+    scheduler.schedule(
+        () -> refresh(key, authorization, resource), delayMillis, TimeUnit.MILLISECONDS);
+  }
+
+  private static TokenSource adalTokenSource(
+      final ClientCredential credentials, final ExecutorService executor) {
+    return (authorization, resource) -> {
+      final AuthenticationContext context =
+          new AuthenticationContext(authorization, false, executor);
+      final AuthenticationResult result = context.acquireToken(resource, credentials, null).get();
+      if (result == null) {
+        throw new RuntimeException("Authentication results were null.");
+      }
+      return result;
+    };
+  }
+
+  private static ThreadFactory daemonThreads(final String nameFormat) {
+    return new ThreadFactoryBuilder().setNameFormat(nameFormat).setDaemon(true).build();
+  }
+
+  /**
+   * An access token with the time it expires, as adal4j only reports the lifetime in seconds that
+   * the token had when it was acquired.
+   */
+  private static class CachedToken {
+    private final String accessToken;
+    private final long expiresAtMillis;
+
+    private CachedToken(final AuthenticationResult result) {
+      final long lifetimeSeconds =
+          result.getExpiresOn() == 0 ? MIN_LIFETIME_SECONDS : result.getExpiresOn();
+      this.accessToken = result.getAccessToken();
+      this.expiresAtMillis =
+          System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(lifetimeSeconds);
+    }
+
+    private boolean hasExpired() {
+      return expiresAtMillis <= System.currentTimeMillis();
+    }
+
+    /** @return the delay until the token is refreshed, before it expires but never immediately */
+    private long refreshDelayMillis() {
+      final long lifetimeMillis = expiresAtMillis - System.currentTimeMillis();
+      return Math.max(lifetimeMillis - REFRESH_BEFORE_EXPIRY_MILLIS, lifetimeMillis / 2);
+    }
+  }
+}
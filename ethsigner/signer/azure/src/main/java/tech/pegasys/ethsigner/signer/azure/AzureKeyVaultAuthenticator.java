@@ -14,19 +14,18 @@ package tech.pegasys.ethsigner.signer.azure;
 
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
 
-import java.net.MalformedURLException;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
-import com.microsoft.aad.adal4j.AuthenticationContext;
-import com.microsoft.aad.adal4j.AuthenticationResult;
 import com.microsoft.aad.adal4j.ClientCredential;
+import com.microsoft.azure.AzureResponseBuilder;
 import com.microsoft.azure.keyvault.KeyVaultClient;
 import com.microsoft.azure.keyvault.KeyVaultClientCustom;
 import com.microsoft.azure.keyvault.authentication.KeyVaultCredentials;
+import com.microsoft.azure.serializer.AzureJacksonAdapter;
+import com.microsoft.rest.RestClient;
 import com.microsoft.rest.credentials.ServiceClientCredentials;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -35,14 +34,44 @@ public class AzureKeyVaultAuthenticator {
   private static final Logger LOG = LogManager.getLogger();
   public static final String AUTHENTICATION_FAILURE_MESSAGE =
       "Failed to get token from Azure vault";
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 20;
+
+  private static final long CONNECTION_KEEP_ALIVE_MINUTES = 5;
 
   public KeyVaultClientCustom getAuthenticatedClient(
       final String clientId, final String clientSecret) {
+    return getAuthenticatedClient(clientId, clientSecret, DEFAULT_MAX_CONCURRENT_REQUESTS);
+  }
+
+  /**
+   * Signing requests are made asynchronously, so the dispatcher bounds how many are in flight to
+   * the vault, queueing any others, while connections are kept alive (over HTTP/2 where the vault
+   * negotiates it) between them.
+   */
+  public KeyVaultClientCustom getAuthenticatedClient(
+      final String clientId, final String clientSecret, final int maxConcurrentRequests) {
     final ClientCredential credentials = new ClientCredential(clientId, clientSecret);
-    return new KeyVaultClient(createKeyVaultClient(credentials));
+
+    final Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxConcurrentRequests);
+    dispatcher.setMaxRequestsPerHost(maxConcurrentRequests);
+
+    final RestClient restClient =
+        new RestClient.Builder()
+            .withBaseUrl("https://{vaultBaseUrl}")
+            .withCredentials(createKeyVaultClient(credentials))
+            .withSerializerAdapter(new AzureJacksonAdapter())
+            .withResponseBuilderFactory(new AzureResponseBuilder.Factory())
+            .withDispatcher(dispatcher)
+            .withConnectionPool(
+                new ConnectionPool(
+                    maxConcurrentRequests, CONNECTION_KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+            .build();
+    return new KeyVaultClient(restClient);
   }
 
   private ServiceClientCredentials createKeyVaultClient(final ClientCredential credentials) {
+    final AccessTokenCache tokenCache = new AccessTokenCache(credentials);
     return new KeyVaultCredentials() {
 
       // Callback that supplies the token type and access token on request.
@@ -52,9 +81,7 @@ public class AzureKeyVaultAuthenticator {
           final String authorization, final String resource, final String scope) {
 
         try {
-          final AuthenticationResult authResult =
-              getAccessToken(authorization, resource, credentials);
-          return authResult.getAccessToken();
+          return tokenCache.getAccessToken(authorization, resource);
         } catch (final Exception e) {
           LOG.error(AUTHENTICATION_FAILURE_MESSAGE, e);
           throw new TransactionSignerInitializationException(AUTHENTICATION_FAILURE_MESSAGE, e);
@@ -62,31 +89,4 @@ public class AzureKeyVaultAuthenticator {
       }
     };
   }
-
-  /**
-   * Private helper method that gets the access token for the authorization and resource depending
-   * on which variables are supplied in the environment.
-   */
-  private AuthenticationResult getAccessToken(
-      final String authorization, final String resource, final ClientCredential credentials)
-      throws InterruptedException, ExecutionException, MalformedURLException {
-
-    AuthenticationResult result = null;
-
-    // Starts a service to fetch access token.
-    final ExecutorService service = Executors.newFixedThreadPool(1);
-    try {
-      final AuthenticationContext context =
-          new AuthenticationContext(authorization, false, service);
-      final Future<AuthenticationResult> future = context.acquireToken(resource, credentials, null);
-      result = future.get();
-    } finally {
-      service.shutdown();
-    }
-
-    if (result == null) {
-      throw new RuntimeException("Authentication results were null.");
-    }
-    return result;
-  }
 }
@@ -12,29 +12,31 @@
  */
 package tech.pegasys.ethsigner.signer.azure;
 
+import tech.pegasys.ethsigner.core.jfr.FlightRecorderEvent;
+import tech.pegasys.ethsigner.core.signing.AsyncTransactionSigner;
+import tech.pegasys.ethsigner.core.signing.RecoverableSignatureFactory;
 import tech.pegasys.ethsigner.core.signing.Signature;
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 
 import com.microsoft.azure.keyvault.KeyVaultClientCustom;
 import com.microsoft.azure.keyvault.models.KeyOperationResult;
 import com.microsoft.azure.keyvault.webkey.JsonWebKeySignatureAlgorithm;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.web3j.crypto.ECDSASignature;
+import com.microsoft.rest.ServiceCallback;
 import org.web3j.crypto.Hash;
 import org.web3j.crypto.Keys;
-import org.web3j.crypto.Sign;
 
-public class AzureKeyVaultTransactionSigner implements TransactionSigner {
+public class AzureKeyVaultTransactionSigner implements AsyncTransactionSigner {
 
-  private static final Logger LOG = LogManager.getLogger();
+  private static final FlightRecorderEvent SIGN_EVENT =
+      FlightRecorderEvent.define(
+          "tech.pegasys.ethsigner.AzureKeyVaultSign", "Azure Key Vault Signing", "sender", "key");
 
   private final KeyVaultClientCustom client;
   private final String keyId;
-  private final BigInteger publicKey;
+  private final RecoverableSignatureFactory signatureFactory;
   private final String address;
   private final JsonWebKeySignatureAlgorithm signingAlgo =
       new JsonWebKeySignatureAlgorithm("ECDSA256");
@@ -43,16 +45,50 @@ public class AzureKeyVaultTransactionSigner implements TransactionSigner {
       final KeyVaultClientCustom client, final String keyId, final BigInteger publicKey) {
     this.client = client;
     this.keyId = keyId;
-    this.publicKey = publicKey;
+    this.signatureFactory = new RecoverableSignatureFactory(publicKey);
     this.address = "0x" + Keys.getAddress(publicKey);
   }
 
   @Override
   public Signature sign(final byte[] data) {
     final byte[] hash = Hash.sha3(data);
+    final Object event = SIGN_EVENT.begin();
     final KeyOperationResult result = client.sign(keyId, signingAlgo, hash);
-    final byte[] signature = result.result();
+    SIGN_EVENT.commit(event, address, keyId);
+    return toSignature(result.result(), hash);
+  }
+
+  /** The request is queued on the client's dispatcher, and completed on its callback thread. */
+  @Override
+  public CompletableFuture<Signature> signAsync(final byte[] data) {
+    final byte[] hash = Hash.sha3(data);
+    final CompletableFuture<Signature> signature = new CompletableFuture<>();
+    final Object event = SIGN_EVENT.begin();
+    client.signAsync(
+        keyId,
+        signingAlgo,
+        hash,
+        new ServiceCallback<KeyOperationResult>() {
+          @Override
+          public void failure(final Throwable t) {
+            SIGN_EVENT.commit(event, address, keyId);
+            signature.completeExceptionally(t);
+          }
 
+          @Override
+          public void success(final KeyOperationResult result) {
+            SIGN_EVENT.commit(event, address, keyId);
+            try {
+              signature.complete(toSignature(result.result(), hash));
+            } catch (final RuntimeException e) {
+              signature.completeExceptionally(e);
+            }
+          }
+        });
+    return signature;
+  }
+
+  private Signature toSignature(final byte[] signature, final byte[] hash) {
     if (signature.length != 64) {
       throw new RuntimeException(
           "Invalid signature from the keyvault signing service, must be 64 bytes long");
@@ -65,32 +101,12 @@ public class AzureKeyVaultTransactionSigner implements TransactionSigner {
     final BigInteger R = new BigInteger(1, Arrays.copyOfRange(signature, 0, 32));
     final BigInteger S = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
 
-    // The Azure Signature MAY be in the "top" of the curve, which is illegal in Ethereum
-    // thus it must be transposed to the lower intersection.
-    final ECDSASignature initialSignature = new ECDSASignature(R, S);
-    final ECDSASignature canonicalSignature = initialSignature.toCanonicalised();
-
-    // Now we have to work backwards to figure out the recId needed to recover the signature.
-    final int recId = recoverKeyIndex(canonicalSignature, hash);
-    if (recId == -1) {
-      throw new RuntimeException(
-          "Could not construct a recoverable key. Are your credentials valid?");
-    }
-
-    final int headerByte = recId + 27;
-    return new Signature(
-        BigInteger.valueOf(headerByte), canonicalSignature.r, canonicalSignature.s);
-  }
-
-  private int recoverKeyIndex(final ECDSASignature sig, final byte[] hash) {
-    for (int i = 0; i < 4; i++) {
-      final BigInteger k = Sign.recoverFromSignature(i, sig, hash);
-      LOG.trace("recovered key: {}", k);
-      if (k != null && k.equals(publicKey)) {
-        return i;
-      }
-    }
-    return -1;
+    return signatureFactory
+        .create(R, S, hash)
+        .orElseThrow(
+            () ->
+                new RuntimeException(
+                    "Could not construct a recoverable key. Are your credentials valid?"));
   }
 
   @Override
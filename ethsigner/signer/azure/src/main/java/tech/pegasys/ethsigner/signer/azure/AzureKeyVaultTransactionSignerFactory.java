@@ -16,9 +16,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerRegistry;
 
 import java.math.BigInteger;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.primitives.Bytes;
 import com.microsoft.azure.keyvault.KeyIdentifier;
@@ -36,6 +40,8 @@ public class AzureKeyVaultTransactionSignerFactory {
   public static final String INVALID_VAULT_PARAMETERS_ERROR_PATTERN =
       "Specified key vault (%s) does not exist.";
   public static final String UNKNOWN_VAULT_ACCESS_ERROR = "Failed to access the Azure key vault";
+  public static final String MISMATCHED_KEY_VERSIONS_ERROR =
+      "A key version must be specified for each key name";
 
   private static final Logger LOG = LogManager.getLogger();
 
@@ -50,6 +56,27 @@ public class AzureKeyVaultTransactionSignerFactory {
     this.baseUrl = constructAzureKeyVaultUrl(keyVaultName);
   }
 
+  /** Creates a signer for each key name, with the key version at the same position. */
+  public TransactionSignerProvider createSignerProvider(
+      final List<String> keyNames, final List<String> keyVersions) {
+    if (keyNames.size() != keyVersions.size()) {
+      LOG.error(MISMATCHED_KEY_VERSIONS_ERROR);
+      throw new TransactionSignerInitializationException(MISMATCHED_KEY_VERSIONS_ERROR);
+    }
+
+    final List<TransactionSigner> signers = new ArrayList<>();
+    for (int i = 0; i < keyNames.size(); i++) {
+      signers.add(createSigner(keyNames.get(i), keyVersions.get(i)));
+    }
+
+    try {
+      return new TransactionSignerRegistry(signers);
+    } catch (final IllegalArgumentException e) {
+      LOG.error(e.getMessage());
+      throw new TransactionSignerInitializationException(e.getMessage(), e);
+    }
+  }
+
   public TransactionSigner createSigner(final String keyName, final String keyVersion) {
     checkNotNull(keyName, "keyName must be specified");
 
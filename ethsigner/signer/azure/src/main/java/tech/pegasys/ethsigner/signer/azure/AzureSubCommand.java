@@ -14,11 +14,12 @@ package tech.pegasys.ethsigner.signer.azure;
 
 import tech.pegasys.ethsigner.SignerSubCommand;
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import com.google.common.base.Charsets;
 import com.microsoft.azure.keyvault.KeyVaultClientCustom;
@@ -41,15 +42,18 @@ public class AzureSubCommand extends SignerSubCommand {
 
   @Option(
       names = {"--key-name"},
-      description = "The name of the key which is to be used",
-      required = true)
-  private String keyName;
+      description =
+          "The name of a key which is to be used. May be repeated, with a --key-version for each",
+      required = true,
+      arity = "1")
+  private List<String> keyNames;
 
   @Option(
       names = {"--key-version"},
-      description = "The version of the requested key to use",
-      required = true)
-  private String keyVersion;
+      description = "The version of the requested key to use, in the order of the key names",
+      required = true,
+      arity = "1")
+  private List<String> keyVersions;
 
   @Option(
       names = {"--client-id"},
@@ -64,11 +68,20 @@ public class AzureSubCommand extends SignerSubCommand {
       required = true)
   private Path clientSecretPath;
 
+  @SuppressWarnings("FieldMayBeFinal")
+  @Option(
+      names = {"--max-concurrent-requests"},
+      description =
+          "Maximum number of signing requests sent to the vault at once, others are queued (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private int maxConcurrentRequests = AzureKeyVaultAuthenticator.DEFAULT_MAX_CONCURRENT_REQUESTS;
+
   private static final String READ_SECRET_FILE_ERROR = "Error when reading the secret from file.";
   public static final String COMMAND_NAME = "azure-signer";
 
   @Override
-  public TransactionSigner createSigner() throws TransactionSignerInitializationException {
+  public TransactionSignerProvider createSignerProvider()
+      throws TransactionSignerInitializationException {
     final String clientSecret;
     try {
       clientSecret = readSecretFromFile(clientSecretPath);
@@ -78,10 +91,10 @@ public class AzureSubCommand extends SignerSubCommand {
 
     final AzureKeyVaultAuthenticator authenticator = new AzureKeyVaultAuthenticator();
     final KeyVaultClientCustom client =
-        authenticator.getAuthenticatedClient(clientId, clientSecret);
+        authenticator.getAuthenticatedClient(clientId, clientSecret, maxConcurrentRequests);
     final AzureKeyVaultTransactionSignerFactory factory =
         new AzureKeyVaultTransactionSignerFactory(keyvaultName, client);
-    return factory.createSigner(keyName, keyVersion);
+    return factory.createSignerProvider(keyNames, keyVersions);
   }
 
   @Override
@@ -89,6 +102,11 @@ public class AzureSubCommand extends SignerSubCommand {
     return COMMAND_NAME;
   }
 
+  @Override
+  public String getSigningBackend() {
+    return "azure";
+  }
+
   private static String readSecretFromFile(final Path path) throws IOException {
     final byte[] fileContent = Files.readAllBytes(path);
     return new String(fileContent, Charsets.UTF_8);
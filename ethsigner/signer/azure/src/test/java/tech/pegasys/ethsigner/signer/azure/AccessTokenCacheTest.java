@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.azure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.ethsigner.signer.azure.AccessTokenCache.TokenSource;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.microsoft.aad.adal4j.AuthenticationResult;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+public class AccessTokenCacheTest {
+
+  private static final String AUTHORIZATION = "https://login.windows.net/tenant";
+  private static final String RESOURCE = "https://vault.azure.net";
+
+  private final TokenSource tokenSource = mock(TokenSource.class);
+  private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+  private final AccessTokenCache cache = new AccessTokenCache(tokenSource, scheduler);
+
+  @Test
+  public void tokenIsAcquiredOnceAndReused() throws Exception {
+    final AuthenticationResult token = token("first", TimeUnit.HOURS.toSeconds(1));
+    when(tokenSource.acquire(AUTHORIZATION, RESOURCE)).thenReturn(token);
+
+    assertThat(cache.getAccessToken(AUTHORIZATION, RESOURCE)).isEqualTo("first");
+    assertThat(cache.getAccessToken(AUTHORIZATION, RESOURCE)).isEqualTo("first");
+
+    verify(tokenSource, times(1)).acquire(AUTHORIZATION, RESOURCE);
+  }
+
+  @Test
+  public void refreshIsScheduledBeforeExpiryAndReplacesTheToken() throws Exception {
+    final AuthenticationResult first = token("first", TimeUnit.HOURS.toSeconds(1));
+    final AuthenticationResult second = token("second", TimeUnit.HOURS.toSeconds(1));
+    when(tokenSource.acquire(AUTHORIZATION, RESOURCE)).thenReturn(first, second);
+
+    cache.getAccessToken(AUTHORIZATION, RESOURCE);
+
+    final ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+    final ArgumentCaptor<Long> delay = ArgumentCaptor.forClass(Long.class);
+    verify(scheduler).schedule(refresh.capture(), delay.capture(), eq(TimeUnit.MILLISECONDS));
+    assertThat(delay.getValue())
+        .isLessThanOrEqualTo(TimeUnit.MINUTES.toMillis(55))
+        .isGreaterThan(TimeUnit.MINUTES.toMillis(50));
+
+    refresh.getValue().run();
+
+    assertThat(cache.getAccessToken(AUTHORIZATION, RESOURCE)).isEqualTo("second");
+    verify(tokenSource, times(2)).acquire(AUTHORIZATION, RESOURCE);
+    verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any());
+  }
+
+  @Test
+  public void failedRefreshRetainsTokenAndIsRetried() throws Exception {
+    final AuthenticationResult first = token("first", TimeUnit.HOURS.toSeconds(1));
+    when(tokenSource.acquire(AUTHORIZATION, RESOURCE))
+        .thenReturn(first)
+        .thenThrow(new IllegalStateException("Azure AD unavailable"));
+
+    cache.getAccessToken(AUTHORIZATION, RESOURCE);
+    final ArgumentCaptor<Runnable> refresh = ArgumentCaptor.forClass(Runnable.class);
+    verify(scheduler).schedule(refresh.capture(), anyLong(), any());
+
+    refresh.getValue().run();
+
+    assertThat(cache.getAccessToken(AUTHORIZATION, RESOURCE)).isEqualTo("first");
+    verify(scheduler)
+        .schedule(
+            any(Runnable.class), eq(TimeUnit.SECONDS.toMillis(10)), eq(TimeUnit.MILLISECONDS));
+  }
+
+  @Test
+  public void expiredTokenIsReacquiredWithoutSchedulingAnotherRefresh() throws Exception {
+    final AuthenticationResult expired = token("expired", -1);
+    final AuthenticationResult current = token("current", TimeUnit.HOURS.toSeconds(1));
+    when(tokenSource.acquire(AUTHORIZATION, RESOURCE)).thenReturn(expired, current);
+
+    cache.getAccessToken(AUTHORIZATION, RESOURCE);
+    assertThat(cache.getAccessToken(AUTHORIZATION, RESOURCE)).isEqualTo("current");
+
+    verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+  }
+
+  private AuthenticationResult token(final String accessToken, final long lifetimeSeconds) {
+    return new AuthenticationResult("Bearer", accessToken, null, lifetimeSeconds, null, false);
+  }
+}
@@ -12,11 +12,14 @@
  */
 package tech.pegasys.ethsigner.signer.azure;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import tech.pegasys.ethsigner.TransactionSignerInitializationException;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
 
 import java.math.BigInteger;
@@ -56,4 +59,17 @@ public class AzureKeyVaultTransactionSignerFactoryTest {
     TransactionSigner signer = factory.createSigner(keyName, keyVersion);
     assertThat(signer.getAddress()).isEqualTo(expectedAddress);
   }
+
+  @Test
+  public void keyNamesWithoutMatchingVersionsAreRejected() {
+    final AzureKeyVaultTransactionSignerFactory factory =
+        new AzureKeyVaultTransactionSignerFactory("arbitraryKeyVault", mock(KeyVaultClient.class));
+
+    assertThatThrownBy(
+            () ->
+                factory.createSignerProvider(
+                    Arrays.asList("firstKey", "secondKey"), singletonList("firstVersion")))
+        .isInstanceOf(TransactionSignerInitializationException.class)
+        .hasMessage(AzureKeyVaultTransactionSignerFactory.MISMATCHED_KEY_VERSIONS_ERROR);
+  }
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.azure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import tech.pegasys.ethsigner.core.signing.Signature;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.microsoft.azure.keyvault.KeyVaultClientCustom;
+import com.microsoft.azure.keyvault.models.KeyOperationResult;
+import com.microsoft.rest.ServiceCallback;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.junit.Test;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.utils.Numeric;
+
+public class AzureKeyVaultTransactionSignerTest {
+
+  private static final String KEY_ID = "https://arbitrary.vault.azure.net/keys/key/version";
+  private static final X9ECParameters CURVE = CustomNamedCurves.getByName("secp256k1");
+
+  private final ECKeyPair keyPair =
+      ECKeyPair.create(
+          new BigInteger("8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63", 16));
+  private final KeyVaultClientCustom client = mock(KeyVaultClientCustom.class);
+  private final AzureKeyVaultTransactionSigner signer =
+      new AzureKeyVaultTransactionSigner(client, KEY_ID, keyPair.getPublicKey());
+  private final Random random = new Random(1);
+
+  @Test
+  public void publicKeyIsRecoverableFromSignatures() throws SignatureException {
+    // Azure signatures are not canonical, so roughly half of these will have their s negated
+    for (int i = 0; i < 20; i++) {
+      final byte[] data = new byte[100];
+      random.nextBytes(data);
+      respondToSigningWith(azureSignature(data));
+
+      final Signature signature = signer.sign(data);
+
+      assertThat(signature.getS()).isLessThanOrEqualTo(CURVE.getN().shiftRight(1));
+      final SignatureData signatureData =
+          new SignatureData(
+              new byte[] {signature.getV().byteValueExact()},
+              Numeric.toBytesPadded(signature.getR(), 32),
+              Numeric.toBytesPadded(signature.getS(), 32));
+      assertThat(Sign.signedMessageToKey(data, signatureData)).isEqualTo(keyPair.getPublicKey());
+    }
+  }
+
+  @Test
+  public void signatureOfAnotherKeyIsRejected() {
+    final byte[] data = new byte[] {1, 2, 3};
+    final byte[] otherSignature = azureSignature(data);
+    otherSignature[63] ^= 1;
+    respondToSigningWith(otherSignature);
+
+    assertThatThrownBy(() -> signer.sign(data)).isInstanceOf(RuntimeException.class);
+  }
+
+  @Test
+  public void asyncSignatureIsCompletedByTheVaultCallback() throws SignatureException {
+    final byte[] data = new byte[] {4, 5, 6};
+    final byte[] azureSignature = azureSignature(data);
+    final KeyOperationResult result = mock(KeyOperationResult.class);
+    when(result.result()).thenReturn(azureSignature);
+    answerSigningAsyncWith(callback -> callback.success(result));
+
+    final Signature signature = signer.signAsync(data).join();
+
+    final SignatureData signatureData =
+        new SignatureData(
+            new byte[] {signature.getV().byteValueExact()},
+            Numeric.toBytesPadded(signature.getR(), 32),
+            Numeric.toBytesPadded(signature.getS(), 32));
+    assertThat(Sign.signedMessageToKey(data, signatureData)).isEqualTo(keyPair.getPublicKey());
+  }
+
+  @Test
+  public void asyncSigningFailureCompletesTheFutureExceptionally() {
+    final IllegalStateException failure = new IllegalStateException("vault unavailable");
+    answerSigningAsyncWith(callback -> callback.failure(failure));
+
+    final CompletableFuture<Signature> signature = signer.signAsync(new byte[] {1});
+
+    assertThatThrownBy(signature::get).isInstanceOf(ExecutionException.class).hasCause(failure);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void answerSigningAsyncWith(final CallbackAnswer answer) {
+    doAnswer(
+            invocation -> {
+              final ServiceCallback<KeyOperationResult> callback = invocation.getArgument(3);
+              // Responses arrive on the HTTP client's thread, not the caller's
+              final Thread vaultThread = new Thread(() -> answer.apply(callback));
+              vaultThread.start();
+              return null;
+            })
+        .when(client)
+        .signAsync(eq(KEY_ID), any(), any(), any(ServiceCallback.class));
+  }
+
+  private interface CallbackAnswer {
+    void apply(ServiceCallback<KeyOperationResult> callback);
+  }
+
+  private void respondToSigningWith(final byte[] signature) {
+    final KeyOperationResult result = mock(KeyOperationResult.class);
+    when(result.result()).thenReturn(signature);
+    when(client.sign(eq(KEY_ID), any(), any())).thenReturn(result);
+  }
+
+  private byte[] azureSignature(final byte[] data) {
+    final ECDSASigner ecdsaSigner = new ECDSASigner();
+    ecdsaSigner.init(
+        true,
+        new ECPrivateKeyParameters(
+            keyPair.getPrivateKey(),
+            new ECDomainParameters(CURVE.getCurve(), CURVE.getG(), CURVE.getN())));
+    final BigInteger[] components = ecdsaSigner.generateSignature(Hash.sha3(data));
+
+    final byte[] signature = new byte[64];
+    System.arraycopy(Numeric.toBytesPadded(components[0], 32), 0, signature, 0, 32);
+    System.arraycopy(Numeric.toBytesPadded(components[1], 32), 0, signature, 32, 32);
+    return signature;
+  }
+}
@@ -15,27 +15,21 @@ package tech.pegasys.ethsigner.signer.filebased;
 import tech.pegasys.ethsigner.core.signing.Signature;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
 
-import java.math.BigInteger;
-
 import org.web3j.crypto.Credentials;
-import org.web3j.crypto.Sign;
-import org.web3j.crypto.Sign.SignatureData;
 
 public class CredentialTransactionSigner implements TransactionSigner {
 
   private final Credentials credentials;
+  private final Secp256k1Signer signer;
 
   public CredentialTransactionSigner(final Credentials credentials) {
     this.credentials = credentials;
+    this.signer = new Secp256k1Signer(credentials.getEcKeyPair().getPrivateKey());
   }
 
   @Override
   public Signature sign(final byte[] data) {
-    final SignatureData signature = Sign.signMessage(data, credentials.getEcKeyPair());
-    return new Signature(
-        new BigInteger(signature.getV()),
-        new BigInteger(signature.getR()),
-        new BigInteger(signature.getS()));
+    return signer.sign(data);
   }
 
   @Override
@@ -14,17 +14,29 @@ package tech.pegasys.ethsigner.signer.filebased;
 
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerRegistry;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
 
 import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.web3j.crypto.CipherException;
 import org.web3j.crypto.Credentials;
-import org.web3j.crypto.WalletUtils;
+import org.web3j.crypto.Wallet;
+import org.web3j.crypto.WalletFile;
+import org.web3j.protocol.ObjectMapperFactory;
 
 public class FileBasedSignerFactory {
 
@@ -34,31 +46,183 @@ public class FileBasedSignerFactory {
       "Error when reading key file for the file based signer.";
   private static final String DECRYPTING_KEY_FILE_MESSAGE =
       "Error when decrypting key for the file based signer.";
+  private static final String LIST_KEY_DIRECTORY_MESSAGE =
+      "Error when listing key files in directory ";
+  private static final String MISSING_ADDRESS_MESSAGE =
+      "Key file does not contain its address, so cannot be decrypted lazily: ";
+  private static final String PASSWORD_FILE_SUFFIX = ".password";
+
+  // Concurrent decryptions may together use up to this fraction of the heap
+  private static final long DECRYPTION_HEAP_DIVISOR = 2;
+
+  /**
+   * Creates a signer for each key file, where a directory stands for every file within it other
+   * than password files. A key file is decrypted with the password in its sibling "[key
+   * file].password" file if there is one, otherwise with that in the password file.
+   *
+   * <p>Key files are decrypted in parallel, by as many threads as there are processors, or fewer
+   * if their key derivation would together use more than half of the heap. When decryption is
+   * lazy, a signer's address is read from its key file, which is decrypted when it first signs.
+   */
+  public static TransactionSignerProvider createSignerProvider(
+      final List<Path> keyFilePaths, final Path passwordFilePath, final boolean lazyDecryption) {
+    final List<Path> expandedKeyFilePaths = expandKeyFilePaths(keyFilePaths);
+    final List<WalletFile> walletFiles = new ArrayList<>();
+    final List<String> passwords = new ArrayList<>();
+    for (final Path keyFilePath : expandedKeyFilePaths) {
+      final Path keyPasswordFilePath =
+          keyFilePath.resolveSibling(keyFilePath.getFileName() + PASSWORD_FILE_SUFFIX);
+      walletFiles.add(readWalletFile(keyFilePath));
+      passwords.add(
+          readPassword(Files.exists(keyPasswordFilePath) ? keyPasswordFilePath : passwordFilePath));
+    }
+
+    final List<TransactionSigner> signers;
+    if (lazyDecryption) {
+      signers = new ArrayList<>();
+      for (int i = 0; i < expandedKeyFilePaths.size(); i++) {
+        final Path keyFilePath = expandedKeyFilePaths.get(i);
+        if (walletFiles.get(i).getAddress() == null) {
+          final String message = MISSING_ADDRESS_MESSAGE + keyFilePath.toString();
+          LOG.error(message);
+          throw new TransactionSignerInitializationException(message);
+        }
+        signers.add(
+            new LazyCredentialTransactionSigner(keyFilePath, walletFiles.get(i), passwords.get(i)));
+      }
+    } else {
+      signers = decryptInParallel(expandedKeyFilePaths, walletFiles, passwords);
+    }
+
+    try {
+      return new TransactionSignerRegistry(signers);
+    } catch (final IllegalArgumentException e) {
+      LOG.error(e.getMessage());
+      throw new TransactionSignerInitializationException(e.getMessage(), e);
+    }
+  }
 
   public static TransactionSigner createSigner(
       final Path keyFilePath, final Path passwordFilePath) {
-    final String password;
+    final String password = readPassword(passwordFilePath);
+    return decrypt(keyFilePath, readWalletFile(keyFilePath), password);
+  }
+
+  static TransactionSigner decrypt(
+      final Path keyFilePath, final WalletFile walletFile, final String password) {
     try {
-      password = readPasswordFromFile(passwordFilePath);
-    } catch (final IOException e) {
-      final String message = READ_PWD_FILE_MESSAGE;
-      LOG.error(message, e);
+      final Credentials credentials = Credentials.create(Wallet.decrypt(password, walletFile));
+      return new CredentialTransactionSigner(credentials);
+    } catch (final CipherException e) {
+      final String message = DECRYPTING_KEY_FILE_MESSAGE;
+      LOG.error("{} {}", message, keyFilePath, e);
       throw new TransactionSignerInitializationException(message, e);
     }
+  }
+
+  private static List<TransactionSigner> decryptInParallel(
+      final List<Path> keyFilePaths,
+      final List<WalletFile> walletFiles,
+      final List<String> passwords) {
+    final int threads = decryptionThreads(walletFiles);
+    LOG.debug("Decrypting {} key files with {} threads", keyFilePaths.size(), threads);
+    final ExecutorService executor =
+        Executors.newFixedThreadPool(
+            threads,
+            new ThreadFactoryBuilder().setNameFormat("key-decryption-%d").setDaemon(true).build());
     try {
-      final Credentials credentials = WalletUtils.loadCredentials(password, keyFilePath.toFile());
-      return new CredentialTransactionSigner(credentials);
+      final List<Future<TransactionSigner>> decryptions = new ArrayList<>();
+      for (int i = 0; i < keyFilePaths.size(); i++) {
+        final Path keyFilePath = keyFilePaths.get(i);
+        final WalletFile walletFile = walletFiles.get(i);
+        final String password = passwords.get(i);
+        decryptions.add(executor.submit(() -> decrypt(keyFilePath, walletFile, password)));
+      }
+
+      final List<TransactionSigner> signers = new ArrayList<>();
+      for (final Future<TransactionSigner> decryption : decryptions) {
+        signers.add(decryption.get());
+      }
+      return signers;
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof TransactionSignerInitializationException) {
+        throw (TransactionSignerInitializationException) e.getCause();
+      }
+      throw new TransactionSignerInitializationException(DECRYPTING_KEY_FILE_MESSAGE, e.getCause());
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TransactionSignerInitializationException(DECRYPTING_KEY_FILE_MESSAGE, e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private static int decryptionThreads(final List<WalletFile> walletFiles) {
+    long maxDecryptionMemory = 1;
+    for (final WalletFile walletFile : walletFiles) {
+      maxDecryptionMemory = Math.max(maxDecryptionMemory, decryptionMemory(walletFile));
+    }
+    final long memoryBound =
+        Runtime.getRuntime().maxMemory() / DECRYPTION_HEAP_DIVISOR / maxDecryptionMemory;
+    final long processorBound =
+        Math.min(Runtime.getRuntime().availableProcessors(), walletFiles.size());
+    return (int) Math.max(1, Math.min(memoryBound, processorBound));
+  }
+
+  /** @return the bytes scrypt allocates to derive the key, which is negligible for pbkdf2 */
+  private static long decryptionMemory(final WalletFile walletFile) {
+    // KdfParams is not public, so the params are only inspected through their public subtypes
+    final Object params = walletFile.getCrypto().getKdfparams();
+    if (params instanceof WalletFile.ScryptKdfParams) {
+      final WalletFile.ScryptKdfParams scrypt = (WalletFile.ScryptKdfParams) params;
+      return 128L * scrypt.getR() * ((long) scrypt.getN() + scrypt.getP());
+    }
+    return 0;
+  }
+
+  private static WalletFile readWalletFile(final Path keyFilePath) {
+    try {
+      return ObjectMapperFactory.getObjectMapper()
+          .readValue(keyFilePath.toFile(), WalletFile.class);
     } catch (final IOException e) {
       final String message = READ_AUTH_FILE_MESSAGE + keyFilePath.toString();
       LOG.error(message, e);
       throw new TransactionSignerInitializationException(message, e);
-    } catch (final CipherException e) {
-      final String message = DECRYPTING_KEY_FILE_MESSAGE;
+    }
+  }
+
+  private static String readPassword(final Path passwordFilePath) {
+    try {
+      return readPasswordFromFile(passwordFilePath);
+    } catch (final IOException e) {
+      final String message = READ_PWD_FILE_MESSAGE;
       LOG.error(message, e);
       throw new TransactionSignerInitializationException(message, e);
     }
   }
 
+  private static List<Path> expandKeyFilePaths(final List<Path> paths) {
+    final List<Path> keyFilePaths = new ArrayList<>();
+    for (final Path path : paths) {
+      if (!Files.isDirectory(path)) {
+        keyFilePaths.add(path);
+        continue;
+      }
+      try (final Stream<Path> files = Files.list(path)) {
+        files
+            .filter(Files::isRegularFile)
+            .filter(file -> !file.getFileName().toString().endsWith(PASSWORD_FILE_SUFFIX))
+            .sorted()
+            .forEach(keyFilePaths::add);
+      } catch (final IOException e) {
+        final String message = LIST_KEY_DIRECTORY_MESSAGE + path.toString();
+        LOG.error(message, e);
+        throw new TransactionSignerInitializationException(message, e);
+      }
+    }
+    return keyFilePaths;
+  }
+
   private static String readPasswordFromFile(final Path path) throws IOException {
     final byte[] fileContent = Files.readAllBytes(path);
     return new String(fileContent, Charsets.UTF_8);
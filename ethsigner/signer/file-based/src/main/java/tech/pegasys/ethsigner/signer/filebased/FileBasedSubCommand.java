@@ -14,9 +14,10 @@ package tech.pegasys.ethsigner.signer.filebased;
 
 import tech.pegasys.ethsigner.SignerSubCommand;
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 
 import java.nio.file.Path;
+import java.util.List;
 
 import com.google.common.base.MoreObjects;
 import picocli.CommandLine;
@@ -48,14 +49,27 @@ public class FileBasedSubCommand extends SignerSubCommand {
   @SuppressWarnings("FieldMayBeFinal") // Because PicoCLI requires Strings to not be final.
   @Option(
       names = {"-k", "--key-file"},
-      description = "The path to a file containing the key used to sign transactions.",
+      description =
+          "The path to a file containing a key used to sign transactions, or to a directory of such files. "
+              + "May be repeated. A key file with a sibling [key file].password file is decrypted with the "
+              + "password it contains, in place of that in the password file.",
       required = true,
       arity = "1")
-  private Path keyFilePath;
+  private List<Path> keyFilePaths;
+
+  @SuppressWarnings("FieldMayBeFinal")
+  @Option(
+      names = {"--lazy-decryption"},
+      description =
+          "Read the address of each key from its key file, deferring decryption of the key until it first "
+              + "signs a transaction, which shortens startup but defers any decryption errors (default: ${DEFAULT-VALUE})")
+  private boolean lazyDecryption = false;
 
   @Override
-  public TransactionSigner createSigner() throws TransactionSignerInitializationException {
-    return FileBasedSignerFactory.createSigner(keyFilePath, passwordFilePath);
+  public TransactionSignerProvider createSignerProvider()
+      throws TransactionSignerInitializationException {
+    return FileBasedSignerFactory.createSignerProvider(
+        keyFilePaths, passwordFilePath, lazyDecryption);
   }
 
   @Override
@@ -63,11 +77,17 @@ public class FileBasedSubCommand extends SignerSubCommand {
     return COMMAND_NAME;
   }
 
+  @Override
+  public String getSigningBackend() {
+    return "file";
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
         .add("passwordFilePath", passwordFilePath)
-        .add("keyFilePath", keyFilePath)
+        .add("keyFilePaths", keyFilePaths)
+        .add("lazyDecryption", lazyDecryption)
         .toString();
   }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.filebased;
+
+import tech.pegasys.ethsigner.TransactionSignerInitializationException;
+import tech.pegasys.ethsigner.core.signing.Signature;
+import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+
+import java.nio.file.Path;
+
+import org.web3j.crypto.WalletFile;
+import org.web3j.utils.Numeric;
+
+/**
+ * Signs with the key of a key file which is decrypted when it first signs, its address having been
+ * read from the key file without decrypting it. A key file which fails to decrypt, or holds the key
+ * of another address, fails every signing request.
+ */
+class LazyCredentialTransactionSigner implements TransactionSigner {
+
+  private final Path keyFilePath;
+  private final String address;
+  private WalletFile walletFile;
+  private String password;
+  private volatile TransactionSigner signer;
+  private volatile RuntimeException failure;
+
+  LazyCredentialTransactionSigner(
+      final Path keyFilePath, final WalletFile walletFile, final String password) {
+    this.keyFilePath = keyFilePath;
+    this.address = Numeric.prependHexPrefix(walletFile.getAddress());
+    this.walletFile = walletFile;
+    this.password = password;
+  }
+
+  @Override
+  public Signature sign(final byte[] data) {
+    return signer().sign(data);
+  }
+
+  @Override
+  public String getAddress() {
+    return address;
+  }
+
+  private TransactionSigner signer() {
+    final TransactionSigner decrypted = signer;
+    if (decrypted != null) {
+      return decrypted;
+    }
+    synchronized (this) {
+      if (signer == null && failure == null) {
+        decrypt();
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return signer;
+  }
+
+  private void decrypt() {
+    try {
+      final TransactionSigner decrypted =
+          FileBasedSignerFactory.decrypt(keyFilePath, walletFile, password);
+      if (decrypted.getAddress().equalsIgnoreCase(address)) {
+        signer = decrypted;
+      } else {
+        failure =
+            new TransactionSignerInitializationException(
+                "Key file " + keyFilePath + " does not hold the key of address " + address);
+      }
+    } catch (final TransactionSignerInitializationException e) {
+      failure = e;
+    }
+    // Neither is needed once decryption has been attempted
+    walletFile = null;
+    password = null;
+  }
+}
@@ -13,11 +13,14 @@
 package tech.pegasys.ethsigner.signer.filebased;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 
 import java.io.File;
 import java.io.IOException;
@@ -45,6 +48,7 @@ public class FileBasedTransactionSignerTest {
   }
 
   private static final String MY_PASSWORD = "myPassword";
+  private static final String OTHER_PASSWORD = "otherPassword";
 
   @Test
   public void success() throws IOException {
@@ -91,6 +95,78 @@ public class FileBasedTransactionSignerTest {
         .isInstanceOf(TransactionSignerInitializationException.class);
   }
 
+  @Test
+  public void everyKeyFileInDirectoryIsLoadedWithItsOwnPasswordIfPresent() throws Exception {
+    final File directory = Files.createTempDirectory("keys").toFile();
+    directory.deleteOnExit();
+    final File firstKeyFile =
+        new File(directory, WalletUtils.generateLightNewWalletFile(MY_PASSWORD, directory));
+    final File secondKeyFile =
+        new File(directory, WalletUtils.generateLightNewWalletFile(OTHER_PASSWORD, directory));
+    final File secondPwdFile = new File(directory, secondKeyFile.getName() + ".password");
+    Files.write(secondPwdFile.toPath(), OTHER_PASSWORD.getBytes(UTF_8));
+    firstKeyFile.deleteOnExit();
+    secondKeyFile.deleteOnExit();
+    secondPwdFile.deleteOnExit();
+    final File pwdFile = createFile(MY_PASSWORD);
+
+    final TransactionSignerProvider provider =
+        FileBasedSignerFactory.createSignerProvider(
+            singletonList(directory.toPath()), pwdFile.toPath(), false);
+
+    assertThat(provider.availableAddresses())
+        .containsExactlyInAnyOrder(
+            WalletUtils.loadCredentials(MY_PASSWORD, firstKeyFile).getAddress(),
+            WalletUtils.loadCredentials(OTHER_PASSWORD, secondKeyFile).getAddress());
+  }
+
+  @Test
+  public void sameKeyFileTwiceIsRejected() throws IOException {
+    final Path keyFile = Paths.get(fileName);
+    final File pwdFile = createFile(MY_PASSWORD);
+
+    assertThatThrownBy(
+            () ->
+                FileBasedSignerFactory.createSignerProvider(
+                    asList(keyFile, keyFile), pwdFile.toPath(), false))
+        .isInstanceOf(TransactionSignerInitializationException.class);
+  }
+
+  @Test
+  public void lazilyDecryptedKeyFileHasAddressBeforeSigning() throws Exception {
+    final File keyFile = new File(fileName);
+    final File pwdFile = createFile(MY_PASSWORD);
+    final TransactionSigner eagerSigner =
+        FileBasedSignerFactory.createSigner(keyFile.toPath(), pwdFile.toPath());
+
+    final TransactionSignerProvider provider =
+        FileBasedSignerFactory.createSignerProvider(
+            singletonList(keyFile.toPath()), pwdFile.toPath(), true);
+
+    final TransactionSigner lazySigner = provider.getSigner(eagerSigner.getAddress()).get();
+    assertThat(lazySigner).isInstanceOf(LazyCredentialTransactionSigner.class);
+    final byte[] data = "data".getBytes(UTF_8);
+    assertThat(lazySigner.sign(data)).isEqualToComparingFieldByField(eagerSigner.sign(data));
+  }
+
+  @Test
+  public void lazilyDecryptedKeyFileWithInvalidPasswordFailsToSign() throws IOException {
+    final File keyFile = new File(fileName);
+    final File pwdFile = createFile(INVALID_PASSWORD);
+
+    final TransactionSignerProvider provider =
+        FileBasedSignerFactory.createSignerProvider(
+            singletonList(keyFile.toPath()), pwdFile.toPath(), true);
+
+    final TransactionSigner lazySigner =
+        provider.getSigner(provider.availableAddresses().iterator().next()).get();
+    final byte[] data = "data".getBytes(UTF_8);
+    assertThatThrownBy(() -> lazySigner.sign(data))
+        .isInstanceOf(TransactionSignerInitializationException.class);
+    assertThatThrownBy(() -> lazySigner.sign(data))
+        .isInstanceOf(TransactionSignerInitializationException.class);
+  }
+
   private static File createFile(final String s) throws IOException {
     final Path path = Files.createTempFile("file", ".file");
     Files.write(path, s.getBytes(UTF_8));
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.filebased;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.ethsigner.core.signing.Signature;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Random;
+
+import org.junit.Test;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Keys;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.Sign.SignatureData;
+
+public class Secp256k1SignerTest {
+
+  private final Random random = new Random(1);
+
+  @Test
+  public void signaturesMatchWeb3j() throws Exception {
+    for (int i = 0; i < 50; i++) {
+      final ECKeyPair keyPair = Keys.createEcKeyPair();
+      final byte[] data = new byte[random.nextInt(200)];
+      random.nextBytes(data);
+
+      final Signature signature = new Secp256k1Signer(keyPair.getPrivateKey()).sign(data);
+      final SignatureData expected = Sign.signMessage(data, keyPair);
+
+      assertThat(signature.getV()).isEqualTo(BigInteger.valueOf(expected.getV()[0]));
+      assertThat(signature.getR()).isEqualTo(new BigInteger(1, expected.getR()));
+      assertThat(signature.getS()).isEqualTo(new BigInteger(1, expected.getS()));
+    }
+  }
+
+  @Test
+  public void publicKeyIsRecoverableFromSignature() throws SignatureException {
+    final ECKeyPair keyPair = ECKeyPair.create(BigInteger.valueOf(0x1234567890L));
+    final byte[] data = "transaction".getBytes(UTF_8);
+
+    final Signature signature = new Secp256k1Signer(keyPair.getPrivateKey()).sign(data);
+    final SignatureData signatureData =
+        new SignatureData(
+            new byte[] {signature.getV().byteValueExact()},
+            toBytes32(signature.getR()),
+            toBytes32(signature.getS()));
+
+    assertThat(Sign.signedMessageToKey(data, signatureData)).isEqualTo(keyPair.getPublicKey());
+  }
+
+  @Test
+  public void keyOutsideOfCurveOrderIsRejected() {
+    assertThatThrownBy(() -> new Secp256k1Signer(BigInteger.ZERO))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static byte[] toBytes32(final BigInteger value) {
+    final byte[] bytes = new byte[32];
+    final byte[] magnitude = value.toByteArray();
+    final int length = Math.min(magnitude.length, bytes.length);
+    System.arraycopy(magnitude, magnitude.length - length, bytes, bytes.length - length, length);
+    return bytes;
+  }
+}
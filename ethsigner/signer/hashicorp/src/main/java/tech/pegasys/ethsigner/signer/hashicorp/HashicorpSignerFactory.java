@@ -13,25 +13,36 @@
 package tech.pegasys.ethsigner.signer.hashicorp;
 
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
+import tech.pegasys.ethsigner.core.signing.AsyncTransactionSigner;
 import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 import tech.pegasys.ethsigner.signer.filebased.CredentialTransactionSigner;
+import tech.pegasys.ethsigner.signer.hashicorp.HashicorpSignerReloader.SignerLoader;
 
 import java.io.IOException;
+import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.vertx.core.Vertx;
 import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpClientRequest;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.bouncycastle.asn1.x509.SubjectPublicKeyInfo;
 import org.web3j.crypto.Credentials;
 
 public class HashicorpSignerFactory {
@@ -44,71 +55,201 @@ public class HashicorpSignerFactory {
       "Unable to retrieve private key from Hashicorp Vault.";
   private static final String TIMEOUT_MESSGAE =
       "Timeout while retrieving private key from Hashicorp Vault.";
+  private static final String TRANSIT_KEY_TYPE_MESSAGE =
+      "Transit key in Hashicorp Vault is not an uncompressed secp256k1 public key.";
+  private static final int MAX_CONNECTIONS = 8;
 
-  public static TransactionSigner createSigner(
-      final String signingKeyPath,
+  /**
+   * Creates signers for the private keys held at each of the signing key paths, which are re-read
+   * (with the token being renewed) at the reload interval, or when the auth file changes.
+   */
+  public static TransactionSignerProvider createSignerProvider(
+      final List<String> signingKeyPaths,
       final int serverPort,
       final String serverHost,
       final Path authFilePath,
-      final long timeout) {
-    final String response =
-        requestSecretFromVault(signingKeyPath, serverPort, serverHost, authFilePath, timeout);
-    final Credentials credentials = extractCredentialsFromJson(response);
-    if (credentials.getAddress() != null) {
+      final long timeoutMillis,
+      final Duration reloadInterval) {
+    final Vertx vertx = Vertx.vertx();
+    try {
+      final HttpClient httpClient = createHttpClient(vertx, serverHost, serverPort);
+      final AtomicReference<String> token = new AtomicReference<>(readTokenFromFile(authFilePath));
+
+      final List<SignerLoader<TransactionSigner>> loaders = new ArrayList<>();
+      for (final String signingKeyPath : signingKeyPaths) {
+        final String requestURI = HASHICORP_SECRET_ENGINE_VERSION + signingKeyPath;
+        loaders.add(
+            currentToken ->
+                requestFromVault(
+                        httpClient,
+                        HttpMethod.GET,
+                        serverPort,
+                        serverHost,
+                        requestURI,
+                        currentToken)
+                    .thenApply(
+                        response ->
+                            new CredentialTransactionSigner(extractCredentialsFromJson(response))));
+      }
+
+      final TransactionSignerProvider provider =
+          createReloadingProvider(
+              vertx,
+              httpClient,
+              serverPort,
+              serverHost,
+              authFilePath,
+              token,
+              loaders,
+              timeoutMillis,
+              reloadInterval);
       LOG.debug("Successfully retrieved the credentials from the Hashicorp vault.");
+      return provider;
+    } catch (final RuntimeException e) {
+      vertx.close();
+      throw e;
     }
-    return new CredentialTransactionSigner(credentials);
   }
 
-  private static String requestSecretFromVault(
-      final String signingKeyPath,
+  /**
+   * Creates signers whose keys are held in a transit secrets engine, to which signing requests are
+   * made over a long-lived connection pool, in batches. The public key of the latest version of
+   * each is re-read (with the token being renewed) at the reload interval, or when the auth file
+   * changes.
+   */
+  public static TransactionSignerProvider createTransitSignerProvider(
+      final String transitPath,
+      final List<String> keyNames,
       final int serverPort,
       final String serverHost,
       final Path authFilePath,
-      final long timeout) {
-    final String requestURI = HASHICORP_SECRET_ENGINE_VERSION + signingKeyPath;
+      final long timeoutMillis,
+      final int maxBatchSize,
+      final Duration reloadInterval) {
+    final String transitURI = HASHICORP_SECRET_ENGINE_VERSION + transitPath;
+
+    final Vertx vertx = Vertx.vertx();
+    try {
+      final HttpClient httpClient = createHttpClient(vertx, serverHost, serverPort);
+      final AtomicReference<String> token = new AtomicReference<>(readTokenFromFile(authFilePath));
+
+      final List<SignerLoader<AsyncTransactionSigner>> loaders = new ArrayList<>();
+      for (final String keyName : keyNames) {
+        final TransitBatchSigner batchSigner =
+            new TransitBatchSigner(
+                vertx.getOrCreateContext(),
+                httpClient,
+                transitURI + "/sign/" + keyName,
+                token::get,
+                timeoutMillis,
+                maxBatchSize);
+        final String keyURI = transitURI + "/keys/" + keyName;
+        loaders.add(
+            currentToken ->
+                requestFromVault(
+                        httpClient, HttpMethod.GET, serverPort, serverHost, keyURI, currentToken)
+                    .thenApply(response -> createTransitSigner(batchSigner, response)));
+      }
 
-    return getVaultResponse(serverPort, serverHost, authFilePath, requestURI, timeout);
+      final TransactionSignerProvider provider =
+          createReloadingProvider(
+              vertx,
+              httpClient,
+              serverPort,
+              serverHost,
+              authFilePath,
+              token,
+              loaders,
+              timeoutMillis,
+              reloadInterval);
+      LOG.debug("Signing with transit keys of {}", provider.availableAddresses());
+      return provider;
+    } catch (final RuntimeException e) {
+      vertx.close();
+      throw e;
+    }
   }
 
-  private static String getVaultResponse(
+  private static <T extends TransactionSigner> TransactionSignerProvider createReloadingProvider(
+      final Vertx vertx,
+      final HttpClient httpClient,
       final int serverPort,
       final String serverHost,
       final Path authFilePath,
-      final String requestURI,
-      final long timeout) {
-    final Vertx vertx = Vertx.vertx();
+      final AtomicReference<String> token,
+      final List<SignerLoader<T>> loaders,
+      final long timeoutMillis,
+      final Duration reloadInterval) {
+    // Every key is requested before waiting on any of them
+    final List<CompletableFuture<T>> initialSigners = new ArrayList<>();
+    loaders.forEach(loader -> initialSigners.add(loader.load(token.get())));
+    final List<ReloadableTransactionSigner<T>> signers = new ArrayList<>();
+    for (final CompletableFuture<T> initialSigner : initialSigners) {
+      signers.add(new ReloadableTransactionSigner<>(getResponse(initialSigner, timeoutMillis)));
+    }
+
+    final HashicorpSignerProvider provider;
     try {
-      final HttpClient httpClient = vertx.createHttpClient();
-      final CompletableFuture<String> future = new CompletableFuture<>();
-      final HttpClientRequest request =
-          httpClient.request(
-              HttpMethod.GET,
-              serverPort,
-              serverHost,
-              requestURI,
-              rh ->
-                  rh.bodyHandler(
-                      bh -> {
-                        if (rh.statusCode() == 200) {
-                          future.complete(bh.toString());
-                        } else {
-                          future.completeExceptionally(
-                              new Exception(
-                                  "Hashicorp vault responded with status code {"
-                                      + rh.statusCode()
-                                      + "}"));
-                        }
-                      }));
-      request.headers().set("X-Vault-Token", readTokenFromFile(authFilePath));
-      request.setChunked(false);
-      request.end();
-      return getResponse(future, timeout);
-    } finally {
-      if (vertx != null) {
-        vertx.close();
-      }
+      provider = new HashicorpSignerProvider(signers);
+    } catch (final IllegalArgumentException e) {
+      LOG.error(e.getMessage());
+      throw new TransactionSignerInitializationException(e.getMessage(), e);
     }
+
+    final HashicorpTokenRenewer renewer =
+        new HashicorpTokenRenewer(vertx, httpClient, serverPort, serverHost, authFilePath, token);
+    for (int i = 0; i < loaders.size(); i++) {
+      final HashicorpSignerReloader<T> reloader =
+          new HashicorpSignerReloader<>(
+              token::get, loaders.get(i), signers.get(i), provider::refresh);
+      renewer.addRenewalListener(reloader::reload);
+    }
+    renewer.start(reloadInterval);
+    return provider;
+  }
+
+  private static HttpClient createHttpClient(
+      final Vertx vertx, final String serverHost, final int serverPort) {
+    return vertx.createHttpClient(
+        new HttpClientOptions()
+            .setDefaultHost(serverHost)
+            .setDefaultPort(serverPort)
+            .setKeepAlive(true)
+            .setMaxPoolSize(MAX_CONNECTIONS));
+  }
+
+  static CompletableFuture<String> requestFromVault(
+      final HttpClient httpClient,
+      final HttpMethod method,
+      final int serverPort,
+      final String serverHost,
+      final String requestURI,
+      final String token) {
+    final CompletableFuture<String> future = new CompletableFuture<>();
+    final HttpClientRequest request =
+        httpClient.request(
+            method,
+            serverPort,
+            serverHost,
+            requestURI,
+            rh ->
+                rh.bodyHandler(
+                    bh -> {
+                      if (rh.statusCode() == 200) {
+                        future.complete(bh.toString());
+                      } else {
+                        future.completeExceptionally(
+                            new Exception(
+                                "Hashicorp vault responded with status code {"
+                                    + rh.statusCode()
+                                    + "}"));
+                      }
+                    }));
+    request.exceptionHandler(future::completeExceptionally);
+    request.headers().set("X-Vault-Token", token);
+    request.setChunked(false);
+    request.end();
+    return future;
   }
 
   private static String readTokenFromFile(final Path path) {
@@ -123,10 +264,10 @@ public class HashicorpSignerFactory {
     return authFileLines.get(0);
   }
 
-  private static String getResponse(final CompletableFuture<String> future, final long timeout) {
-    final String response;
+  private static <T> T getResponse(final CompletableFuture<T> future, final long timeoutMillis) {
+    final T response;
     try {
-      response = future.get(timeout, TimeUnit.SECONDS);
+      response = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
     } catch (final InterruptedException | ExecutionException e) {
       final String message = RETRIEVE_PRIVATE_KEY_MESSGAE;
       LOG.error(message, e);
@@ -148,4 +289,33 @@ public class HashicorpSignerFactory {
         jsonObject.getJsonObject("data").getJsonObject("data").getString("value");
     return Credentials.create(privateKeyHex);
   }
+
+  /** @return a signer for the latest version of the transit key described by the response */
+  private static HashicorpTransitTransactionSigner createTransitSigner(
+      final TransitBatchSigner batchSigner, final String response) {
+    final JsonObject data = new JsonObject(response).getJsonObject("data");
+    final int latestVersion = data.getInteger("latest_version");
+    final String pem =
+        data.getJsonObject("keys")
+            .getJsonObject(String.valueOf(latestVersion))
+            .getString("public_key");
+    return new HashicorpTransitTransactionSigner(
+        batchSigner, latestVersion, extractPublicKeyFromPem(pem));
+  }
+
+  /** @return the public key, as x || y */
+  private static BigInteger extractPublicKeyFromPem(final String pem) {
+    final String base64 =
+        pem.replace("-----BEGIN PUBLIC KEY-----", "")
+            .replace("-----END PUBLIC KEY-----", "")
+            .replaceAll("\\s", "");
+    final byte[] encodedPoint =
+        SubjectPublicKeyInfo.getInstance(Base64.getDecoder().decode(base64))
+            .getPublicKeyData()
+            .getBytes();
+    if (encodedPoint.length != 65 || encodedPoint[0] != 0x04) {
+      throw new TransactionSignerInitializationException(TRANSIT_KEY_TYPE_MESSAGE);
+    }
+    return new BigInteger(1, Arrays.copyOfRange(encodedPoint, 1, 65));
+  }
 }
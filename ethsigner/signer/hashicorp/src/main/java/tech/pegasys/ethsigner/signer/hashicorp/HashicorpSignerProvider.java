@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Provides the current signer of each key held in the vault. The lookup is rebuilt whenever a key
+ * is reloaded, as a rotated key has a different address.
+ */
+class HashicorpSignerProvider implements TransactionSignerProvider {
+
+  private final List<? extends ReloadableTransactionSigner<?>> signers;
+  private volatile TransactionSignerRegistry registry;
+
+  /** @throws IllegalArgumentException when more than one key has the same address */
+  HashicorpSignerProvider(final List<? extends ReloadableTransactionSigner<?>> signers) {
+    this.signers = signers;
+    this.registry = createRegistry();
+  }
+
+  /** @throws IllegalArgumentException when a reloaded key has the address of another key */
+  synchronized void refresh() {
+    registry = createRegistry();
+  }
+
+  private TransactionSignerRegistry createRegistry() {
+    final List<TransactionSigner> current = new ArrayList<>();
+    signers.forEach(signer -> current.add(signer.current()));
+    return new TransactionSignerRegistry(current);
+  }
+
+  @Override
+  public Optional<TransactionSigner> getSigner(final String address) {
+    return registry.getSigner(address);
+  }
+
+  @Override
+  public Set<String> availableAddresses() {
+    return registry.availableAddresses();
+  }
+}
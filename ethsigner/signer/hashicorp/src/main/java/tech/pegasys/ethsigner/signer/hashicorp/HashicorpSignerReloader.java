@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Reloads a signing key from the Hashicorp vault with the current token, swapping it into the
+ * signer. Reloads are triggered by the {@link HashicorpTokenRenewer} shared by all keys.
+ *
+ * <p>Failures are logged, retaining the current signer.
+ */
+class HashicorpSignerReloader<T extends TransactionSigner> {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  @FunctionalInterface
+  interface SignerLoader<S extends TransactionSigner> {
+    /** @return a future completed with a signer for the current version of the key */
+    CompletableFuture<S> load(String token);
+  }
+
+  private final Supplier<String> token;
+  private final SignerLoader<T> loader;
+  private final ReloadableTransactionSigner<T> signer;
+  private final Runnable onSwap;
+
+  HashicorpSignerReloader(
+      final Supplier<String> token,
+      final SignerLoader<T> loader,
+      final ReloadableTransactionSigner<T> signer,
+      final Runnable onSwap) {
+    this.token = token;
+    this.loader = loader;
+    this.signer = signer;
+    this.onSwap = onSwap;
+  }
+
+  void reload() {
+    loader.load(token.get()).whenComplete(this::swap);
+  }
+
+  private void swap(final T loaded, final Throwable error) {
+    if (error != null) {
+      LOG.warn("Failed to reload signing key from Hashicorp vault, retaining current key", error);
+      return;
+    }
+    final T previous = signer.swap(loaded);
+    try {
+      onSwap.run();
+    } catch (final IllegalArgumentException e) {
+      LOG.error("Rejected reloaded signing key, retaining current key: {}", e.getMessage());
+      signer.swap(previous);
+      return;
+    }
+    if (!previous.getAddress().equalsIgnoreCase(loaded.getAddress())) {
+      LOG.info(
+          "Hashicorp vault signing key rotated from {} to {}",
+          previous.getAddress(),
+          loaded.getAddress());
+    }
+  }
+}
@@ -12,12 +12,15 @@
  */
 package tech.pegasys.ethsigner.signer.hashicorp;
 
+import static java.util.Collections.singletonList;
+
 import tech.pegasys.ethsigner.SignerSubCommand;
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
-import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
 
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
 
 import com.google.common.base.MoreObjects;
 import picocli.CommandLine.Command;
@@ -37,6 +40,9 @@ public class HashicorpSubCommand extends SignerSubCommand {
   private static final String DEFAULT_PORT_STRING = "8200";
   private static final Integer DEFAULT_PORT = Integer.valueOf(DEFAULT_PORT_STRING);
   private static final Long DEFAULT_TIMEOUT = Duration.ofSeconds(10).toMillis();
+  private static final String DEFAULT_TRANSIT_PATH = "/transit";
+  private static final int DEFAULT_TRANSIT_MAX_BATCH_SIZE = 64;
+  private static final long DEFAULT_RELOAD_INTERVAL_SECONDS = Duration.ofMinutes(5).getSeconds();
 
   @SuppressWarnings("FieldMayBeFinal") // Because PicoCLI requires Strings to not be final.
   @Option(
@@ -65,19 +71,75 @@ public class HashicorpSubCommand extends SignerSubCommand {
       arity = "1")
   private final Path authFilePath = null;
 
-  @SuppressWarnings("FieldMayBeFinal") // Because PicoCLI requires Strings to not be final.
   @Option(
       names = {"--signing-key-path"},
       description =
           "Path to a secret in the Hashicorp vault containing the private key used for signing transactions. The "
-              + "key needs to be a base 64 encoded private key for ECDSA for curve secp256k1 (default: ${DEFAULT-VALUE})",
+              + "key needs to be a base 64 encoded private key for ECDSA for curve secp256k1. May be repeated to "
+              + "sign with several keys (default: "
+              + DEFAULT_KEY_PATH
+              + ")",
+      arity = "1")
+  private final List<String> signingKeyPaths = null;
+
+  @Option(
+      names = {"--transit-key-name"},
+      description =
+          "Name of a secp256k1 key in the Hashicorp vault transit engine with which to sign transactions, "
+              + "in place of retrieving the key from --signing-key-path. May be repeated to sign with several keys",
+      arity = "1")
+  private final List<String> transitKeyNames = null;
+
+  @SuppressWarnings("FieldMayBeFinal") // Because PicoCLI requires Strings to not be final.
+  @Option(
+      names = {"--transit-path"},
+      description =
+          "Path at which the Hashicorp vault transit engine is mounted (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private String transitPath = DEFAULT_TRANSIT_PATH;
+
+  @SuppressWarnings("FieldMayBeFinal")
+  @Option(
+      names = {"--transit-max-batch-size"},
+      description =
+          "Maximum number of transactions signed by a single request to the transit engine (default: ${DEFAULT-VALUE})",
+      arity = "1")
+  private int transitMaxBatchSize = DEFAULT_TRANSIT_MAX_BATCH_SIZE;
+
+  @SuppressWarnings("FieldMayBeFinal")
+  @Option(
+      names = {"--reload-interval"},
+      description =
+          "Interval in seconds at which the token is renewed and the signing key re-read from the Hashicorp vault, "
+              + "which also happens when the auth file changes (default: ${DEFAULT-VALUE})",
       arity = "1")
-  private String signingKeyPath = DEFAULT_KEY_PATH;
+  private long reloadIntervalSeconds = DEFAULT_RELOAD_INTERVAL_SECONDS;
 
   @Override
-  public TransactionSigner createSigner() throws TransactionSignerInitializationException {
-    return HashicorpSignerFactory.createSigner(
-        signingKeyPath, serverPort, serverHost, authFilePath, timeout);
+  public TransactionSignerProvider createSignerProvider()
+      throws TransactionSignerInitializationException {
+    if (transitKeyNames != null) {
+      return HashicorpSignerFactory.createTransitSignerProvider(
+          transitPath,
+          transitKeyNames,
+          serverPort,
+          serverHost,
+          authFilePath,
+          timeout,
+          transitMaxBatchSize,
+          Duration.ofSeconds(reloadIntervalSeconds));
+    }
+    return HashicorpSignerFactory.createSignerProvider(
+        signingKeyPaths(),
+        serverPort,
+        serverHost,
+        authFilePath,
+        timeout,
+        Duration.ofSeconds(reloadIntervalSeconds));
+  }
+
+  private List<String> signingKeyPaths() {
+    return signingKeyPaths == null ? singletonList(DEFAULT_KEY_PATH) : signingKeyPaths;
   }
 
   @Override
@@ -85,6 +147,11 @@ public class HashicorpSubCommand extends SignerSubCommand {
     return COMMAND_NAME;
   }
 
+  @Override
+  public String getSigningBackend() {
+    return transitKeyNames == null ? "hashicorp" : "hashicorp-transit";
+  }
+
   @Override
   public String toString() {
     return MoreObjects.toStringHelper(this)
@@ -92,7 +159,11 @@ public class HashicorpSubCommand extends SignerSubCommand {
         .add("serverPort", serverPort)
         .add("authFilePath", authFilePath)
         .add("timeout", timeout)
-        .add("signingKeyPath", signingKeyPath)
+        .add("signingKeyPaths", signingKeyPaths())
+        .add("transitKeyNames", transitKeyNames)
+        .add("transitPath", transitPath)
+        .add("transitMaxBatchSize", transitMaxBatchSize)
+        .add("reloadIntervalSeconds", reloadIntervalSeconds)
         .toString();
   }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpMethod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Renews the Hashicorp vault token, periodically and whenever the auth file is modified, over the
+ * signers' long-lived client. A single renewer serves every key held in the vault.
+ *
+ * <p>The token is re-read from the auth file before each renewal, so a replacement token is picked
+ * up without a restart, and listeners are then notified to reload their keys with it. Failures are
+ * logged, retaining the current token.
+ */
+class HashicorpTokenRenewer {
+
+  private static final Logger LOG = LogManager.getLogger();
+  private static final String RENEW_SELF_URI = "/v1/auth/token/renew-self";
+  private static final long AUTH_FILE_CHECK_INTERVAL_MILLIS = 5_000;
+
+  private final Vertx vertx;
+  private final HttpClient httpClient;
+  private final int serverPort;
+  private final String serverHost;
+  private final Path authFilePath;
+  private final AtomicReference<String> token;
+  private final List<Runnable> renewalListeners = new CopyOnWriteArrayList<>();
+  private long authFileModifiedTime = -1;
+
+  HashicorpTokenRenewer(
+      final Vertx vertx,
+      final HttpClient httpClient,
+      final int serverPort,
+      final String serverHost,
+      final Path authFilePath,
+      final AtomicReference<String> token) {
+    this.vertx = vertx;
+    this.httpClient = httpClient;
+    this.serverPort = serverPort;
+    this.serverHost = serverHost;
+    this.authFilePath = authFilePath;
+    this.token = token;
+  }
+
+  /** Registers a listener to run after each renewal attempt, whether or not it succeeded. */
+  void addRenewalListener(final Runnable listener) {
+    renewalListeners.add(listener);
+  }
+
+  void start(final Duration renewalInterval) {
+    // Timers and file system callbacks all run on this context, which owns the modified time
+    final Context context = vertx.getOrCreateContext();
+    context.runOnContext(
+        v -> {
+          checkAuthFile(false);
+          vertx.setPeriodic(AUTH_FILE_CHECK_INTERVAL_MILLIS, id -> checkAuthFile(true));
+          vertx.setPeriodic(renewalInterval.toMillis(), id -> renew());
+        });
+  }
+
+  private void checkAuthFile(final boolean renewOnChange) {
+    vertx
+        .fileSystem()
+        .props(
+            authFilePath.toString(),
+            props -> {
+              if (props.failed()) {
+                LOG.debug("Unable to read properties of {}", authFilePath, props.cause());
+                return;
+              }
+              final long modifiedTime = props.result().lastModifiedTime();
+              if (modifiedTime != authFileModifiedTime) {
+                authFileModifiedTime = modifiedTime;
+                if (renewOnChange) {
+                  LOG.info("Hashicorp vault auth file {} has changed", authFilePath);
+                  renew();
+                }
+              }
+            });
+  }
+
+  private void renew() {
+    vertx
+        .fileSystem()
+        .readFile(
+            authFilePath.toString(),
+            file -> {
+              if (file.succeeded()) {
+                token.set(file.result().toString().split("\\r?\\n", 2)[0]);
+              } else {
+                LOG.warn("Unable to read {}, retaining current token", authFilePath, file.cause());
+              }
+              renewToken(token.get()).thenRun(() -> renewalListeners.forEach(Runnable::run));
+            });
+  }
+
+  private CompletableFuture<Void> renewToken(final String currentToken) {
+    return HashicorpSignerFactory.requestFromVault(
+            httpClient, HttpMethod.POST, serverPort, serverHost, RENEW_SELF_URI, currentToken)
+        .handle(
+            (response, error) -> {
+              // Tokens without a TTL, such as root tokens, cannot be renewed but remain valid
+              if (error != null) {
+                LOG.debug("Hashicorp vault token was not renewed", error);
+              }
+              return null;
+            });
+  }
+}
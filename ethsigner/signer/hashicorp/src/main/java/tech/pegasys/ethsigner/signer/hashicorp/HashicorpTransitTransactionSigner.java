@@ -0,0 +1,73 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import tech.pegasys.ethsigner.core.signing.AsyncTransactionSigner;
+import tech.pegasys.ethsigner.core.signing.RecoverableSignatureFactory;
+import tech.pegasys.ethsigner.core.signing.Signature;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Keys;
+
+/**
+ * Signs transactions with a secp256k1 key which never leaves the Hashicorp Vault transit engine,
+ * deriving the recovery id of each signature from the key's public point. Signing uses the version
+ * of the key whose public key was loaded.
+ */
+class HashicorpTransitTransactionSigner implements AsyncTransactionSigner {
+
+  private final TransitBatchSigner batchSigner;
+  private final int keyVersion;
+  private final RecoverableSignatureFactory signatureFactory;
+  private final String address;
+
+  HashicorpTransitTransactionSigner(
+      final TransitBatchSigner batchSigner, final int keyVersion, final BigInteger publicKey) {
+    this.batchSigner = batchSigner;
+    this.keyVersion = keyVersion;
+    this.signatureFactory = new RecoverableSignatureFactory(publicKey);
+    this.address = "0x" + Keys.getAddress(publicKey);
+  }
+
+  @Override
+  public CompletableFuture<Signature> signAsync(final byte[] data) {
+    final byte[] hash = Hash.sha3(data);
+    return batchSigner.sign(keyVersion, hash).thenApply(signature -> toSignature(signature, hash));
+  }
+
+  private Signature toSignature(final byte[] signature, final byte[] hash) {
+    if (signature.length != 64) {
+      throw new RuntimeException(
+          "Invalid signature from the Hashicorp vault transit engine, must be 64 bytes long");
+    }
+    final BigInteger R = new BigInteger(1, Arrays.copyOfRange(signature, 0, 32));
+    final BigInteger S = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+
+    return signatureFactory
+        .create(R, S, hash)
+        .orElseThrow(
+            () ->
+                new RuntimeException(
+                    "Could not construct a recoverable key. "
+                        + "Is the transit key of type secp256k1?"));
+  }
+
+  @Override
+  public String getAddress() {
+    return address;
+  }
+}
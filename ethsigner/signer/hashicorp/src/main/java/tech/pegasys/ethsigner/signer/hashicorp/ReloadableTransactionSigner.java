@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import tech.pegasys.ethsigner.core.signing.Signature;
+import tech.pegasys.ethsigner.core.signing.TransactionSigner;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delegates to the most recently loaded signer. Replacing it does not affect signatures already
+ * in progress, which complete with the signer they started with.
+ */
+class ReloadableTransactionSigner<T extends TransactionSigner> implements TransactionSigner {
+
+  private final AtomicReference<T> current;
+
+  ReloadableTransactionSigner(final T initialSigner) {
+    this.current = new AtomicReference<>(initialSigner);
+  }
+
+  /** @return the signer which has been replaced */
+  T swap(final T signer) {
+    return current.getAndSet(signer);
+  }
+
+  protected T current() {
+    return current.get();
+  }
+
+  @Override
+  public Signature sign(final byte[] data) {
+    return current().sign(data);
+  }
+
+  @Override
+  public String getAddress() {
+    return current().getAddress();
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Signs digests with a key held in a Hashicorp Vault transit engine, combining the digests queued
+ * by concurrent requests into a single call to its batch_input API.
+ *
+ * <p>A flush of the queue is scheduled on the context when the first digest arrives, so every
+ * digest queued before it runs shares the round trip to the vault.
+ *
+ * <p>Each digest is signed with the version of the key whose public key the caller holds, rather
+ * than the latest, so signatures remain recoverable while a rotated key is yet to be reloaded.
+ */
+class TransitBatchSigner {
+
+  private static final Logger LOG = LogManager.getLogger();
+
+  private final Context context;
+  private final HttpClient httpClient;
+  private final String signUri;
+  private final Supplier<String> token;
+  private final long timeoutMillis;
+  private final int maxBatchSize;
+  private final Queue<PendingSignature> queue = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  TransitBatchSigner(
+      final Context context,
+      final HttpClient httpClient,
+      final String signUri,
+      final Supplier<String> token,
+      final long timeoutMillis,
+      final int maxBatchSize) {
+    this.context = context;
+    this.httpClient = httpClient;
+    this.signUri = signUri;
+    this.token = token;
+    this.timeoutMillis = timeoutMillis;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /** @return a future completed with the 64 byte concatenation of the signature's r and s */
+  CompletableFuture<byte[]> sign(final int keyVersion, final byte[] digest) {
+    final PendingSignature pending = new PendingSignature(keyVersion, digest);
+    queue.add(pending);
+    if (flushScheduled.compareAndSet(false, true)) {
+      context.runOnContext(v -> flush());
+    }
+    return pending.signature;
+  }
+
+  private void flush() {
+    // Cleared before draining, so a digest queued after the drain schedules another flush
+    flushScheduled.set(false);
+
+    // Requests sign with a single key version, so digests are batched by the version they require
+    final Map<Integer, List<PendingSignature>> batches = new LinkedHashMap<>();
+    PendingSignature pending;
+    while ((pending = queue.poll()) != null) {
+      final List<PendingSignature> batch =
+          batches.computeIfAbsent(pending.keyVersion, version -> new ArrayList<>());
+      batch.add(pending);
+      if (batch.size() == maxBatchSize) {
+        send(pending.keyVersion, batch);
+        batches.remove(pending.keyVersion);
+      }
+    }
+    batches.forEach(this::send);
+  }
+
+  private void send(final int keyVersion, final List<PendingSignature> batch) {
+    LOG.trace("Requesting {} signatures from Hashicorp vault", batch.size());
+    final JsonArray batchInput = new JsonArray();
+    for (final PendingSignature pending : batch) {
+      batchInput.add(
+          new JsonObject().put("input", Base64.getEncoder().encodeToString(pending.digest)));
+    }
+    final JsonObject body =
+        new JsonObject()
+            .put("key_version", keyVersion)
+            .put("prehashed", true)
+            .put("marshaling_algorithm", "jws")
+            .put("batch_input", batchInput);
+
+    final HttpClientRequest request =
+        httpClient.post(
+            signUri,
+            response -> {
+              response.exceptionHandler(error -> fail(batch, error));
+              response.bodyHandler(
+                  responseBody -> complete(batch, response.statusCode(), responseBody));
+            });
+    request.exceptionHandler(error -> fail(batch, error));
+    request.setTimeout(timeoutMillis);
+    request.putHeader("X-Vault-Token", token.get());
+    request.putHeader(HttpHeaders.CONTENT_TYPE, "application/json");
+    request.end(body.toBuffer());
+  }
+
+  private void complete(
+      final List<PendingSignature> batch, final int statusCode, final Buffer responseBody) {
+    if (statusCode != 200) {
+      fail(
+          batch,
+          new RuntimeException("Hashicorp vault responded with status code {" + statusCode + "}"));
+      return;
+    }
+
+    final JsonArray results;
+    try {
+      results = responseBody.toJsonObject().getJsonObject("data").getJsonArray("batch_results");
+    } catch (final RuntimeException e) {
+      fail(batch, e);
+      return;
+    }
+    if (results == null || results.size() != batch.size()) {
+      fail(batch, new RuntimeException("Hashicorp vault did not sign every digest in the batch"));
+      return;
+    }
+
+    for (int i = 0; i < batch.size(); i++) {
+      final CompletableFuture<byte[]> signature = batch.get(i).signature;
+      try {
+        signature.complete(decodeSignature(results.getJsonObject(i)));
+      } catch (final RuntimeException e) {
+        signature.completeExceptionally(e);
+      }
+    }
+  }
+
+  private static byte[] decodeSignature(final JsonObject result) {
+    final String error = result.getString("error");
+    if (error != null && !error.isEmpty()) {
+      throw new RuntimeException("Hashicorp vault failed to sign: " + error);
+    }
+    // Prefixed by the key version, e.g. "vault:v1:", with the JWS marshaling being r || s
+    final String signature = result.getString("signature");
+    return Base64.getUrlDecoder().decode(signature.substring(signature.lastIndexOf(':') + 1));
+  }
+
+  private static void fail(final List<PendingSignature> batch, final Throwable error) {
+    LOG.debug("Failed to sign batch with Hashicorp vault", error);
+    batch.forEach(pending -> pending.signature.completeExceptionally(error));
+  }
+
+  private static class PendingSignature {
+
+    private final int keyVersion;
+    private final byte[] digest;
+    private final CompletableFuture<byte[]> signature = new CompletableFuture<>();
+
+    private PendingSignature(final int keyVersion, final byte[] digest) {
+      this.keyVersion = keyVersion;
+      this.digest = digest;
+    }
+  }
+}
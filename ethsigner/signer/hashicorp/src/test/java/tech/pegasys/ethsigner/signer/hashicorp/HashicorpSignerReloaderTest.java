@@ -0,0 +1,156 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import tech.pegasys.ethsigner.core.signing.TransactionSignerProvider;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.Credentials;
+
+public class HashicorpSignerReloaderTest {
+
+  private static final String KEY_PATH = "/secret/data/ethsignerSigningKey";
+  private static final String FIRST_KEY =
+      "8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63";
+  private static final String SECOND_KEY =
+      "c87509a1c067bbde78beb793e6fa76530b6382a4c0241e5e4a9ec0a0f44dc0d3";
+  private static final String OTHER_KEY_PATH = "/secret/data/otherSigningKey";
+  private static final String OTHER_KEY =
+      "4c0883a69102937d6231471b5dbb6204fe5129617082792ae468d01a3f362318";
+
+  private final AtomicReference<String> vaultKey = new AtomicReference<>(FIRST_KEY);
+  private final Set<String> tokensSeen = ConcurrentHashMap.newKeySet();
+  private final AtomicInteger renewals = new AtomicInteger();
+  private final AtomicInteger keyRequests = new AtomicInteger();
+
+  private Vertx vertx;
+  private int port;
+  private Path authFile;
+
+  @Before
+  public void startStubVault() throws Exception {
+    vertx = Vertx.vertx();
+    final CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+    vertx
+        .createHttpServer()
+        .requestHandler(this::respond)
+        .listen(
+            0,
+            result -> {
+              if (result.succeeded()) {
+                listening.complete(result.result());
+              } else {
+                listening.completeExceptionally(result.cause());
+              }
+            });
+    port = listening.get(5, TimeUnit.SECONDS).actualPort();
+
+    authFile = Files.createTempFile("auth", ".token");
+    authFile.toFile().deleteOnExit();
+    Files.write(authFile, "firstToken".getBytes(UTF_8));
+  }
+
+  @After
+  public void stopStubVault() {
+    vertx.close();
+  }
+
+  @Test
+  public void rotatedKeyAndTokenAreUsedWithoutRecreatingTheProvider() throws Exception {
+    final TransactionSignerProvider provider =
+        HashicorpSignerFactory.createSignerProvider(
+            asList(KEY_PATH, OTHER_KEY_PATH),
+            port,
+            "localhost",
+            authFile,
+            5_000,
+            Duration.ofMillis(100));
+    final String firstAddress = Credentials.create(FIRST_KEY).getAddress();
+    final String otherAddress = Credentials.create(OTHER_KEY).getAddress();
+    assertThat(provider.availableAddresses()).containsExactly(firstAddress, otherAddress);
+
+    vaultKey.set(SECOND_KEY);
+    Files.write(authFile, "secondToken".getBytes(UTF_8));
+
+    final String rotatedAddress = Credentials.create(SECOND_KEY).getAddress();
+    awaitUntil(() -> provider.getSigner(rotatedAddress).isPresent());
+    assertThat(provider.getSigner(firstAddress)).isEmpty();
+    assertThat(provider.getSigner(otherAddress)).isPresent();
+    awaitUntil(() -> tokensSeen.contains("secondToken"));
+    assertThat(renewals.get()).isGreaterThan(0);
+  }
+
+  @Test
+  public void tokenIsRenewedOnceForAllKeys() throws Exception {
+    HashicorpSignerFactory.createSignerProvider(
+        asList(KEY_PATH, OTHER_KEY_PATH),
+        port,
+        "localhost",
+        authFile,
+        5_000,
+        Duration.ofMillis(100));
+
+    awaitUntil(() -> keyRequests.get() > 5);
+    // Each key is reloaded after every renewal, other than the initial load
+    final int reloads = keyRequests.get() - 1;
+    assertThat(renewals.get()).isBetween(reloads, reloads + 1);
+  }
+
+  private void respond(final HttpServerRequest request) {
+    tokensSeen.add(request.getHeader("X-Vault-Token"));
+    if (request.path().equals("/v1/auth/token/renew-self")) {
+      renewals.incrementAndGet();
+      request.response().end("{}");
+    } else if (request.path().equals("/v1" + KEY_PATH)) {
+      keyRequests.incrementAndGet();
+      final JsonObject secret = new JsonObject().put("value", vaultKey.get());
+      final JsonObject data = new JsonObject().put("data", secret);
+      request.response().end(new JsonObject().put("data", data).toBuffer());
+    } else if (request.path().equals("/v1" + OTHER_KEY_PATH)) {
+      final JsonObject secret = new JsonObject().put("value", OTHER_KEY);
+      final JsonObject data = new JsonObject().put("data", secret);
+      request.response().end(new JsonObject().put("data", data).toBuffer());
+    } else {
+      request.response().setStatusCode(404).end();
+    }
+  }
+
+  private static void awaitUntil(final BooleanSupplier condition) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+    while (!condition.getAsBoolean()) {
+      assertThat(System.currentTimeMillis()).isLessThan(deadline);
+      Thread.sleep(50);
+    }
+  }
+}
@@ -13,6 +13,7 @@
 package tech.pegasys.ethsigner.signer.hashicorp;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 
 import tech.pegasys.ethsigner.TransactionSignerInitializationException;
@@ -22,11 +23,14 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 
 import org.junit.Test;
 
 public class HashicorpTransactionSignerTest {
 
+  private static final Duration RELOAD_INTERVAL = Duration.ofMinutes(5);
+
   @Test
   public void vaultTimingOut() throws IOException {
 
@@ -34,8 +38,9 @@ public class HashicorpTransactionSignerTest {
 
     assertThatThrownBy(
             () ->
-                HashicorpSignerFactory.createSigner(
-                    "signingKeyPath", 877, "serverHost", authFile.toPath(), 1))
+                HashicorpSignerFactory.createSignerProvider(
+                    singletonList("signingKeyPath"),
+                    877, "serverHost", authFile.toPath(), 1_000, RELOAD_INTERVAL))
         .isInstanceOf(TransactionSignerInitializationException.class);
   }
 
@@ -44,8 +49,13 @@ public class HashicorpTransactionSignerTest {
 
     assertThatThrownBy(
             () ->
-                HashicorpSignerFactory.createSigner(
-                    "signingKeyPath", 877, "serverHost", Paths.get("nonExistingFile"), 1))
+                HashicorpSignerFactory.createSignerProvider(
+                    singletonList("signingKeyPath"),
+                    877,
+                    "serverHost",
+                    Paths.get("nonExistingFile"),
+                    1_000,
+                    RELOAD_INTERVAL))
         .isInstanceOf(TransactionSignerInitializationException.class);
   }
 
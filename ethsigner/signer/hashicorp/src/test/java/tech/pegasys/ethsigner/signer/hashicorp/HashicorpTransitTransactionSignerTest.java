@@ -0,0 +1,251 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.signer.hashicorp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import tech.pegasys.ethsigner.core.signing.Signature;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.Sign.SignatureData;
+import org.web3j.utils.Numeric;
+
+public class HashicorpTransitTransactionSignerTest {
+
+  private static final String SIGN_URI = "/v1/transit/sign/ethsigner";
+  private static final X9ECParameters CURVE = CustomNamedCurves.getByName("secp256k1");
+
+  private final ECKeyPair keyPair =
+      ECKeyPair.create(
+          new BigInteger("8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63", 16));
+  // The latest version of the key, to which it has been rotated
+  private final ECKeyPair rotatedKeyPair =
+      ECKeyPair.create(
+          new BigInteger("c87509a1c067bbde78beb793e6fa76530b6382a4c0241e5e4a9ec0a0f44dc0d3", 16));
+  private final AtomicInteger vaultRequests = new AtomicInteger();
+
+  private Vertx vertx;
+  private Context context;
+  private HttpClient httpClient;
+
+  @Before
+  public void startStubVault() throws Exception {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+    final CompletableFuture<HttpServer> listening = new CompletableFuture<>();
+    vertx
+        .createHttpServer()
+        .requestHandler(
+            request -> request.bodyHandler(body -> respond(request, body.toJsonObject())))
+        .listen(
+            0,
+            result -> {
+              if (result.succeeded()) {
+                listening.complete(result.result());
+              } else {
+                listening.completeExceptionally(result.cause());
+              }
+            });
+    final int port = listening.get(5, TimeUnit.SECONDS).actualPort();
+    httpClient =
+        vertx.createHttpClient(
+            new HttpClientOptions().setDefaultHost("localhost").setDefaultPort(port));
+  }
+
+  @After
+  public void stopStubVault() {
+    vertx.close();
+  }
+
+  @Test
+  public void concurrentSigningRequestsShareASingleVaultRequest() throws Exception {
+    final HashicorpTransitTransactionSigner signer = signer(SIGN_URI, 64);
+
+    final List<byte[]> data = distinctData(10);
+    final List<Signature> signatures = signConcurrently(signer, data);
+
+    assertThat(vaultRequests.get()).isEqualTo(1);
+    for (int i = 0; i < data.size(); i++) {
+      assertThat(recoverPublicKey(data.get(i), signatures.get(i)))
+          .isEqualTo(keyPair.getPublicKey());
+    }
+  }
+
+  @Test
+  public void batchesAreLimitedToTheMaximumSize() throws Exception {
+    final HashicorpTransitTransactionSigner signer = signer(SIGN_URI, 4);
+
+    final List<byte[]> data = distinctData(10);
+    final List<Signature> signatures = signConcurrently(signer, data);
+
+    assertThat(vaultRequests.get()).isEqualTo(3);
+    assertThat(recoverPublicKey(data.get(9), signatures.get(9))).isEqualTo(keyPair.getPublicKey());
+  }
+
+  @Test
+  public void signaturesUseTheLoadedKeyVersionRatherThanTheLatest() throws Exception {
+    final HashicorpTransitTransactionSigner signer = signer(SIGN_URI, 64);
+
+    final List<byte[]> data = distinctData(1);
+    final List<Signature> signatures = signConcurrently(signer, data);
+
+    assertThat(recoverPublicKey(data.get(0), signatures.get(0)))
+        .isEqualTo(keyPair.getPublicKey());
+  }
+
+  @Test
+  public void digestsForEachKeyVersionAreSentSeparately() throws Exception {
+    final TransitBatchSigner batchSigner =
+        new TransitBatchSigner(context, httpClient, SIGN_URI, () -> "token", 5_000, 64);
+    final HashicorpTransitTransactionSigner signer =
+        new HashicorpTransitTransactionSigner(batchSigner, 1, keyPair.getPublicKey());
+    final HashicorpTransitTransactionSigner rotatedSigner =
+        new HashicorpTransitTransactionSigner(batchSigner, 2, rotatedKeyPair.getPublicKey());
+
+    final List<byte[]> data = distinctData(2);
+    final CompletableFuture<List<CompletableFuture<Signature>>> requested =
+        new CompletableFuture<>();
+    context.runOnContext(
+        v -> {
+          final List<CompletableFuture<Signature>> futures = new ArrayList<>();
+          futures.add(signer.signAsync(data.get(0)));
+          futures.add(rotatedSigner.signAsync(data.get(1)));
+          requested.complete(futures);
+        });
+    final List<CompletableFuture<Signature>> signatures = requested.get(5, TimeUnit.SECONDS);
+
+    assertThat(recoverPublicKey(data.get(0), signatures.get(0).get(5, TimeUnit.SECONDS)))
+        .isEqualTo(keyPair.getPublicKey());
+    assertThat(recoverPublicKey(data.get(1), signatures.get(1).get(5, TimeUnit.SECONDS)))
+        .isEqualTo(rotatedKeyPair.getPublicKey());
+    assertThat(vaultRequests.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void vaultErrorFailsEverySignatureInTheBatch() {
+    final HashicorpTransitTransactionSigner signer = signer("/v1/transit/sign/unknown", 64);
+
+    assertThatThrownBy(() -> signConcurrently(signer, distinctData(2)))
+        .isInstanceOf(ExecutionException.class)
+        .hasMessageContaining("400");
+  }
+
+  private HashicorpTransitTransactionSigner signer(final String signUri, final int maxBatchSize) {
+    final TransitBatchSigner batchSigner =
+        new TransitBatchSigner(context, httpClient, signUri, () -> "token", 5_000, maxBatchSize);
+    return new HashicorpTransitTransactionSigner(batchSigner, 1, keyPair.getPublicKey());
+  }
+
+  /** Requests are made from a single event loop task, so are all queued before the flush runs. */
+  private List<Signature> signConcurrently(
+      final HashicorpTransitTransactionSigner signer, final List<byte[]> data) throws Exception {
+    final CompletableFuture<List<CompletableFuture<Signature>>> requested =
+        new CompletableFuture<>();
+    context.runOnContext(
+        v -> {
+          final List<CompletableFuture<Signature>> futures = new ArrayList<>();
+          data.forEach(item -> futures.add(signer.signAsync(item)));
+          requested.complete(futures);
+        });
+
+    final List<Signature> signatures = new ArrayList<>();
+    for (final CompletableFuture<Signature> signature : requested.get(5, TimeUnit.SECONDS)) {
+      signatures.add(signature.get(5, TimeUnit.SECONDS));
+    }
+    return signatures;
+  }
+
+  private void respond(final HttpServerRequest request, final JsonObject body) {
+    vaultRequests.incrementAndGet();
+    if (!request.path().equals(SIGN_URI)) {
+      request.response().setStatusCode(400).end();
+      return;
+    }
+
+    // Vault signs with the latest version of the key, unless another is requested
+    final int keyVersion = body.getInteger("key_version", 2);
+    final ECKeyPair versionKeyPair = keyVersion == 1 ? keyPair : rotatedKeyPair;
+    final JsonArray results = new JsonArray();
+    for (final Object input : body.getJsonArray("batch_input")) {
+      final byte[] digest = Base64.getDecoder().decode(((JsonObject) input).getString("input"));
+      results.add(
+          new JsonObject()
+              .put(
+                  "signature",
+                  "vault:v" + keyVersion + ":" + jwsSignature(versionKeyPair, digest)));
+    }
+    final JsonObject data = new JsonObject().put("batch_results", results);
+    request.response().end(new JsonObject().put("data", data).toBuffer());
+  }
+
+  private static String jwsSignature(final ECKeyPair signingKeyPair, final byte[] digest) {
+    final ECDSASigner ecdsaSigner = new ECDSASigner();
+    ecdsaSigner.init(
+        true,
+        new ECPrivateKeyParameters(
+            signingKeyPair.getPrivateKey(),
+            new ECDomainParameters(CURVE.getCurve(), CURVE.getG(), CURVE.getN())));
+    final BigInteger[] components = ecdsaSigner.generateSignature(digest);
+
+    final byte[] signature = new byte[64];
+    System.arraycopy(Numeric.toBytesPadded(components[0], 32), 0, signature, 0, 32);
+    System.arraycopy(Numeric.toBytesPadded(components[1], 32), 0, signature, 32, 32);
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+  }
+
+  private static BigInteger recoverPublicKey(final byte[] data, final Signature signature)
+      throws SignatureException {
+    final SignatureData signatureData =
+        new SignatureData(
+            new byte[] {signature.getV().byteValueExact()},
+            Numeric.toBytesPadded(signature.getR(), 32),
+            Numeric.toBytesPadded(signature.getS(), 32));
+    return Sign.signedMessageToKey(data, signatureData);
+  }
+
+  private static List<byte[]> distinctData(final int count) {
+    final List<byte[]> data = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      data.add(BigInteger.valueOf(31L * i + 7).toByteArray());
+    }
+    return data;
+  }
+}
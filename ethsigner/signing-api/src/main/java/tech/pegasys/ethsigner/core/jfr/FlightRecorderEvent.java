@@ -0,0 +1,230 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jfr;
+
+import static java.lang.invoke.MethodType.methodType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A custom Java Flight Recorder event, timed from {@link #begin()} to {@link #commit}, with fields
+ * holding strings such as the JSON-RPC method and sender of the transaction being handled.
+ *
+ * <p>EthSigner builds and runs on Java 8 JDKs, not all of which include the jdk.jfr API, so the
+ * event is defined at runtime through jdk.jfr.EventFactory, where it is available. When it is not,
+ * or no recording has enabled the event, {@link #begin()} returns null without allocating and
+ * {@link #commit} does nothing, so events cost next to nothing outside of a recording.
+ */
+public final class FlightRecorderEvent {
+
+  private static final String CATEGORY = "EthSigner";
+  private static final int MAX_FIELDS = 3;
+
+  private final String name;
+  private final int fieldCount;
+  private final MethodHandle isEnabled;
+  private final MethodHandle newEvent;
+  private final MethodHandle begin;
+  private final MethodHandle end;
+  private final MethodHandle shouldCommit;
+  private final MethodHandle set;
+  private final MethodHandle commit;
+
+  /** Creates an event which is never recorded, as the JVM has no flight recorder API. */
+  private FlightRecorderEvent(final String name, final int fieldCount) {
+    this.name = name;
+    this.fieldCount = fieldCount;
+    this.isEnabled = null;
+    this.newEvent = null;
+    this.begin = null;
+    this.end = null;
+    this.shouldCommit = null;
+    this.set = null;
+    this.commit = null;
+  }
+
+  private FlightRecorderEvent(final String name, final int fieldCount, final Object factory)
+      throws ReflectiveOperationException {
+    this.name = name;
+    this.fieldCount = fieldCount;
+
+    final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+    final Class<?> factoryClass = factory.getClass();
+    final Class<?> eventClass = Class.forName("jdk.jfr.Event");
+    final Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+    final Object eventType = factoryClass.getMethod("getEventType").invoke(factory);
+
+    isEnabled =
+        lookup
+            .findVirtual(eventTypeClass, "isEnabled", methodType(boolean.class))
+            .bindTo(eventType);
+    newEvent =
+        lookup
+            .findVirtual(factoryClass, "newEvent", methodType(eventClass))
+            .bindTo(factory)
+            .asType(methodType(Object.class));
+    begin = eventMethod(lookup, eventClass, "begin", methodType(void.class));
+    end = eventMethod(lookup, eventClass, "end", methodType(void.class));
+    shouldCommit = eventMethod(lookup, eventClass, "shouldCommit", methodType(boolean.class));
+    set = eventMethod(lookup, eventClass, "set", methodType(void.class, int.class, Object.class));
+    commit = eventMethod(lookup, eventClass, "commit", methodType(void.class));
+  }
+
+  /**
+   * Defines an event, which is registered with the flight recorder if the JVM has one.
+   *
+   * @param name the event's name, e.g. tech.pegasys.ethsigner.Signing
+   * @param label a human readable name for the event
+   * @param fieldNames the names of the event's string fields, in the order they are committed
+   */
+  public static FlightRecorderEvent define(
+      final String name, final String label, final String... fieldNames) {
+    if (fieldNames.length > MAX_FIELDS) {
+      throw new IllegalArgumentException("Events are limited to " + MAX_FIELDS + " fields");
+    }
+    final Object factory;
+    try {
+      factory = createFactory(name, label, fieldNames);
+    } catch (final ClassNotFoundException e) {
+      return new FlightRecorderEvent(name, fieldNames.length);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to define flight recorder event " + name, e);
+    }
+    try {
+      return new FlightRecorderEvent(name, fieldNames.length, factory);
+    } catch (final ReflectiveOperationException e) {
+      throw new IllegalStateException("Unable to define flight recorder event " + name, e);
+    }
+  }
+
+  /** @return whether a recording in progress has enabled the event */
+  public boolean isEnabled() {
+    if (isEnabled == null) {
+      return false;
+    }
+    try {
+      return (boolean) isEnabled.invokeExact();
+    } catch (final Throwable t) {
+      throw failure(t);
+    }
+  }
+
+  /** @return an event whose duration has begun, or null if the event is not being recorded */
+  public Object begin() {
+    if (!isEnabled()) {
+      return null;
+    }
+    try {
+      final Object event = (Object) newEvent.invokeExact();
+      begin.invokeExact(event);
+      return event;
+    } catch (final Throwable t) {
+      throw failure(t);
+    }
+  }
+
+  public void commit(final Object event, final String field0) {
+    if (event != null) {
+      commitFields(event, field0, null, null);
+    }
+  }
+
+  public void commit(final Object event, final String field0, final String field1) {
+    if (event != null) {
+      commitFields(event, field0, field1, null);
+    }
+  }
+
+  /** Ends the event begun by {@link #begin()}, recording it with the values of its fields. */
+  public void commit(
+      final Object event, final String field0, final String field1, final String field2) {
+    if (event != null) {
+      commitFields(event, field0, field1, field2);
+    }
+  }
+
+  private void commitFields(
+      final Object event, final String field0, final String field1, final String field2) {
+    try {
+      end.invokeExact(event);
+      if (!(boolean) shouldCommit.invokeExact(event)) {
+        return;
+      }
+      final String[] fields = {field0, field1, field2};
+      for (int index = 0; index < fieldCount; index++) {
+        set.invokeExact(event, index, (Object) fields[index]);
+      }
+      commit.invokeExact(event);
+    } catch (final Throwable t) {
+      throw failure(t);
+    }
+  }
+
+  private RuntimeException failure(final Throwable t) {
+    if (t instanceof Error) {
+      throw (Error) t;
+    }
+    if (t instanceof RuntimeException) {
+      return (RuntimeException) t;
+    }
+    return new IllegalStateException("Unable to record flight recorder event " + name, t);
+  }
+
+  private static MethodHandle eventMethod(
+      final MethodHandles.Lookup lookup,
+      final Class<?> eventClass,
+      final String methodName,
+      final MethodType type)
+      throws ReflectiveOperationException {
+    final MethodHandle handle = lookup.findVirtual(eventClass, methodName, type);
+    return handle.asType(handle.type().changeParameterType(0, Object.class));
+  }
+
+  private static Object createFactory(
+      final String name, final String label, final String... fieldNames)
+      throws ReflectiveOperationException {
+    final Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement");
+    final Constructor<?> annotation =
+        annotationElementClass.getConstructor(Class.class, Object.class);
+    final Class<?> labelClass = Class.forName("jdk.jfr.Label");
+
+    final List<Object> eventAnnotations =
+        Arrays.asList(
+            annotation.newInstance(Class.forName("jdk.jfr.Name"), name),
+            annotation.newInstance(labelClass, label),
+            annotation.newInstance(Class.forName("jdk.jfr.Category"), new String[] {CATEGORY}));
+
+    final Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+    final Constructor<?> valueDescriptor =
+        valueDescriptorClass.getConstructor(Class.class, String.class, List.class);
+    final List<Object> fields = new ArrayList<>();
+    for (final String fieldName : fieldNames) {
+      fields.add(
+          valueDescriptor.newInstance(
+              String.class,
+              fieldName,
+              Collections.singletonList(annotation.newInstance(labelClass, fieldName))));
+    }
+
+    return Class.forName("jdk.jfr.EventFactory")
+        .getMethod("create", List.class, List.class)
+        .invoke(null, eventAnnotations, fields);
+  }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.signing;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A signer whose signatures are produced remotely, which can sign without a thread waiting on the
+ * response.
+ */
+public interface AsyncTransactionSigner extends TransactionSigner {
+
+  /** @return a future completed with the signature, which must not block the calling thread */
+  CompletableFuture<Signature> signAsync(final byte[] data);
+
+  @Override
+  default Signature sign(final byte[] data) {
+    return signAsync(data).join();
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.signing;
+
+import java.math.BigInteger;
+import java.util.Optional;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.math.ec.ECAlgorithms;
+import org.bouncycastle.math.ec.ECPoint;
+
+/**
+ * Creates Ethereum signatures from the r and s values of secp256k1 signatures made by a remote
+ * signing service, which does not provide the recovery id, by deriving it from the signer's public
+ * key.
+ */
+public class RecoverableSignatureFactory {
+
+  private static final X9ECParameters CURVE = CustomNamedCurves.getByName("secp256k1");
+  private static final BigInteger N = CURVE.getN();
+  private static final BigInteger HALF_N = N.shiftRight(1);
+  private static final int COORDINATE_LENGTH = 32;
+
+  // Retains the precomputed multiples BouncyCastle attaches to the point for each signature
+  private final ECPoint publicKeyPoint;
+
+  /** @param publicKey the x and y coordinates of the signer's public key */
+  public RecoverableSignatureFactory(final BigInteger publicKey) {
+    this.publicKeyPoint = publicKeyPoint(publicKey);
+  }
+
+  /**
+   * @param hash the hash which was signed
+   * @return the signature with its recovery id, and s in the lower half of the curve order as
+   *     Ethereum requires, or empty if the signature was not made by the public key
+   */
+  public Optional<Signature> create(final BigInteger r, final BigInteger s, final byte[] hash) {
+    final int recId = recoverKeyIndex(r, s, hash);
+    if (recId == -1) {
+      return Optional.empty();
+    }
+
+    // Signatures in the upper half of the curve order are invalid in Ethereum, so s is negated,
+    // which also negates R, flipping its parity
+    if (s.compareTo(HALF_N) > 0) {
+      return Optional.of(new Signature(BigInteger.valueOf((recId ^ 1) + 27), r, N.subtract(s)));
+    }
+    return Optional.of(new Signature(BigInteger.valueOf(recId + 27), r, s));
+  }
+
+  /**
+   * Rather than recovering the public key for each candidate recovery id, R is computed directly
+   * as in verifying the signature, i.e. R = (e/s)G + (r/s)Q. The recovery id is its y-parity, and
+   * whether its x-coordinate exceeded the curve order.
+   *
+   * @return the recovery id of the signature, or -1 if it was not made by the public key
+   */
+  private int recoverKeyIndex(final BigInteger r, final BigInteger s, final byte[] hash) {
+    if (r.signum() <= 0 || r.compareTo(N) >= 0 || s.signum() <= 0 || s.compareTo(N) >= 0) {
+      return -1;
+    }
+    final BigInteger e = new BigInteger(1, hash);
+    final BigInteger sInverse = s.modInverse(N);
+    final ECPoint point =
+        ECAlgorithms.sumOfTwoMultiplies(
+                CURVE.getG(),
+                e.multiply(sInverse).mod(N),
+                publicKeyPoint,
+                r.multiply(sInverse).mod(N))
+            .normalize();
+    if (point.isInfinity()) {
+      return -1;
+    }
+
+    final BigInteger x = point.getAffineXCoord().toBigInteger();
+    if (!x.mod(N).equals(r)) {
+      return -1;
+    }
+    final int yParity = point.getAffineYCoord().testBitZero() ? 1 : 0;
+    return x.compareTo(N) >= 0 ? yParity | 2 : yParity;
+  }
+
+  private static ECPoint publicKeyPoint(final BigInteger publicKey) {
+    final byte[] coordinates = publicKey.toByteArray();
+    final int length = Math.min(coordinates.length, COORDINATE_LENGTH * 2);
+    final byte[] encoded = new byte[1 + COORDINATE_LENGTH * 2];
+    encoded[0] = 0x04; // uncompressed
+    // Drops the sign byte, and restores leading zeros
+    System.arraycopy(
+        coordinates, coordinates.length - length, encoded, encoded.length - length, length);
+    return CURVE.getCurve().decodePoint(encoded);
+  }
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.signing;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface TransactionSignerProvider {
+
+  /** @return the signer for the address, in any case and with or without its 0x prefix */
+  Optional<TransactionSigner> getSigner(final String address);
+
+  /** @return the addresses of every signer, in the order they were provided */
+  Set<String> availableAddresses();
+}
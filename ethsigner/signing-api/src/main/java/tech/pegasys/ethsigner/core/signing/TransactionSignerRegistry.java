@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.signing;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Holds signers for any number of keys, keyed by their normalised address (lower case hex without
+ * its 0x prefix) so the signer for a transaction's sender is found with a single lookup.
+ */
+public class TransactionSignerRegistry implements TransactionSignerProvider {
+
+  private final Map<String, TransactionSigner> signers;
+  private final Set<String> addresses;
+
+  /** @throws IllegalArgumentException when more than one signer has the same address */
+  public TransactionSignerRegistry(final Collection<? extends TransactionSigner> signers) {
+    final Map<String, TransactionSigner> byAddress = new HashMap<>();
+    final Set<String> addresses = new LinkedHashSet<>();
+    for (final TransactionSigner signer : signers) {
+      if (byAddress.put(normalise(signer.getAddress()), signer) != null) {
+        throw new IllegalArgumentException("Multiple signers for address " + signer.getAddress());
+      }
+      addresses.add(signer.getAddress());
+    }
+    this.signers = byAddress;
+    this.addresses = Collections.unmodifiableSet(addresses);
+  }
+
+  public TransactionSignerRegistry(final TransactionSigner signer) {
+    this(Collections.singletonList(signer));
+  }
+
+  @Override
+  public Optional<TransactionSigner> getSigner(final String address) {
+    if (address == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(signers.get(normalise(address)));
+  }
+
+  @Override
+  public Set<String> availableAddresses() {
+    return addresses;
+  }
+
+  private static String normalise(final String address) {
+    final String hex =
+        address.startsWith("0x") || address.startsWith("0X") ? address.substring(2) : address;
+    return hex.toLowerCase(Locale.ROOT);
+  }
+}
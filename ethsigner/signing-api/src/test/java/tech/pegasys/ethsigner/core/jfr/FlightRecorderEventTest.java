@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+public class FlightRecorderEventTest {
+
+  @Test
+  public void eventIsNotBegunOutsideOfARecording() {
+    final FlightRecorderEvent event =
+        FlightRecorderEvent.define("tech.pegasys.ethsigner.test.Unrecorded", "Unrecorded", "a");
+
+    assertThat(event.isEnabled()).isFalse();
+    final Object begun = event.begin();
+    assertThat(begun).isNull();
+    event.commit(begun, "value");
+  }
+
+  @Test
+  public void enabledEventIsRecordedWithItsFields() throws IOException {
+    final String name = "tech.pegasys.ethsigner.test.Recorded";
+    final FlightRecorderEvent event =
+        FlightRecorderEvent.define(name, "Recorded", "method", "sender", "key");
+    final Path dump = Files.createTempFile("ethsigner", ".jfr");
+    dump.toFile().deleteOnExit();
+
+    try (final Recording recording = new Recording()) {
+      recording.enable(name);
+      recording.start();
+      assertThat(event.isEnabled()).isTrue();
+      final Object begun = event.begin();
+      assertThat(begun).isNotNull();
+      event.commit(begun, "eth_sendTransaction", "0xabc", null);
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    final List<RecordedEvent> recorded =
+        RecordingFile.readAllEvents(dump).stream()
+            .filter(e -> e.getEventType().getName().equals(name))
+            .collect(Collectors.toList());
+    assertThat(recorded).hasSize(1);
+    assertThat(recorded.get(0).getString("method")).isEqualTo("eth_sendTransaction");
+    assertThat(recorded.get(0).getString("sender")).isEqualTo("0xabc");
+    assertThat(recorded.get(0).getString("key")).isNull();
+    assertThat(recorded.get(0).getDuration().isNegative()).isFalse();
+  }
+
+  @Test
+  public void eventIsNeverRecordedWithoutFlightRecorderApi() throws Exception {
+    final String name = "tech.pegasys.ethsigner.test.WithoutApi";
+    final Class<?> eventClass =
+        new FlightRecorderHidingClassLoader().loadClass(FlightRecorderEvent.class.getName());
+    final Object event =
+        eventClass
+            .getMethod("define", String.class, String.class, String[].class)
+            .invoke(null, name, "Without API", new String[] {"method"});
+
+    try (final Recording recording = new Recording()) {
+      recording.enable(name);
+      recording.start();
+      assertThat(eventClass.getMethod("isEnabled").invoke(event)).isEqualTo(false);
+      final Object begun = eventClass.getMethod("begin").invoke(event);
+      assertThat(begun).isNull();
+      eventClass
+          .getMethod("commit", Object.class, String.class)
+          .invoke(event, begun, "eth_sendTransaction");
+    }
+  }
+
+  @Test
+  public void eventsAreLimitedToThreeFields() {
+    assertThatThrownBy(
+            () ->
+                FlightRecorderEvent.define(
+                    "tech.pegasys.ethsigner.test.TooMany", "Too Many", "a", "b", "c", "d"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  /** Defines its own FlightRecorderEvent class, which is unable to load the jdk.jfr API. */
+  private static class FlightRecorderHidingClassLoader extends ClassLoader {
+
+    FlightRecorderHidingClassLoader() {
+      super(FlightRecorderEventTest.class.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve)
+        throws ClassNotFoundException {
+      if (name.startsWith("jdk.jfr.")) {
+        throw new ClassNotFoundException(name);
+      }
+      if (!name.equals(FlightRecorderEvent.class.getName())) {
+        return super.loadClass(name, resolve);
+      }
+      synchronized (getClassLoadingLock(name)) {
+        final Class<?> loaded = findLoadedClass(name);
+        if (loaded != null) {
+          return loaded;
+        }
+        final byte[] bytes = readClass(name);
+        return defineClass(name, bytes, 0, bytes.length);
+      }
+    }
+
+    private byte[] readClass(final String name) throws ClassNotFoundException {
+      final String resource = name.replace('.', '/') + ".class";
+      try (final InputStream in = getParent().getResourceAsStream(resource)) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+      } catch (final IOException e) {
+        throw new ClassNotFoundException(name, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2019 ConsenSys AG.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package tech.pegasys.ethsigner.core.signing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+import org.bouncycastle.asn1.x9.X9ECParameters;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.ec.CustomNamedCurves;
+import org.bouncycastle.crypto.params.ECDomainParameters;
+import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
+import org.bouncycastle.crypto.signers.ECDSASigner;
+import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
+import org.junit.Test;
+import org.web3j.crypto.ECDSASignature;
+import org.web3j.crypto.ECKeyPair;
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.Sign;
+
+public class RecoverableSignatureFactoryTest {
+
+  private static final X9ECParameters CURVE = CustomNamedCurves.getByName("secp256k1");
+  private static final BigInteger HALF_N = CURVE.getN().shiftRight(1);
+
+  private final ECKeyPair keyPair =
+      ECKeyPair.create(
+          new BigInteger("8f2a55949038a9610f50fb23b5883af3b4ecb3c3bb792cbcefbd1542c692be63", 16));
+  private final RecoverableSignatureFactory factory =
+      new RecoverableSignatureFactory(keyPair.getPublicKey());
+
+  @Test
+  public void signaturesRecoverTheSignersPublicKey() {
+    boolean highS = false;
+    boolean lowS = false;
+    for (int i = 0; i < 16; i++) {
+      final byte[] hash = Hash.sha3(("message " + i).getBytes(StandardCharsets.UTF_8));
+      final BigInteger[] rs = sign(keyPair.getPrivateKey(), hash);
+      highS |= rs[1].compareTo(HALF_N) > 0;
+      lowS |= rs[1].compareTo(HALF_N) <= 0;
+
+      final Signature signature = factory.create(rs[0], rs[1], hash).get();
+      assertThat(signature.getS()).isLessThanOrEqualTo(HALF_N);
+      assertThat(recoverPublicKey(hash, signature)).isEqualTo(keyPair.getPublicKey());
+    }
+    // Both the s values which are kept and those which are negated are covered
+    assertThat(highS).isTrue();
+    assertThat(lowS).isTrue();
+  }
+
+  @Test
+  public void signatureByAnotherKeyIsNotRecovered() {
+    final byte[] hash = Hash.sha3("message".getBytes(StandardCharsets.UTF_8));
+    final BigInteger[] rs = sign(BigInteger.valueOf(12345), hash);
+
+    assertThat(factory.create(rs[0], rs[1], hash)).isEmpty();
+  }
+
+  @Test
+  public void signatureOutsideTheCurveOrderIsNotRecovered() {
+    final byte[] hash = Hash.sha3("message".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(factory.create(BigInteger.ZERO, BigInteger.ONE, hash)).isEmpty();
+    assertThat(factory.create(BigInteger.ONE, CURVE.getN(), hash)).isEmpty();
+  }
+
+  private static BigInteger[] sign(final BigInteger privateKey, final byte[] hash) {
+    final ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+    signer.init(
+        true,
+        new ECPrivateKeyParameters(
+            privateKey, new ECDomainParameters(CURVE.getCurve(), CURVE.getG(), CURVE.getN())));
+    return signer.generateSignature(hash);
+  }
+
+  private static BigInteger recoverPublicKey(final byte[] hash, final Signature signature) {
+    return Sign.recoverFromSignature(
+        signature.getV().intValueExact() - 27,
+        new ECDSASignature(signature.getR(), signature.getS()),
+        hash);
+  }
+}